@@ -0,0 +1,14 @@
+package FoodSeer.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as purging expired
+ * idempotency keys.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
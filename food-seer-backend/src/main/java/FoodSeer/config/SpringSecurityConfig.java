@@ -1,5 +1,9 @@
 package FoodSeer.config;
 
+import jakarta.servlet.DispatcherType;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -8,12 +12,12 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import FoodSeer.security.BoundedPasswordEncoder;
 import FoodSeer.security.JwtAuthenticationFilter;
+import FoodSeer.security.RateLimitFilter;
 import FoodSeer.service.impl.JwtAccessDeniedHandler;
 import FoodSeer.service.impl.JwtAuthenticationEntryPoint;
 import lombok.AllArgsConstructor;
@@ -36,10 +40,48 @@ public class SpringSecurityConfig {
     /** Handles access denied (authorization) errors */
     private JwtAccessDeniedHandler      accessDeniedHandler;
 
-    /** Encodes passwords */
+    /** Limits request rates per user once they are authenticated */
+    private RateLimitFilter             rateLimitFilter;
+
+    /**
+     * Keeps the rate limit filter out of the servlet filter chain; it runs
+     * only inside the security chain, after the user is known.
+     *
+     * @param filter
+     *            the rate limit filter
+     * @return a disabled registration
+     */
+    @Bean
+    public static FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration (
+            final RateLimitFilter filter ) {
+        final FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>( filter );
+        registration.setEnabled( false );
+        return registration;
+    }
+
+    /**
+     * Encodes passwords with BCrypt on a bounded pool, so hashing cannot use
+     * every request thread.
+     *
+     * @param cost
+     *            BCrypt cost; stored hashes with another cost are rehashed on
+     *            login
+     * @param threads
+     *            number of hashes run at once, or 0 for one per CPU
+     * @param queueCapacity
+     *            number of hashes allowed to wait before callers get 503
+     * @param timeoutMillis
+     *            longest a caller waits for its hash
+     * @return the PasswordEncoder
+     */
     @Bean
-    public static PasswordEncoder passwordEncoder () {
-        return new BCryptPasswordEncoder();
+    public static BoundedPasswordEncoder passwordEncoder (
+            @Value ( "${app.security.bcrypt-cost:10}" ) final int cost,
+            @Value ( "${app.security.hash-threads:0}" ) final int threads,
+            @Value ( "${app.security.hash-queue-capacity:64}" ) final int queueCapacity,
+            @Value ( "${app.security.hash-timeout-ms:10000}" ) final long timeoutMillis ) {
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder( cost, poolSize, queueCapacity, timeoutMillis );
     }
 
     /**
@@ -61,11 +103,14 @@ public class SpringSecurityConfig {
                 authorize.requestMatchers( "/auth/**" ).permitAll();
                 authorize.requestMatchers( HttpMethod.OPTIONS, "/**" ).permitAll(); // allows preflight
                 authorize.requestMatchers( HttpMethod.GET, "/api/locations/{id:[0-9]+}" ).permitAll();
+                // SSE and error dispatches were authorized on the original request
+                authorize.dispatcherTypeMatchers( DispatcherType.ASYNC, DispatcherType.ERROR ).permitAll();
                 authorize.anyRequest().authenticated();
             })
             .httpBasic(Customizer.withDefaults());
 
         http.addFilterBefore( authenticationFilter, UsernamePasswordAuthenticationFilter.class );
+        http.addFilterAfter( rateLimitFilter, JwtAuthenticationFilter.class );
 
         return http.build();
     }
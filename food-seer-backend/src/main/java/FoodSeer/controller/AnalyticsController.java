@@ -0,0 +1,74 @@
+package FoodSeer.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import FoodSeer.dto.AnalyticsDto;
+import FoodSeer.dto.ChatCacheStatsDto;
+import FoodSeer.dto.PasswordHashStatsDto;
+import FoodSeer.security.BoundedPasswordEncoder;
+import FoodSeer.service.AnalyticsService;
+import FoodSeer.service.ChatService;
+
+/**
+ * Controller for order statistics. Answers from in-memory counters, so it is
+ * cheap to poll from a dashboard.
+ */
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    /** Connection to AnalyticsService */
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    /** Password encoder, for its hashing statistics */
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    /** Chat service, for its answer cache statistics */
+    @Autowired
+    private ChatService chatService;
+
+    /**
+     * Returns the current order statistics.
+     *
+     * @param hours number of most recent hourly buckets to include
+     * @param top   number of top customers to include
+     * @return the statistics
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public AnalyticsDto getAnalytics(@RequestParam(defaultValue = "24") final int hours,
+            @RequestParam(defaultValue = "10") final int top) {
+        return analyticsService.getAnalytics(hours, top);
+    }
+
+    /**
+     * Returns password hashing statistics, used to tune the BCrypt cost.
+     *
+     * @return the statistics
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/password-hashing")
+    public PasswordHashStatsDto getPasswordHashStats() {
+        return passwordEncoder.getStats();
+    }
+
+    /**
+     * Returns chat answer cache statistics, such as the hit rate.
+     *
+     * @return the statistics
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/chat-cache")
+    public ChatCacheStatsDto getChatCacheStats() {
+        return chatService.getCacheStats();
+    }
+}
@@ -5,10 +5,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import FoodSeer.dto.LoginRequestDto;
+import FoodSeer.dto.RefreshRequestDto;
 import FoodSeer.dto.RegisterRequestDto;
 import FoodSeer.service.AuthService;
 import FoodSeer.service.UserService;
@@ -33,4 +35,16 @@ public class AuthController {
 
         return authService.login( req );
     }
+
+    @PostMapping ( "/refresh" )
+    public ResponseEntity< ? > refresh ( @RequestBody final RefreshRequestDto req ) {
+        return authService.refresh( req );
+    }
+
+    @PostMapping ( "/logout" )
+    public ResponseEntity< ? > logout (
+            @RequestHeader ( value = "Authorization", required = false ) final String authorization,
+            @RequestBody ( required = false ) final RefreshRequestDto req ) {
+        return authService.logout( authorization, req == null ? null : req.refreshToken() );
+    }
 }
@@ -1,6 +1,7 @@
 package FoodSeer.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import FoodSeer.dto.ChatRequestDto;
 import FoodSeer.dto.ChatResponseDto;
@@ -38,5 +40,17 @@ public class ChatController {
         final ChatResponseDto response = chatService.sendMessage(chatRequest);
         return ResponseEntity.ok(response);
     }
-}
 
+    /**
+     * Sends a message to the AI and streams the answer as server-sent events
+     * while it is generated.
+     *
+     * @param chatRequest the chat request containing the user's message
+     * @return the event stream
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CUSTOMER')")
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessage(@RequestBody final ChatRequestDto chatRequest) {
+        return chatService.streamMessage(chatRequest);
+    }
+}
@@ -1,6 +1,7 @@
 package FoodSeer.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -16,6 +17,9 @@ import org.springframework.web.bind.annotation.RequestParam; // Added this impor
 import org.springframework.web.bind.annotation.RestController;
 
 import FoodSeer.dto.FoodDto;
+import FoodSeer.dto.RankedFoodDto;
+import FoodSeer.exception.ResourceNotFoundException;
+import FoodSeer.service.FoodRankingService;
 import FoodSeer.service.FoodService;
 
 /**
@@ -26,12 +30,21 @@ import FoodSeer.service.FoodService;
 @RequestMapping ( "/api/foods" )
 public class FoodController {
 
+    /** Largest number of foods returned by the top foods endpoint */
+    private static final int MAX_TOP_LIMIT = 100;
+
     /**
      * Food service to use
      */
     @Autowired
     private FoodService foodService;
 
+    /**
+     * Food ranking service to use
+     */
+    @Autowired
+    private FoodRankingService foodRankingService;
+
     /**
      * Gets the food based on the ID parameter
      *
@@ -45,6 +58,23 @@ public class FoodController {
         return ResponseEntity.ok( foodDto );
     }
 
+    /**
+     * Gets the highest ranked foods. Foods are ranked by a Bayesian average
+     * of their ratings, so a food with only a few ratings does not outrank a
+     * food with many slightly lower ones.
+     *
+     * @param limit
+     * The maximum number of foods to return
+     * @return The foods, best first
+     */
+    @GetMapping ( "/top" )
+    public ResponseEntity<List<RankedFoodDto>> getTopFoods ( @RequestParam ( defaultValue = "10" ) final int limit ) {
+        if ( limit < 1 || limit > MAX_TOP_LIMIT ) {
+            return new ResponseEntity<>( HttpStatus.BAD_REQUEST );
+        }
+        return ResponseEntity.ok( foodRankingService.getTopFoods( limit ) );
+    }
+
     /**
      * POST mapping to create a food
      *
@@ -162,4 +192,31 @@ public class FoodController {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Rates several food items of one order at once.
+     * Endpoint: POST /api/foods/orders/{orderId}/rate with body {"foodId": rating}
+     *
+     * @param orderId The ID of the order
+     * @param ratings The rating value (0-5) for each food ID
+     * @return The updated FoodDtos with new averages, ordered by ID
+     */
+    @PostMapping("/orders/{orderId}/rate")
+    public ResponseEntity<?> rateOrder(
+            @PathVariable final Long orderId,
+            @RequestBody final Map<Long, Double> ratings) {
+
+        try {
+            final List<FoodDto> updatedFoods = foodService.rateOrder(orderId, ratings);
+            return ResponseEntity.ok(updatedFoods);
+        } catch (final ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (final IllegalStateException e) {
+            // Returns 409 Conflict if order is not fulfilled or an item is already rated
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (final IllegalArgumentException e) {
+            // Returns 400 Bad Request if a food is not in the order or a rating is invalid
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+}
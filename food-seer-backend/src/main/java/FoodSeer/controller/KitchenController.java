@@ -0,0 +1,148 @@
+package FoodSeer.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import FoodSeer.dto.KitchenTicketDto;
+import FoodSeer.dto.OrderDto;
+import FoodSeer.service.KitchenQueueService;
+
+/**
+ * Controller for the kitchen queue. Lets staff claim pending orders one at a
+ * time and follow queue changes live instead of reloading the unfulfilled
+ * order list.
+ */
+@CrossOrigin("*")
+@RestController
+@RequestMapping("/api/kitchen")
+public class KitchenController {
+
+    /** Connection to KitchenQueueService */
+    @Autowired
+    private KitchenQueueService kitchenQueueService;
+
+    /**
+     * Returns the current kitchen queue.
+     *
+     * @return unclaimed tickets in hand-out order, then claimed tickets
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping("/queue")
+    public List<KitchenTicketDto> getQueue() {
+        return kitchenQueueService.getQueue();
+    }
+
+    /**
+     * Streams queue changes as Server-Sent Events. The first event is a
+     * {@code snapshot} of the queue, followed by ENQUEUED, CLAIMED, RELEASED,
+     * UPDATED and REMOVED events for single tickets.
+     *
+     * @return the event stream
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamQueue() {
+        return kitchenQueueService.subscribe();
+    }
+
+    /**
+     * Claims the next order for the current staff member.
+     *
+     * @return the claimed ticket, or 204 if nothing is waiting
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @PostMapping("/claim")
+    public ResponseEntity<KitchenTicketDto> claimNext() {
+        final KitchenTicketDto ticket = kitchenQueueService.claimNext(currentUsername());
+        if (ticket == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(ticket);
+    }
+
+    /**
+     * Puts an order claimed by the current staff member back in the queue.
+     *
+     * @param orderId id of the order
+     * @return the released ticket, or 409 if the order is not claimed by the caller
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @PostMapping("/{orderId}/release")
+    public ResponseEntity<?> release(@PathVariable final Long orderId) {
+        try {
+            return ResponseEntity.ok(kitchenQueueService.release(orderId, currentUsername()));
+        } catch (final IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Fulfills an order claimed by the current staff member.
+     *
+     * @param orderId id of the order
+     * @return the fulfilled order, 409 if the order is not claimed by the
+     *         caller, or 400 if there is not enough stock
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @PostMapping("/{orderId}/complete")
+    public ResponseEntity<?> complete(@PathVariable final Long orderId) {
+        try {
+            final OrderDto fulfilled = kitchenQueueService.complete(orderId, currentUsername());
+            return ResponseEntity.ok(fulfilled);
+        } catch (final IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Changes the priority of a queued order.
+     *
+     * @param orderId  id of the order
+     * @param priority the new priority, higher values are prepared first
+     * @return the updated ticket
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @PutMapping("/{orderId}/priority")
+    public ResponseEntity<KitchenTicketDto> reprioritize(@PathVariable final Long orderId,
+            @RequestParam final int priority) {
+        return ResponseEntity.ok(kitchenQueueService.reprioritize(orderId, priority));
+    }
+
+    /**
+     * Rebuilds the queue from the database.
+     *
+     * @return the rebuilt queue
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/rebuild")
+    public List<KitchenTicketDto> rebuild() {
+        kitchenQueueService.rebuild();
+        return kitchenQueueService.getQueue();
+    }
+
+    /**
+     * Returns the username of the authenticated caller.
+     *
+     * @return the username
+     */
+    private static String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
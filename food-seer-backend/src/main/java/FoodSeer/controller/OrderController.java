@@ -1,9 +1,12 @@
 package FoodSeer.controller;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -11,12 +14,24 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import FoodSeer.dto.FulfillmentJobDto;
 import FoodSeer.dto.OrderDto;
+import FoodSeer.dto.OrderPageDto;
+import FoodSeer.dto.OrderSummaryDto;
+import FoodSeer.dto.OrderView;
+import FoodSeer.entity.User;
 import FoodSeer.exception.ResourceNotFoundException;
+import FoodSeer.service.FulfillmentService;
+import FoodSeer.service.IdempotencyService;
+import FoodSeer.service.OrderNotificationService;
 import FoodSeer.service.OrderService;
+import FoodSeer.service.UserService;
 
 /**
  * Controller for Orders in the FoodSeer system.
@@ -31,6 +46,22 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    /** Replays responses for retried requests */
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    /** Fulfills orders in the background */
+    @Autowired
+    private FulfillmentService fulfillmentService;
+
+    /** Pushes order changes to customers */
+    @Autowired
+    private OrderNotificationService orderNotificationService;
+
+    /** Looks up the current user */
+    @Autowired
+    private UserService userService;
+
     /**
      * Retrieves all orders in the system.
      *
@@ -38,8 +69,19 @@ public class OrderController {
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CUSTOMER')")
     @GetMapping
-    public List<OrderDto> getOrders() {
-        return orderService.getAllOrders();
+    public List<OrderView> getOrders() {
+        return orderService.getAllOrderViews();
+    }
+
+    /**
+     * Retrieves the total and item count of every order without the items.
+     *
+     * @return JSON list of order summaries
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    @GetMapping("/summary")
+    public List<OrderSummaryDto> getOrderSummaries() {
+        return orderService.getOrderSummaries();
     }
 
     /**
@@ -49,8 +91,8 @@ public class OrderController {
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CUSTOMER')")
     @GetMapping("/fulfilledOrders")
-    public List<OrderDto> getFulfilledOrders() {
-        return orderService.getAllFulfilledOrders();
+    public List<OrderView> getFulfilledOrders() {
+        return orderService.getOrderViews(true);
     }
 
     /**
@@ -60,32 +102,91 @@ public class OrderController {
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CUSTOMER')")
     @GetMapping("/unfulfilledOrders")
-    public List<OrderDto> getUnfulfilledOrders() {
-        return orderService.getAllUnfulfilledOrders();
+    public List<OrderView> getUnfulfilledOrders() {
+        return orderService.getOrderViews(false);
     }
 
     /**
-     * Creates a new order.
+     * Creates a new order. If an Idempotency-Key header is sent, retries with
+     * the same key return the original order instead of creating a new one.
      *
      * @param orderDto the order to create
+     * @param idempotencyKey optional key identifying this request across retries
      * @return ResponseEntity containing the created order
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CUSTOMER')")
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@RequestBody final OrderDto orderDto) {
-        final OrderDto savedOrderDto = orderService.createOrder(orderDto);
-        return ResponseEntity.ok(savedOrderDto);
+    public ResponseEntity<OrderDto> createOrder(@RequestBody final OrderDto orderDto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) final String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "createOrder", orderDto, OrderDto.class, () -> {
+            final OrderDto savedOrderDto = orderService.createOrder(orderDto);
+            return ResponseEntity.ok(savedOrderDto);
+        });
     }
 
     /**
-     * Marks an order as fulfilled.
+     * Marks an order as fulfilled. If an Idempotency-Key header is sent,
+     * retries with the same key return the original result without deducting
+     * stock again.
      *
      * @param orderDto the order to fulfill
+     * @param idempotencyKey optional key identifying this request across retries
      * @return ResponseEntity with status depending on fulfillment result
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CUSTOMER')")
     @PostMapping("/fulfillOrder")
-    public ResponseEntity<OrderDto> fulfillOrder(@RequestBody final OrderDto orderDto) {
+    public ResponseEntity<OrderDto> fulfillOrder(@RequestBody final OrderDto orderDto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) final String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "fulfillOrder", orderDto, OrderDto.class,
+                () -> doFulfillOrder(orderDto));
+    }
+
+    /**
+     * Accepts an order for fulfillment in the background and returns a
+     * tracking id at once. Sending the same order again while it is pending
+     * returns the existing job.
+     *
+     * @param orderDto the order to fulfill
+     * @return 202 with the job, 412 if the order does not exist, 410 if it is
+     *         already fulfilled, or 429 if too many requests are pending
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CUSTOMER')")
+    @PostMapping("/fulfillOrder/async")
+    public ResponseEntity<FulfillmentJobDto> fulfillOrderAsync(@RequestBody final OrderDto orderDto) {
+        try {
+            return ResponseEntity.accepted().body(fulfillmentService.submit(orderDto.getId()));
+        } catch (final ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (final IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        } catch (final RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
+    /**
+     * Retrieves the state of a background fulfillment job.
+     *
+     * @param jobId the tracking id returned when the job was accepted
+     * @return the job, or 404 if it is unknown or has expired
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'CUSTOMER')")
+    @GetMapping("/fulfillOrder/jobs/{jobId}")
+    public ResponseEntity<FulfillmentJobDto> getFulfillmentJob(@PathVariable("jobId") final String jobId) {
+        try {
+            return ResponseEntity.ok(fulfillmentService.getJob(jobId));
+        } catch (final ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    /**
+     * Fulfills an order and maps the outcome to a response.
+     *
+     * @param orderDto the order to fulfill
+     * @return ResponseEntity with status depending on fulfillment result
+     */
+    private ResponseEntity<OrderDto> doFulfillOrder(final OrderDto orderDto) {
         try {
             orderService.getOrderById(orderDto.getId());
         } catch (final ResourceNotFoundException e) {
@@ -101,6 +202,9 @@ public class OrderController {
         try {
             final OrderDto updatedOrder = orderService.fulfillOrder(existingOrder.getId());
             return ResponseEntity.ok(updatedOrder);
+        } catch (final IllegalStateException e) {
+            // Fulfilled by another request since the check above
+            return new ResponseEntity<>(orderDto, HttpStatus.GONE);
         } catch (final Exception e) {
             return new ResponseEntity<>(orderDto, HttpStatus.BAD_REQUEST);
         }
@@ -130,8 +234,45 @@ public class OrderController {
      */
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/my-orders")
-    public List<OrderDto> getMyOrders() {
-        return orderService.getCurrentUserOrders();
+    public List<OrderView> getMyOrders() {
+        return orderService.getCurrentUserOrderViews();
+    }
+
+    /**
+     * Retrieves the total and item count of the current user's orders
+     * without the items.
+     *
+     * @return JSON list of the current user's order summaries
+     */
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @GetMapping("/my-orders/summary")
+    public List<OrderSummaryDto> getMyOrderSummaries() {
+        return orderService.getCurrentUserOrderSummaries();
+    }
+
+    /**
+     * Retrieves one page of the current user's orders, newest first. Pass the
+     * returned nextBefore as before to get the next page, or the newest id
+     * already seen as since to get only orders placed after it.
+     *
+     * @param fulfilled true for fulfilled orders, false for pending ones, omit for all
+     * @param before    only orders with a smaller id are returned
+     * @param since     only orders with a larger id are returned
+     * @param limit     maximum number of orders on the page, 1 to 100
+     * @return ResponseEntity containing the page, or 400 for a bad limit
+     */
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @GetMapping("/my-orders/page")
+    public ResponseEntity<OrderPageDto> getMyOrderPage(
+            @RequestParam(value = "fulfilled", required = false) final Boolean fulfilled,
+            @RequestParam(value = "before", required = false) final Long before,
+            @RequestParam(value = "since", required = false) final Long since,
+            @RequestParam(value = "limit", defaultValue = "20") final int limit) {
+        try {
+            return ResponseEntity.ok(orderService.getCurrentUserOrderPage(fulfilled, before, since, limit));
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -141,8 +282,8 @@ public class OrderController {
      */
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/my-orders/fulfilled")
-    public List<OrderDto> getMyFulfilledOrders() {
-        return orderService.getCurrentUserFulfilledOrders();
+    public List<OrderView> getMyFulfilledOrders() {
+        return orderService.getCurrentUserOrderViews(true);
     }
 
     /**
@@ -152,8 +293,24 @@ public class OrderController {
      */
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/my-orders/unfulfilled")
-    public List<OrderDto> getMyUnfulfilledOrders() {
-        return orderService.getCurrentUserUnfulfilledOrders();
+    public List<OrderView> getMyUnfulfilledOrders() {
+        return orderService.getCurrentUserOrderViews(false);
     }
 
+    /**
+     * Opens a server-sent event stream of changes to the current user's
+     * orders. Events are named CREATED, FULFILLED and RATED and carry the
+     * order.
+     *
+     * @return the event stream
+     */
+    @PreAuthorize("hasRole('CUSTOMER')")
+    @GetMapping(value = "/my-orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMyOrders() {
+        final User currentUser = userService.getCurrentUser();
+        if (currentUser == null) {
+            throw new IllegalStateException("No authenticated user found");
+        }
+        return orderNotificationService.subscribe(currentUser.getId());
+    }
 }
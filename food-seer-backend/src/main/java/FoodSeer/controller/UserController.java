@@ -1,9 +1,12 @@
 package FoodSeer.controller;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -13,11 +16,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import FoodSeer.dto.UpdateRoleDto;
+import FoodSeer.dto.UserDeletionJobDto;
 import FoodSeer.dto.UserDto;
+import FoodSeer.dto.UserPageDto;
 import FoodSeer.dto.UserPreferencesDto;
+import FoodSeer.exception.ResourceNotFoundException;
+import FoodSeer.service.UserDeletionService;
 import FoodSeer.service.UserService;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -29,6 +37,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserDeletionService userDeletionService;
+
     // Admin-only: list all users
     @GetMapping("")
     @PreAuthorize("hasRole('ADMIN')")
@@ -36,6 +47,25 @@ public class UserController {
         return userService.listUsers().stream().map(UserDto::fromEntity).collect(Collectors.toList());
     }
 
+    // Admin-only: one page of users, searched by username or email prefix
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserPageDto> listUserPage(
+            @RequestParam(value = "search", required = false) final String search,
+            @RequestParam(value = "role", required = false) final String role,
+            @RequestParam(value = "after", required = false) final Long after,
+            @RequestParam(value = "afterUsername", required = false) final String afterUsername,
+            @RequestParam(value = "afterEmail", required = false) final String afterEmail,
+            @RequestParam(value = "limit", defaultValue = "50") final int limit,
+            @RequestParam(value = "orderCounts", defaultValue = "false") final boolean orderCounts) {
+        try {
+            return ResponseEntity.ok(userService.listUsers(search, role, after, afterUsername, afterEmail, limit,
+                    orderCounts));
+        } catch (final IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Admin-only: get user by id
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -62,6 +92,30 @@ public class UserController {
         return ResponseEntity.ok().build();
     }
 
+    // Admin-only: delete a user with a long order history in the background
+    @DeleteMapping("/{id}/async")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserDeletionJobDto> deleteUserAsync(@PathVariable final Long id) {
+        try {
+            return ResponseEntity.accepted().body(userDeletionService.submit(id));
+        } catch (final ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (final RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
+    // Admin-only: progress of a background deletion
+    @GetMapping("/deletions/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserDeletionJobDto> getDeletionJob(@PathVariable final String jobId) {
+        try {
+            return ResponseEntity.ok(userDeletionService.getJob(jobId));
+        } catch (final ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping ( "/me" )
     public ResponseEntity<UserDto> getCurrentUser () {
         return ResponseEntity.ok( UserDto.fromEntity(userService.getCurrentUser()) );
@@ -0,0 +1,38 @@
+package FoodSeer.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order statistics kept up to date as orders are placed and fulfilled.
+ *
+ * @param ordersCreated
+ *            number of orders placed
+ * @param ordersFulfilled
+ *            number of orders fulfilled
+ * @param totalRevenue
+ *            sum of the totals of fulfilled orders
+ * @param unitsSoldByFood
+ *            units sold in fulfilled orders, by food id
+ * @param topCustomers
+ *            number of orders placed, by user id, largest first
+ * @param revenueByHour
+ *            fulfilled orders and revenue per hour, oldest first
+ */
+public record AnalyticsDto ( long ordersCreated, long ordersFulfilled, long totalRevenue,
+        Map<Long, Long> unitsSoldByFood, Map<Long, Long> topCustomers, List<HourBucket> revenueByHour ) {
+
+    /**
+     * Fulfilled orders and revenue in one hour.
+     *
+     * @param hour
+     *            start of the hour
+     * @param orders
+     *            orders fulfilled in the hour
+     * @param revenue
+     *            revenue from those orders
+     */
+    public record HourBucket ( LocalDateTime hour, long orders, long revenue ) {
+    }
+}
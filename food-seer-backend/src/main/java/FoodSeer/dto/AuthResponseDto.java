@@ -1,7 +1,11 @@
 package FoodSeer.dto;
 
-public record AuthResponseDto ( String accessToken, String tokenType ) {
+public record AuthResponseDto ( String accessToken, String tokenType, String refreshToken, long expiresIn ) {
     public AuthResponseDto ( final String accessToken ) {
-        this( accessToken, "Bearer" );
+        this( accessToken, "Bearer", null, 0 );
+    }
+
+    public AuthResponseDto ( final String accessToken, final String refreshToken, final long expiresIn ) {
+        this( accessToken, "Bearer", refreshToken, expiresIn );
     }
 }
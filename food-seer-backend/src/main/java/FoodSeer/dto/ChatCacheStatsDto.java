@@ -0,0 +1,25 @@
+package FoodSeer.dto;
+
+/**
+ * Statistics of the chat answer cache since startup.
+ *
+ * @param entries
+ *            answers held
+ * @param bytes
+ *            estimated size of the answers held
+ * @param maxBytes
+ *            size budget
+ * @param hits
+ *            questions answered from the cache
+ * @param misses
+ *            questions sent to the AI
+ * @param hitRate
+ *            hits over all questions
+ * @param evictions
+ *            answers dropped to stay within the budget
+ * @param catalogVersion
+ *            number of menu changes seen; each one empties the cache
+ */
+public record ChatCacheStatsDto ( int entries, long bytes, long maxBytes, long hits, long misses, double hitRate,
+        long evictions, long catalogVersion ) {
+}
@@ -0,0 +1,81 @@
+package FoodSeer.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of an asynchronous order fulfillment request.
+ *
+ * @param jobId
+ *            tracking id returned when the request was accepted
+ * @param orderId
+ *            id of the order being fulfilled
+ * @param status
+ *            current state of the job
+ * @param message
+ *            reason the job failed, or null
+ * @param order
+ *            the fulfilled order once the job has succeeded, or null
+ * @param submittedAt
+ *            time the request was accepted
+ * @param completedAt
+ *            time the job finished, or null while it is pending
+ */
+public record FulfillmentJobDto ( String jobId, Long orderId, Status status, String message, OrderDto order,
+        LocalDateTime submittedAt, LocalDateTime completedAt ) {
+
+    /**
+     * States of a fulfillment job.
+     */
+    public enum Status {
+        /** Waiting for earlier jobs on the same foods */
+        QUEUED,
+        /** Being processed */
+        RUNNING,
+        /** Order fulfilled */
+        SUCCEEDED,
+        /** Order could not be fulfilled */
+        FAILED
+    }
+
+    /**
+     * Returns a copy of this job marked as running.
+     *
+     * @return the running job
+     */
+    public FulfillmentJobDto running () {
+        return new FulfillmentJobDto( jobId, orderId, Status.RUNNING, null, null, submittedAt, null );
+    }
+
+    /**
+     * Returns a copy of this job marked as succeeded.
+     *
+     * @param fulfilled
+     *            the fulfilled order
+     * @return the finished job
+     */
+    public FulfillmentJobDto succeeded ( final OrderDto fulfilled ) {
+        return new FulfillmentJobDto( jobId, orderId, Status.SUCCEEDED, null, fulfilled, submittedAt,
+                LocalDateTime.now() );
+    }
+
+    /**
+     * Returns a copy of this job marked as failed.
+     *
+     * @param reason
+     *            why the order could not be fulfilled
+     * @return the finished job
+     */
+    public FulfillmentJobDto failed ( final String reason ) {
+        return new FulfillmentJobDto( jobId, orderId, Status.FAILED, reason, null, submittedAt,
+                LocalDateTime.now() );
+    }
+
+    /**
+     * Returns true if the job has finished, successfully or not.
+     *
+     * @return true if the job is done
+     */
+    public boolean isDone () {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,13 @@
+package FoodSeer.dto;
+
+/**
+ * A query row pairing an entity id with one value of one of its element
+ * collections, such as a food and one of its allergies.
+ *
+ * @param id
+ *            the owning entity's id
+ * @param value
+ *            the collection value
+ */
+public record IdValueRow ( Long id, Object value ) {
+}
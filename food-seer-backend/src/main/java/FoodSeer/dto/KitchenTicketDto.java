@@ -0,0 +1,54 @@
+package FoodSeer.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending order as it appears in the kitchen queue.
+ *
+ * @param orderId
+ *            id of the order
+ * @param name
+ *            order name
+ * @param priority
+ *            kitchen priority, higher values are prepared first
+ * @param createdAt
+ *            time the order was placed
+ * @param itemCount
+ *            number of items in the order
+ * @param claimedBy
+ *            username of the staff member working on it, or null if unclaimed
+ */
+public record KitchenTicketDto ( Long orderId, String name, int priority, LocalDateTime createdAt, int itemCount,
+        String claimedBy ) {
+
+    /**
+     * Returns a copy of this ticket claimed by the given staff member.
+     *
+     * @param staff
+     *            username of the staff member
+     * @return the claimed ticket
+     */
+    public KitchenTicketDto claim ( final String staff ) {
+        return new KitchenTicketDto( orderId, name, priority, createdAt, itemCount, staff );
+    }
+
+    /**
+     * Returns an unclaimed copy of this ticket.
+     *
+     * @return the released ticket
+     */
+    public KitchenTicketDto release () {
+        return new KitchenTicketDto( orderId, name, priority, createdAt, itemCount, null );
+    }
+
+    /**
+     * Returns a copy of this ticket with a new priority.
+     *
+     * @param newPriority
+     *            the new priority
+     * @return the updated ticket
+     */
+    public KitchenTicketDto withPriority ( final int newPriority ) {
+        return new KitchenTicketDto( orderId, name, newPriority, createdAt, itemCount, claimedBy );
+    }
+}
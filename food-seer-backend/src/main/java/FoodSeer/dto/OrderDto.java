@@ -1,5 +1,6 @@
 package FoodSeer.dto;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet; // Added import
 import java.util.List;
@@ -31,6 +32,18 @@ public class OrderDto {
      */
     private Set<Long> ratedFoodIds;
 
+    /** Kitchen priority of the order */
+    private int priority;
+
+    /** Time the order was placed */
+    private LocalDateTime createdAt;
+
+    /** Order total when the order was placed */
+    private int totalPrice;
+
+    /** Number of items in the order */
+    private int itemCount;
+
     /**
      * Default constructor for OrderDto.
      */
@@ -154,4 +167,76 @@ public class OrderDto {
     public void setRatedFoodIds(final Set<Long> ratedFoodIds) {
         this.ratedFoodIds = ratedFoodIds;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the kitchen priority of the order.
+     *
+     * @return the priority
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the kitchen priority of the order.
+     *
+     * @param priority the priority
+     */
+    public void setPriority(final int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Gets the time the order was placed.
+     *
+     * @return the creation time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the time the order was placed.
+     *
+     * @param createdAt the creation time
+     */
+    public void setCreatedAt(final LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the order total when the order was placed.
+     *
+     * @return the total price
+     */
+    public int getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * Sets the order total.
+     *
+     * @param totalPrice the total price
+     */
+    public void setTotalPrice(final int totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    /**
+     * Gets the number of items in the order.
+     *
+     * @return the item count
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Sets the number of items in the order.
+     *
+     * @param itemCount the item count
+     */
+    public void setItemCount(final int itemCount) {
+        this.itemCount = itemCount;
+    }
+}
@@ -0,0 +1,32 @@
+package FoodSeer.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the order list query: the order header joined with one of its
+ * items. The food columns are null for an order with no items.
+ *
+ * @param orderId
+ *            order id
+ * @param name
+ *            order name
+ * @param fulfilled
+ *            true if the order has been fulfilled
+ * @param priority
+ *            kitchen priority
+ * @param createdAt
+ *            time the order was placed
+ * @param totalPrice
+ *            order total when the order was placed
+ * @param itemCount
+ *            number of items in the order
+ * @param foodId
+ *            food id, or null
+ * @param foodName
+ *            food name, or null
+ * @param price
+ *            price paid for the food, or null
+ */
+public record OrderLineRow ( Long orderId, String name, boolean fulfilled, int priority, LocalDateTime createdAt,
+        int totalPrice, int itemCount, Long foodId, String foodName, Integer price ) {
+}
@@ -0,0 +1,18 @@
+package FoodSeer.dto;
+
+import java.util.List;
+
+/**
+ * One item in an OrderView.
+ *
+ * @param id
+ *            food id
+ * @param foodName
+ *            food name
+ * @param price
+ *            food price
+ * @param allergies
+ *            allergies of the food
+ */
+public record OrderLineView ( Long id, String foodName, int price, List<String> allergies ) {
+}
@@ -0,0 +1,15 @@
+package FoodSeer.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's orders, newest first.
+ *
+ * @param orders
+ *            orders on this page
+ * @param nextBefore
+ *            value to pass as {@code before} to get the next page, or null if
+ *            this is the last page
+ */
+public record OrderPageDto ( List<OrderView> orders, Long nextBefore ) {
+}
@@ -0,0 +1,28 @@
+package FoodSeer.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Order header with its stored total and item count, for list screens and
+ * reports that do not need the items themselves.
+ *
+ * @param id
+ *            order id
+ * @param name
+ *            order name
+ * @param isFulfilled
+ *            true if the order has been fulfilled
+ * @param priority
+ *            kitchen priority
+ * @param createdAt
+ *            time the order was placed
+ * @param totalPrice
+ *            order total when the order was placed
+ * @param itemCount
+ *            number of items in the order
+ */
+public record OrderSummaryDto ( Long id, String name, @JsonProperty ( "isFulfilled" ) boolean isFulfilled,
+        int priority, LocalDateTime createdAt, int totalPrice, int itemCount ) {
+}
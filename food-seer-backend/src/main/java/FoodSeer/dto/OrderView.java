@@ -0,0 +1,35 @@
+package FoodSeer.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Read-only view of an order used by the order list endpoints. Built from
+ * query rows rather than entities; its JSON matches OrderDto so clients can
+ * use either.
+ *
+ * @param id
+ *            order id
+ * @param name
+ *            order name
+ * @param isFulfilled
+ *            true if the order has been fulfilled
+ * @param priority
+ *            kitchen priority
+ * @param createdAt
+ *            time the order was placed
+ * @param totalPrice
+ *            order total when the order was placed
+ * @param itemCount
+ *            number of items in the order
+ * @param foods
+ *            items in the order
+ * @param ratedFoodIds
+ *            ids of foods already rated in this order
+ */
+public record OrderView ( Long id, String name, @JsonProperty ( "isFulfilled" ) boolean isFulfilled, int priority,
+        LocalDateTime createdAt, int totalPrice, int itemCount, List<OrderLineView> foods, Set<Long> ratedFoodIds ) {
+}
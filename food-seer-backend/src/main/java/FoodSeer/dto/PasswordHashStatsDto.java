@@ -0,0 +1,30 @@
+package FoodSeer.dto;
+
+/**
+ * Password hashing statistics since startup, used to tune the BCrypt cost
+ * against the login latency budget.
+ *
+ * @param cost
+ *            configured BCrypt cost
+ * @param encodes
+ *            passwords hashed
+ * @param matches
+ *            passwords verified
+ * @param rejected
+ *            calls refused because the queue was full or the wait timed out
+ * @param upgrades
+ *            stored hashes found with a different cost and rehashed
+ * @param averageHashMillis
+ *            average time of one hash
+ * @param maxHashMillis
+ *            longest single hash
+ * @param averageQueueMillis
+ *            average time waiting for a hashing thread
+ * @param active
+ *            hashes running now
+ * @param queued
+ *            hashes waiting now
+ */
+public record PasswordHashStatsDto ( int cost, long encodes, long matches, long rejected, long upgrades,
+        double averageHashMillis, double maxHashMillis, double averageQueueMillis, int active, int queued ) {
+}
@@ -0,0 +1,19 @@
+package FoodSeer.dto;
+
+/**
+ * A food's place in the rating ranking.
+ *
+ * @param id
+ *            food id
+ * @param foodName
+ *            food name
+ * @param rating
+ *            average rating
+ * @param numberOfRatings
+ *            number of ratings
+ * @param score
+ *            Bayesian average used for ranking, which pulls foods with few
+ *            ratings towards the prior mean
+ */
+public record RankedFoodDto ( Long id, String foodName, double rating, int numberOfRatings, double score ) {
+}
@@ -0,0 +1,4 @@
+package FoodSeer.dto;
+
+public record RefreshRequestDto ( String refreshToken ) {
+}
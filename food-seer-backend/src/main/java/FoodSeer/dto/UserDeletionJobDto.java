@@ -0,0 +1,94 @@
+package FoodSeer.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of a background user deletion.
+ *
+ * @param jobId
+ *            tracking id returned when the deletion was accepted
+ * @param userId
+ *            id of the user being deleted
+ * @param status
+ *            current state of the job
+ * @param ordersTotal
+ *            orders the user had, archived ones included, when the job started
+ * @param ordersDeleted
+ *            orders deleted so far
+ * @param message
+ *            reason the job failed, or null
+ * @param submittedAt
+ *            time the deletion was accepted
+ * @param completedAt
+ *            time the job finished, or null while it is pending
+ */
+public record UserDeletionJobDto ( String jobId, Long userId, Status status, long ordersTotal, long ordersDeleted,
+        String message, LocalDateTime submittedAt, LocalDateTime completedAt ) {
+
+    /**
+     * States of a deletion job.
+     */
+    public enum Status {
+        /** Waiting for a thread */
+        QUEUED,
+        /** Deleting orders and the user */
+        RUNNING,
+        /** User deleted */
+        SUCCEEDED,
+        /** User could not be deleted */
+        FAILED
+    }
+
+    /**
+     * Returns a copy of this job marked as running.
+     *
+     * @param total
+     *            orders the user has
+     * @return the running job
+     */
+    public UserDeletionJobDto running ( final long total ) {
+        return new UserDeletionJobDto( jobId, userId, Status.RUNNING, total, 0, null, submittedAt, null );
+    }
+
+    /**
+     * Returns a copy of this job with more orders deleted.
+     *
+     * @param deleted
+     *            orders deleted so far
+     * @return the updated job
+     */
+    public UserDeletionJobDto progress ( final long deleted ) {
+        return new UserDeletionJobDto( jobId, userId, status, ordersTotal, deleted, null, submittedAt, null );
+    }
+
+    /**
+     * Returns a copy of this job marked as succeeded.
+     *
+     * @return the finished job
+     */
+    public UserDeletionJobDto succeeded () {
+        return new UserDeletionJobDto( jobId, userId, Status.SUCCEEDED, ordersTotal, ordersDeleted, null,
+                submittedAt, LocalDateTime.now() );
+    }
+
+    /**
+     * Returns a copy of this job marked as failed.
+     *
+     * @param reason
+     *            why the user could not be deleted
+     * @return the finished job
+     */
+    public UserDeletionJobDto failed ( final String reason ) {
+        return new UserDeletionJobDto( jobId, userId, Status.FAILED, ordersTotal, ordersDeleted, reason,
+                submittedAt, LocalDateTime.now() );
+    }
+
+    /**
+     * Returns true if the job has finished, successfully or not.
+     *
+     * @return true if the job is done
+     */
+    public boolean isDone () {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,26 @@
+package FoodSeer.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the admin user list: in id order, or when searching, username
+ * matches merged with users matched only by email.
+ *
+ * @param users
+ *            users on this page
+ * @param nextAfter
+ *            value to pass as {@code after} to get the next page of an
+ *            unsearched listing, or null
+ * @param nextAfterUsername
+ *            value to pass as {@code afterUsername} to get the next page of a
+ *            search, or null
+ * @param nextAfterEmail
+ *            value to pass as {@code afterEmail} to get the next page of a
+ *            search, or null
+ * @param roleCounts
+ *            number of users with each role, on the first page only
+ */
+public record UserPageDto ( List<UserSummaryDto> users, Long nextAfter, String nextAfterUsername,
+        String nextAfterEmail, Map<String, Long> roleCounts ) {
+}
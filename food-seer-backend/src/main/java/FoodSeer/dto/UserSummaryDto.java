@@ -0,0 +1,23 @@
+package FoodSeer.dto;
+
+/**
+ * A user as shown in the admin user list.
+ *
+ * @param id
+ *            user id
+ * @param username
+ *            username
+ * @param email
+ *            email address
+ * @param role
+ *            role, such as ROLE_CUSTOMER
+ * @param costPreference
+ *            cost preference
+ * @param dietaryRestrictions
+ *            dietary restrictions
+ * @param orderCount
+ *            orders placed, including archived ones, or null if not requested
+ */
+public record UserSummaryDto ( Long id, String username, String email, String role, String costPreference,
+        String dietaryRestrictions, Long orderCount ) {
+}
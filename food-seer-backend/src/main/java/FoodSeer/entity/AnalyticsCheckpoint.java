@@ -0,0 +1,78 @@
+package FoodSeer.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+/**
+ * Saved copy of the in-memory analytics aggregates, so they survive a
+ * restart without rescanning the order tables.
+ */
+@Entity
+@Table(name = "analytics_checkpoints")
+public class AnalyticsCheckpoint {
+
+    /** Name of the aggregate set */
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    /** JSON form of the aggregates */
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    /** Time the checkpoint was written */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Default constructor for Hibernate.
+     */
+    public AnalyticsCheckpoint() {
+        // Default constructor
+    }
+
+    /**
+     * Creates a checkpoint.
+     *
+     * @param id      name of the aggregate set
+     * @param payload JSON form of the aggregates
+     */
+    public AnalyticsCheckpoint(final String id, final String payload) {
+        this.id = id;
+        this.payload = payload;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Gets the name of the aggregate set.
+     *
+     * @return the id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the JSON form of the aggregates.
+     *
+     * @return the payload
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * Gets the time the checkpoint was written.
+     *
+     * @return the update time
+     */
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
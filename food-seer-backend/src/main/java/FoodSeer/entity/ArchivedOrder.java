@@ -0,0 +1,193 @@
+package FoodSeer.entity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+
+/**
+ * A fulfilled order moved out of the orders table once it is old enough.
+ * Keeping history here keeps the hot order tables small; the order service
+ * reads both tables so clients see one history.
+ */
+@Entity
+@Table(name = "archived_orders", indexes = @Index(name = "idx_archived_orders_user_id", columnList = "user_id, id"))
+public class ArchivedOrder {
+
+    /** Id of the original order */
+    @Id
+    private Long id;
+
+    /** Order name */
+    private String name;
+
+    /** Id of the user who placed the order */
+    @Column(name = "user_id")
+    private Long userId;
+
+    /** Kitchen priority of the order */
+    private int priority;
+
+    /** Time the order was placed */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /** Time the order was fulfilled */
+    @Column(name = "fulfilled_at")
+    private LocalDateTime fulfilledAt;
+
+    /** Time the order was archived */
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    /** Order total when the order was placed */
+    @Column(name = "total_price")
+    private int totalPrice;
+
+    /** Number of items in the order */
+    @Column(name = "item_count")
+    private int itemCount;
+
+    /** Items in the order */
+    @ElementCollection
+    @CollectionTable(name = "archived_order_lines", joinColumns = @JoinColumn(name = "archived_order_id"))
+    private List<ArchivedOrderLine> lines = new ArrayList<>();
+
+    /**
+     * Ids of foods rated in this order, as archived by older versions.
+     * Ratings are now kept in rated_items; this is only read once to copy
+     * old ratings there.
+     */
+    @ElementCollection
+    @CollectionTable(name = "archived_order_rated_food_ids", joinColumns = @JoinColumn(name = "archived_order_id"))
+    @Column(name = "food_id")
+    private Set<Long> legacyRatedFoodIds = new HashSet<>();
+
+    /**
+     * Default constructor for Hibernate.
+     */
+    public ArchivedOrder() {
+        // Default constructor
+    }
+
+    /**
+     * Copies a fulfilled order into the archive.
+     *
+     * @param order      the order to archive
+     * @param archivedAt time of archiving
+     */
+    public ArchivedOrder(final Order order, final LocalDateTime archivedAt) {
+        this.id = order.getId();
+        this.name = order.getName();
+        this.userId = order.getUser() == null ? null : order.getUser().getId();
+        this.priority = order.getPriority();
+        this.createdAt = order.getCreatedAt();
+        this.fulfilledAt = order.getFulfilledAt();
+        this.archivedAt = archivedAt;
+        this.totalPrice = order.getTotalPrice();
+        this.itemCount = order.getItemCount();
+        for (final Food food : order.getFoods()) {
+            this.lines.add(new ArchivedOrderLine(food, order.getPricePaid(food)));
+        }
+    }
+
+    /**
+     * Gets the order id.
+     *
+     * @return the order id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the order name.
+     *
+     * @return the order name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the id of the user who placed the order.
+     *
+     * @return the user id
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets the kitchen priority.
+     *
+     * @return the priority
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the time the order was placed.
+     *
+     * @return the creation time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the time the order was fulfilled.
+     *
+     * @return the fulfillment time
+     */
+    public LocalDateTime getFulfilledAt() {
+        return fulfilledAt;
+    }
+
+    /**
+     * Gets the time the order was archived.
+     *
+     * @return the archive time
+     */
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    /**
+     * Gets the order total when the order was placed.
+     *
+     * @return the total price
+     */
+    public int getTotalPrice() {
+        return totalPrice;
+    }
+
+    /**
+     * Gets the number of items in the order.
+     *
+     * @return the item count
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Gets the items in the order.
+     *
+     * @return the order lines
+     */
+    public List<ArchivedOrderLine> getLines() {
+        return lines;
+    }
+}
@@ -0,0 +1,69 @@
+package FoodSeer.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * One item of an archived order. The food's name and price are copied at
+ * archive time so the archive does not depend on the foods table.
+ */
+@Embeddable
+public class ArchivedOrderLine {
+
+    /** Id of the food that was ordered */
+    @Column(name = "food_id")
+    private Long foodId;
+
+    /** Name of the food when the order was archived */
+    @Column(name = "food_name")
+    private String foodName;
+
+    /** Price of the food when the order was archived */
+    private int price;
+
+    /**
+     * Default constructor for Hibernate.
+     */
+    public ArchivedOrderLine() {
+        // Default constructor
+    }
+
+    /**
+     * Creates a line from a food in the order.
+     *
+     * @param food  the food
+     * @param price the price paid for the food
+     */
+    public ArchivedOrderLine(final Food food, final int price) {
+        this.foodId = food.getId();
+        this.foodName = food.getFoodName();
+        this.price = price;
+    }
+
+    /**
+     * Gets the food id.
+     *
+     * @return the food id
+     */
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    /**
+     * Gets the food name.
+     *
+     * @return the food name
+     */
+    public String getFoodName() {
+        return foodName;
+    }
+
+    /**
+     * Gets the price.
+     *
+     * @return the price
+     */
+    public int getPrice() {
+        return price;
+    }
+}
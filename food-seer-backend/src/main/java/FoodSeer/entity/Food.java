@@ -3,6 +3,8 @@ package FoodSeer.entity;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.Column; // Added this import
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
@@ -12,9 +14,11 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
 /**
- * This class represents a Food entity.
+ * This class represents a Food entity. Updates write only the columns that
+ * changed, so editing stock or price never writes back a stale rating sum.
  */
 @Entity
+@DynamicUpdate
 @Table ( name = "foods" )
 public class Food {
 
@@ -41,11 +45,19 @@ public class Food {
     private int price;
 
     /**
-     * Current Average Rating (Stars)
-     * Default is 0.0. columnDefinition handles existing MySQL rows.
+     * Average rating stored by older versions. Only read once, to fill in
+     * ratingSum for rows rated before the sum existed.
      */
     @Column(name = "rating", nullable = false, columnDefinition = "double default 0.0")
-    private Double rating = 0.0;
+    private Double legacyRating = 0.0;
+
+    /**
+     * Sum of all ratings (Stars). The average is derived from this and
+     * numberOfRatings, so concurrent ratings can be added with one atomic
+     * UPDATE instead of recomputing a rolling average.
+     */
+    @Column(name = "rating_sum", nullable = false, columnDefinition = "double default 0.0")
+    private Double ratingSum = 0.0;
 
     /**
      * Total number of people who rated this item
@@ -193,19 +205,27 @@ public class Food {
     // --- NEW GETTERS AND SETTERS ---
 
     /**
-     * Gets the current rating
-     * @return rating
+     * Gets the current average rating
+     * @return rating, or 0.0 if the food has not been rated
      */
     public Double getRating() {
-        return rating;
+        return numberOfRatings == 0 ? 0.0 : ratingSum / numberOfRatings;
+    }
+
+    /**
+     * Gets the sum of all ratings
+     * @return rating sum
+     */
+    public Double getRatingSum() {
+        return ratingSum;
     }
 
     /**
-     * Sets the rating
-     * @param rating
+     * Sets the sum of all ratings
+     * @param ratingSum
      */
-    public void setRating(final Double rating) {
-        this.rating = rating;
+    public void setRatingSum(final Double ratingSum) {
+        this.ratingSum = ratingSum;
     }
 
     /**
@@ -0,0 +1,162 @@
+package FoodSeer.entity;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key header. A retry
+ * with the same key replays the stored response instead of running the
+ * request again. Rows are shared by every node, so a retry routed to a
+ * different server is still recognised.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    /** Status stored while the first request is still running */
+    public static final int IN_PROGRESS = 0;
+
+    /** SHA-256 of the user, endpoint and client key */
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    /** SHA-256 of the request body, used to reject a reused key with a different request */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /** HTTP status of the stored response, or IN_PROGRESS */
+    @Column(nullable = false)
+    private int status;
+
+    /** JSON body of the stored response */
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    /** Time the key was first seen */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Time after which the key may be reused; a short lease while in progress */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** True until the row has been inserted, so save() inserts instead of merging */
+    @Transient
+    private boolean isNew = true;
+
+    /**
+     * Default constructor for Hibernate.
+     */
+    public IdempotencyRecord() {
+        // Default constructor
+    }
+
+    /**
+     * Creates an in-progress record.
+     *
+     * @param id          hashed key
+     * @param requestHash hash of the request body
+     * @param createdAt   time the key was first seen
+     * @param expiresAt   time after which the key may be reused
+     */
+    public IdempotencyRecord(final String id, final String requestHash, final LocalDateTime createdAt,
+            final LocalDateTime expiresAt) {
+        this.id = id;
+        this.requestHash = requestHash;
+        this.status = IN_PROGRESS;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Marks the record as stored once it has been inserted or loaded.
+     */
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    /**
+     * Gets the hashed key.
+     *
+     * @return the id
+     */
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns true if the record has not been inserted yet.
+     *
+     * @return true for new records
+     */
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Gets the hash of the original request body.
+     *
+     * @return the request hash
+     */
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    /**
+     * Gets the stored HTTP status.
+     *
+     * @return the status, or IN_PROGRESS
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the stored response body.
+     *
+     * @return the JSON body
+     */
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * Gets the expiry time.
+     *
+     * @return the expiry time
+     */
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Stores the response of the completed request and keeps the key until
+     * the given time.
+     *
+     * @param status       HTTP status of the response
+     * @param responseBody JSON body of the response
+     * @param expiresAt    time after which the key may be reused
+     */
+    public void complete(final int status, final String responseBody, final LocalDateTime expiresAt) {
+        this.status = status;
+        this.responseBody = responseBody;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -1,18 +1,26 @@
 package FoodSeer.entity;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
 /**
@@ -20,7 +28,9 @@ import jakarta.persistence.Table;
  * Each order can contain multiple foods, and can be marked as fulfilled or not.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_orders_user_fulfilled_id", columnList = "user_id, is_fulfilled, id") })
 public class Order {
 
     /** Order ID */
@@ -41,14 +51,53 @@ public class Order {
     private List<Food> foods = new ArrayList<>();
 
     /** Boolean used to track if the order has been fulfilled */
+    @Column(name = "is_fulfilled")
     private boolean isFulfilled;
 
     /**
-     * A set of Food IDs that have already been rated in this order.
-     * Using a Set prevents duplicates and allows fast lookups.
+     * Food IDs rated in this order by older versions. Ratings are now kept
+     * in rated_items; this is only read once to copy old ratings there.
      */
     @ElementCollection
-    private Set<Long> ratedFoodIds = new HashSet<>();
+    @CollectionTable(name = "order_rated_food_ids", joinColumns = @JoinColumn(name = "order_id"))
+    @Column(name = "rated_food_ids")
+    private Set<Long> legacyRatedFoodIds = new HashSet<>();
+
+    /**
+     * Kitchen priority of the order. Higher values are prepared first.
+     * Default is 0. columnDefinition handles existing MySQL rows.
+     */
+    @Column(name = "priority", nullable = false, columnDefinition = "int default 0")
+    private int priority;
+
+    /** Time the order was placed, used to order the kitchen queue by age */
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    /** Time the order was fulfilled, used to decide when it can be archived */
+    @Column(name = "fulfilled_at")
+    private LocalDateTime fulfilledAt;
+
+    /**
+     * Sum of the item prices when the order was placed.
+     * Default is 0. columnDefinition handles existing MySQL rows.
+     */
+    @Column(name = "total_price", nullable = false, columnDefinition = "int default 0")
+    private int totalPrice;
+
+    /**
+     * Number of items in the order.
+     * Default is 0. columnDefinition handles existing MySQL rows.
+     */
+    @Column(name = "item_count", nullable = false, columnDefinition = "int default 0")
+    private int itemCount;
+
+    /** Price of each food when the order was placed, by food id */
+    @ElementCollection
+    @CollectionTable(name = "order_price_snapshot", joinColumns = @JoinColumn(name = "order_id"))
+    @MapKeyColumn(name = "food_id")
+    @Column(name = "price")
+    private Map<Long, Integer> priceSnapshot = new HashMap<>();
 
     /**
      * Default constructor for Hibernate.
@@ -68,7 +117,16 @@ public class Order {
         this.name = name;
         this.foods = new ArrayList<>();
         this.isFulfilled = false;
-        this.ratedFoodIds = new HashSet<>();
+    }
+
+    /**
+     * Stamps the creation time on first save.
+     */
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 
     /**
@@ -171,42 +229,101 @@ public class Order {
         this.user = user;
     }
 
-    // --- NEW METHODS FOR RATING LOGIC ---
+    /**
+     * Gets the kitchen priority of the order.
+     *
+     * @return the priority
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the kitchen priority of the order.
+     *
+     * @param priority the priority
+     */
+    public void setPriority(final int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Gets the time the order was placed.
+     *
+     * @return the creation time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the time the order was fulfilled.
+     *
+     * @return the fulfillment time, or null if not fulfilled
+     */
+    public LocalDateTime getFulfilledAt() {
+        return fulfilledAt;
+    }
+
+    /**
+     * Sets the time the order was fulfilled.
+     *
+     * @param fulfilledAt the fulfillment time
+     */
+    public void setFulfilledAt(final LocalDateTime fulfilledAt) {
+        this.fulfilledAt = fulfilledAt;
+    }
+
+    /**
+     * Records the current price of every food in the order, along with the
+     * order's total and item count, so later price changes do not alter it.
+     */
+    public void capturePrices() {
+        priceSnapshot.clear();
+        int total = 0;
+        for (final Food food : foods) {
+            priceSnapshot.put(food.getId(), food.getPrice());
+            total += food.getPrice();
+        }
+        totalPrice = total;
+        itemCount = foods.size();
+    }
 
     /**
-     * Gets the set of Food IDs that have already been rated.
+     * Gets the order total at the time the order was placed.
      *
-     * @return Set of Long IDs
+     * @return the total price
      */
-    public Set<Long> getRatedFoodIds() {
-        return ratedFoodIds;
+    public int getTotalPrice() {
+        return totalPrice;
     }
 
     /**
-     * Sets the list of rated food IDs.
+     * Gets the number of items in the order.
      *
-     * @param ratedFoodIds the set of IDs
+     * @return the item count
      */
-    public void setRatedFoodIds(final Set<Long> ratedFoodIds) {
-        this.ratedFoodIds = ratedFoodIds;
+    public int getItemCount() {
+        return itemCount;
     }
 
     /**
-     * Marks a specific food ID as rated for this order.
+     * Gets the price of each food when the order was placed.
      *
-     * @param foodId The ID of the food
+     * @return prices by food id
      */
-    public void addRatedFoodId(final Long foodId) {
-        this.ratedFoodIds.add(foodId);
+    public Map<Long, Integer> getPriceSnapshot() {
+        return priceSnapshot;
     }
 
     /**
-     * Checks if a specific food has already been rated in this order.
+     * Gets the price a food had when the order was placed, falling back to
+     * its current price for orders placed before prices were recorded.
      *
-     * @param foodId The ID to check
-     * @return true if already rated, false otherwise
+     * @param food a food in the order
+     * @return the price paid for the food
      */
-    public boolean hasFoodBeenRated(final Long foodId) {
-        return this.ratedFoodIds.contains(foodId);
+    public int getPricePaid(final Food food) {
+        return priceSnapshot.getOrDefault(food.getId(), food.getPrice());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package FoodSeer.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A rating given to one food in one order. The unique constraint on
+ * (order_id, food_id) is what stops a food from being rated twice in an
+ * order, so checking and recording a rating is a single insert and the order
+ * row is never touched. Rows refer to orders by id only, so they outlive
+ * archiving and form a rating history.
+ */
+@Entity
+@Table(name = "rated_items",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rated_items_order_food", columnNames = { "order_id", "food_id" }),
+        indexes = @Index(name = "idx_rated_items_food_id", columnList = "food_id"))
+public class RatedItem {
+
+    /** Rated item ID */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Id of the order the food was rated in */
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    /** Id of the rated food */
+    @Column(name = "food_id", nullable = false)
+    private Long foodId;
+
+    /** Rating given, or null for ratings recorded before ratings were kept */
+    private Double rating;
+
+    /** Time the rating was given */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * Default constructor for Hibernate.
+     */
+    public RatedItem() {
+        // Default constructor
+    }
+
+    /**
+     * Creates a rating.
+     *
+     * @param orderId id of the order
+     * @param foodId  id of the rated food
+     * @param rating  rating given
+     */
+    public RatedItem(final Long orderId, final Long foodId, final Double rating) {
+        this.orderId = orderId;
+        this.foodId = foodId;
+        this.rating = rating;
+    }
+
+    /**
+     * Stamps the rating time on first save.
+     */
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Gets the rated item ID.
+     *
+     * @return the ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the order ID.
+     *
+     * @return the order ID
+     */
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets the food ID.
+     *
+     * @return the food ID
+     */
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    /**
+     * Gets the rating.
+     *
+     * @return the rating, or null if it was not recorded
+     */
+    public Double getRating() {
+        return rating;
+    }
+
+    /**
+     * Gets the time the rating was given.
+     *
+     * @return the rating time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
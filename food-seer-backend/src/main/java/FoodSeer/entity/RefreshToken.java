@@ -0,0 +1,127 @@
+package FoodSeer.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A refresh token, stored as the SHA-256 of the value handed to the client so
+ * a copy of the table cannot be used to sign in. Each token is exchanged once
+ * for a new access token and a new refresh token; presenting a token that was
+ * already exchanged means it was copied, and every token of the user is then
+ * revoked.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at") })
+public class RefreshToken {
+
+    /** Refresh token ID */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** SHA-256 of the token value */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    /** Id of the user the token signs in */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** Time the token was issued */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** Time after which the token is no longer accepted */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /** Time the token was exchanged, or null if it has not been */
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    /**
+     * Default constructor for Hibernate.
+     */
+    public RefreshToken() {
+        // Default constructor
+    }
+
+    /**
+     * Creates an unused token.
+     *
+     * @param tokenHash SHA-256 of the token value
+     * @param userId    id of the user
+     * @param createdAt time the token was issued
+     * @param expiresAt time after which the token is no longer accepted
+     */
+    public RefreshToken(final String tokenHash, final Long userId, final LocalDateTime createdAt,
+            final LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the refresh token ID.
+     *
+     * @return the id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the hash of the token value.
+     *
+     * @return the token hash
+     */
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    /**
+     * Gets the id of the user.
+     *
+     * @return the user id
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets the time the token was issued.
+     *
+     * @return the creation time
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the time after which the token is no longer accepted.
+     *
+     * @return the expiration
+     */
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Gets the time the token was exchanged.
+     *
+     * @return the time, or null if unused
+     */
+    public LocalDateTime getUsedAt() {
+        return usedAt;
+    }
+}
@@ -0,0 +1,63 @@
+package FoodSeer.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Id of a token that was revoked before it expired. Rows are shared by every
+ * node and are deleted once the token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+public class RevokedToken {
+
+    /** The token's jti claim */
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    /** Expiration of the revoked token */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Default constructor for Hibernate.
+     */
+    public RevokedToken() {
+        // Default constructor
+    }
+
+    /**
+     * Creates a revocation.
+     *
+     * @param jti       the token's id
+     * @param expiresAt expiration of the token
+     */
+    public RevokedToken(final String jti, final LocalDateTime expiresAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the token id.
+     *
+     * @return the jti
+     */
+    public String getJti() {
+        return jti;
+    }
+
+    /**
+     * Gets the expiration of the token.
+     *
+     * @return the expiration
+     */
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,13 @@
+package FoodSeer.event;
+
+/**
+ * Application event published by the food service whenever the menu changes:
+ * a food is added, removed, or has its price or allergens edited. Anything
+ * derived from the menu, such as cached chat answers, listens for it instead
+ * of checking the foods table.
+ *
+ * @param foodId
+ *            id of the food that changed, or null when the whole menu changed
+ */
+public record MenuChangedEvent ( Long foodId ) {
+}
@@ -0,0 +1,43 @@
+package FoodSeer.event;
+
+import FoodSeer.dto.OrderDto;
+
+/**
+ * Application event published by the order service whenever an order changes
+ * state. Listeners (kitchen queue, push channels, analytics) subscribe with
+ * {@code @EventListener} instead of polling the orders table.
+ *
+ * @param type
+ *            what happened to the order
+ * @param userId
+ *            id of the user who owns the order
+ * @param order
+ *            the order after the change
+ */
+public record OrderEvent ( Type type, Long userId, OrderDto order ) {
+
+    /**
+     * Kinds of order changes.
+     */
+    public enum Type {
+
+        /** A new order was placed */
+        CREATED,
+
+        /** An order was fulfilled and stock was deducted */
+        FULFILLED,
+
+        /** A food in a fulfilled order was rated */
+        RATED
+
+    }
+
+    /**
+     * Returns the id of the order the event refers to.
+     *
+     * @return the order id
+     */
+    public Long orderId () {
+        return order.getId();
+    }
+}
@@ -0,0 +1,35 @@
+package FoodSeer.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a request cannot be completed and the client should
+ * receive a specific HTTP status.
+ */
+public class FoodSeerAPIException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The HTTP status to respond with */
+    private final HttpStatus status;
+
+    /**
+     * Constructs a new FoodSeerAPIException with the given status and message.
+     *
+     * @param status
+     *            The HTTP status to respond with
+     * @param message
+     *            The exception message
+     */
+    public FoodSeerAPIException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * @return The HTTP status to respond with
+     */
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
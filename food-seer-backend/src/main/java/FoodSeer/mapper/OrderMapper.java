@@ -2,9 +2,18 @@ package FoodSeer.mapper;
 
 import java.util.stream.Collectors;
 import java.util.ArrayList; // Added simple list handling
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import FoodSeer.dto.OrderDto;
+import FoodSeer.dto.OrderLineRow;
+import FoodSeer.dto.OrderLineView;
+import FoodSeer.dto.OrderView;
 import FoodSeer.dto.FoodDto;
+import FoodSeer.entity.ArchivedOrder;
+import FoodSeer.entity.ArchivedOrderLine;
 import FoodSeer.entity.Order;
 import FoodSeer.entity.Food;
 
@@ -32,7 +41,7 @@ public class OrderMapper {
                     Food f = new Food(
                         foodDto.getFoodName(),
                         foodDto.getAmount(),
-                        foodDto.getPrice(),
+                        order.getPriceSnapshot().getOrDefault(foodDto.getId(), foodDto.getPrice()),
                         foodDto.getAllergies()
                     );
                     // CRITICAL: We must ensure the ID is preserved, 
@@ -43,15 +52,74 @@ public class OrderMapper {
                 .collect(Collectors.toList()));
 
         dto.setIsFulfilled(order.getIsFulfilled());
-        
-        // --- ADDED THIS LINE ---
-        // Copies the "Checklist" of rated items to the DTO
-        dto.setRatedFoodIds(order.getRatedFoodIds());
-        // -----------------------
+        // Rated food ids live in rated_items; the service fills them in
+        dto.setPriority(order.getPriority());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setTotalPrice(order.getTotalPrice());
+        dto.setItemCount(order.getItemCount());
 
         return dto;
     }
 
+    /**
+     * Converts an archived order to an OrderDto. Foods are rebuilt from the
+     * name and price saved when the order was archived.
+     *
+     * @param order the archived order to convert
+     * @return the corresponding OrderDto
+     */
+    public static OrderDto mapToOrderDto(final ArchivedOrder order) {
+        final OrderDto dto = new OrderDto(order.getId(), order.getName());
+
+        dto.setFoods(order.getLines().stream()
+                .map(OrderMapper::mapToFood)
+                .collect(Collectors.toList()));
+
+        dto.setIsFulfilled(true);
+        dto.setPriority(order.getPriority());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setTotalPrice(order.getTotalPrice());
+        dto.setItemCount(order.getItemCount());
+
+        return dto;
+    }
+
+    /**
+     * Rebuilds a Food from an archived order line.
+     *
+     * @param line the archived line
+     * @return a Food with the line's id, name and price
+     */
+    private static Food mapToFood(final ArchivedOrderLine line) {
+        final Food f = new Food(line.getFoodName(), 0, line.getPrice(), new ArrayList<>());
+        f.setId(line.getFoodId());
+        return f;
+    }
+
+    /**
+     * Groups order list rows into OrderViews, keeping the order of the rows.
+     * Foods with the same id share one allergy list.
+     *
+     * @param rows         rows ordered by order id
+     * @param ratedFoodIds rated food ids by order id
+     * @param allergies    allergies by food id
+     * @return one view per order
+     */
+    public static List<OrderView> mapToOrderViews(final List<OrderLineRow> rows,
+            final Map<Long, Set<Long>> ratedFoodIds, final Map<Long, List<String>> allergies) {
+        final Map<Long, OrderView> views = new LinkedHashMap<>();
+        for (final OrderLineRow row : rows) {
+            final OrderView view = views.computeIfAbsent(row.orderId(), id -> new OrderView(id, row.name(),
+                    row.fulfilled(), row.priority(), row.createdAt(), row.totalPrice(), row.itemCount(),
+                    new ArrayList<>(), ratedFoodIds.getOrDefault(id, Set.of())));
+            if (row.foodId() != null) {
+                view.foods().add(new OrderLineView(row.foodId(), row.foodName(),
+                        row.price() == null ? 0 : row.price(), allergies.getOrDefault(row.foodId(), List.of())));
+            }
+        }
+        return new ArrayList<>(views.values());
+    }
+
     /**
      * Converts an OrderDto to an Order entity.
      *
@@ -0,0 +1,13 @@
+package FoodSeer.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import FoodSeer.entity.AnalyticsCheckpoint;
+
+/**
+ * Repository interface for saved analytics aggregates.
+ */
+@Repository
+public interface AnalyticsCheckpointRepository extends JpaRepository<AnalyticsCheckpoint, String> {
+}
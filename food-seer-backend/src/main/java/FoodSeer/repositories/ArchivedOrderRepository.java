@@ -0,0 +1,169 @@
+package FoodSeer.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import FoodSeer.dto.IdValueRow;
+import FoodSeer.dto.OrderLineRow;
+import FoodSeer.dto.OrderSummaryDto;
+import FoodSeer.entity.ArchivedOrder;
+
+/**
+ * Repository interface for fulfilled orders that have been moved to the
+ * archive tables.
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    /**
+     * Find all archived orders placed by a user.
+     *
+     * @param userId the user's id
+     * @return list of archived orders belonging to the user
+     */
+    List<ArchivedOrder> findByUserId(Long userId);
+
+    /** Select list shared by the archived order list projections. */
+    String LINE_ROW = "SELECT new FoodSeer.dto.OrderLineRow(a.id, a.name, true, a.priority, a.createdAt, "
+            + "a.totalPrice, a.itemCount, l.foodId, l.foodName, l.price) FROM ArchivedOrder a LEFT JOIN a.lines l ";
+
+    /**
+     * Find the header and items of every archived order as flat rows.
+     *
+     * @return one row per order item
+     */
+    @Query(LINE_ROW + "ORDER BY a.id")
+    List<OrderLineRow> findLineRows();
+
+    /**
+     * Find the header and items of a user's archived orders.
+     *
+     * @param userId the user's id
+     * @return one row per order item
+     */
+    @Query(LINE_ROW + "WHERE a.userId = :userId ORDER BY a.id")
+    List<OrderLineRow> findLineRowsByUserId(@Param("userId") Long userId);
+
+    /** Select list shared by the archived order summary projections. */
+    String SUMMARY = "SELECT new FoodSeer.dto.OrderSummaryDto(a.id, a.name, true, a.priority, a.createdAt, "
+            + "a.totalPrice, a.itemCount) FROM ArchivedOrder a ";
+
+    /**
+     * Find the summary of every archived order.
+     *
+     * @return order summaries ordered by id
+     */
+    @Query(SUMMARY + "ORDER BY a.id")
+    List<OrderSummaryDto> findSummaries();
+
+    /**
+     * Find the summaries of a user's archived orders.
+     *
+     * @param userId the user's id
+     * @return order summaries ordered by id
+     */
+    @Query(SUMMARY + "WHERE a.userId = :userId ORDER BY a.id")
+    List<OrderSummaryDto> findSummariesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find ids of a user's archived orders between two ids, newest first.
+     *
+     * @param userId the user's id
+     * @param before only ids below this are returned
+     * @param since only ids above this are returned
+     * @param pageable limits the page size
+     * @return order ids, newest first
+     */
+    @Query("SELECT a.id FROM ArchivedOrder a WHERE a.userId = :userId AND a.id < :before AND a.id > :since "
+            + "ORDER BY a.id DESC")
+    List<Long> findPageIds(@Param("userId") Long userId, @Param("before") long before,
+            @Param("since") long since, Pageable pageable);
+
+    /**
+     * Find the header and items of the given archived orders.
+     *
+     * @param ids the order ids
+     * @return one row per order item
+     */
+    @Query(LINE_ROW + "WHERE a.id IN :ids ORDER BY a.id")
+    List<OrderLineRow> findLineRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Count orders per user.
+     *
+     * @return one row per user, keyed by user id
+     */
+    @Query("SELECT new FoodSeer.dto.IdValueRow(a.userId, COUNT(a)) FROM ArchivedOrder a GROUP BY a.userId")
+    List<IdValueRow> countByUser();
+
+    /**
+     * Count archived orders of the given users.
+     *
+     * @param userIds ids of the users
+     * @return one row per user with archived orders, keyed by user id
+     */
+    @Query("SELECT new FoodSeer.dto.IdValueRow(a.userId, COUNT(a)) FROM ArchivedOrder a WHERE a.userId IN :userIds "
+            + "GROUP BY a.userId")
+    List<IdValueRow> countByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Find ids of a user's archived orders, lowest first, one batch at a time.
+     *
+     * @param userId   the user's id
+     * @param pageable limits the number of ids returned
+     * @return archived order ids
+     */
+    @Query("SELECT a.id FROM ArchivedOrder a WHERE a.userId = :userId ORDER BY a.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Count a user's archived orders.
+     *
+     * @param userId the user's id
+     * @return number of archived orders
+     */
+    @Query("SELECT COUNT(a) FROM ArchivedOrder a WHERE a.userId = :userId")
+    long countByUserId(@Param("userId") Long userId);
+
+    /**
+     * Delete the lines of the given archived orders.
+     *
+     * @param ids archived order ids
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "DELETE FROM archived_order_lines WHERE archived_order_id IN (:ids)", nativeQuery = true)
+    int deleteLinesByOrderIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete the legacy rated food ids of the given archived orders.
+     *
+     * @param ids archived order ids
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM archived_order_rated_food_ids WHERE archived_order_id IN (:ids)", nativeQuery = true)
+    int deleteLegacyRatingsByOrderIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete the given archived orders. Their collection rows must be deleted
+     * first.
+     *
+     * @param ids archived order ids
+     * @return number of archived orders deleted
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM ArchivedOrder a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,7 +1,15 @@
 package FoodSeer.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import FoodSeer.dto.IdValueRow;
 import FoodSeer.entity.Food;
 
 /**
@@ -9,4 +17,58 @@ import FoodSeer.entity.Food;
  */
 public interface FoodRepository extends JpaRepository<Food, Long> {
 
+    /**
+     * Find the allergies of the given foods without loading the foods.
+     *
+     * @param foodIds ids of the foods
+     * @return one row per allergy, keyed by food id
+     */
+    @Query("SELECT new FoodSeer.dto.IdValueRow(f.id, a) FROM Food f JOIN f.allergies a WHERE f.id IN :foodIds")
+    List<IdValueRow> findAllergies(@Param("foodIds") Collection<Long> foodIds);
+
+    /**
+     * Adds one rating to a food in a single UPDATE, so concurrent ratings
+     * are never lost and the row is locked only for the statement.
+     *
+     * @param foodId id of the food
+     * @param rating the rating to add
+     * @return number of foods updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Food f SET f.ratingSum = f.ratingSum + CAST(:rating AS Double), f.numberOfRatings = f.numberOfRatings + 1 "
+            + "WHERE f.id = :foodId")
+    int addRating(@Param("foodId") Long foodId, @Param("rating") double rating);
+
+    /**
+     * Takes stock of a food in a single UPDATE, only if enough is left, so
+     * concurrent fulfilments never oversell and never touch the ratings.
+     *
+     * @param foodId   id of the food
+     * @param quantity units to take
+     * @return 1 if the stock was taken, 0 if the food is missing or short
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Food f SET f.amount = f.amount - :quantity WHERE f.id = :foodId AND f.amount >= :quantity")
+    int decrementAmount(@Param("foodId") Long foodId, @Param("quantity") int quantity);
+
+    /**
+     * Fills in the rating sum of foods rated before it was stored, from the
+     * old average and count. Rows that already have a sum are left alone, so
+     * running this again changes nothing.
+     *
+     * @return number of foods updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Food f SET f.ratingSum = f.legacyRating * f.numberOfRatings "
+            + "WHERE f.ratingSum = 0 AND f.numberOfRatings > 0 AND f.legacyRating > 0")
+    int backfillRatingSums();
+
+    /**
+     * Find foods with more than the given number of ratings.
+     *
+     * @param numberOfRatings lower bound, exclusive
+     * @return the foods
+     */
+    List<Food> findByNumberOfRatingsGreaterThan(int numberOfRatings);
 }
@@ -1,12 +1,21 @@
 package FoodSeer.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import FoodSeer.dto.IdValueRow;
+import FoodSeer.dto.OrderLineRow;
+import FoodSeer.dto.OrderSummaryDto;
 import FoodSeer.entity.Food;
 import FoodSeer.entity.Order;
 import FoodSeer.entity.User;
@@ -34,6 +43,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @return list of fulfilled orders belonging to the user
      */
     List<Order> findByUserAndIsFulfilled(User user, boolean isFulfilled);
+
+    /**
+     * Find all orders with the given fulfillment status.
+     *
+     * @param isFulfilled true for fulfilled orders, false for pending ones
+     * @return list of matching orders
+     */
+    List<Order> findByIsFulfilled(boolean isFulfilled);
     
     /**
      * Find all orders that contain a specific food.
@@ -43,4 +60,232 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     @Query("SELECT o FROM Order o JOIN o.foods f WHERE f = :food")
     List<Order> findOrdersContainingFood(@Param("food") Food food);
+
+    /**
+     * Find ids of fulfilled orders fulfilled before the cutoff, oldest id
+     * first. Used by the archiver to move old orders in batches.
+     *
+     * @param cutoff only orders fulfilled before this time are returned
+     * @param pageable limits the batch size
+     * @return ids of orders ready to be archived
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.isFulfilled = true AND o.fulfilledAt < :cutoff ORDER BY o.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /** Select list shared by the order list projections. */
+    String LINE_ROW = "SELECT new FoodSeer.dto.OrderLineRow(o.id, o.name, o.isFulfilled, o.priority, o.createdAt, "
+            + "o.totalPrice, o.itemCount, f.id, f.foodName, COALESCE(VALUE(ps), f.price)) FROM Order o "
+            + "LEFT JOIN o.foods f LEFT JOIN o.priceSnapshot ps ON KEY(ps) = f.id ";
+
+    /**
+     * Find the header and items of every order as flat rows, ordered by
+     * order id.
+     *
+     * @return one row per order item
+     */
+    @Query(LINE_ROW + "ORDER BY o.id")
+    List<OrderLineRow> findLineRows();
+
+    /**
+     * Find the header and items of orders with the given fulfillment status.
+     *
+     * @param isFulfilled true for fulfilled orders, false for pending ones
+     * @return one row per order item
+     */
+    @Query(LINE_ROW + "WHERE o.isFulfilled = :isFulfilled ORDER BY o.id")
+    List<OrderLineRow> findLineRowsByIsFulfilled(@Param("isFulfilled") boolean isFulfilled);
+
+    /**
+     * Find the header and items of a user's orders.
+     *
+     * @param userId the user's id
+     * @return one row per order item
+     */
+    @Query(LINE_ROW + "WHERE o.user.id = :userId ORDER BY o.id")
+    List<OrderLineRow> findLineRowsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find the header and items of a user's orders with the given
+     * fulfillment status.
+     *
+     * @param userId the user's id
+     * @param isFulfilled true for fulfilled orders, false for pending ones
+     * @return one row per order item
+     */
+    @Query(LINE_ROW + "WHERE o.user.id = :userId AND o.isFulfilled = :isFulfilled ORDER BY o.id")
+    List<OrderLineRow> findLineRowsByUserIdAndIsFulfilled(@Param("userId") Long userId,
+            @Param("isFulfilled") boolean isFulfilled);
+
+    /** Select list shared by the order summary projections. */
+    String SUMMARY = "SELECT new FoodSeer.dto.OrderSummaryDto(o.id, o.name, o.isFulfilled, o.priority, o.createdAt, "
+            + "o.totalPrice, o.itemCount) FROM Order o ";
+
+    /**
+     * Find the summary of every order.
+     *
+     * @return order summaries ordered by id
+     */
+    @Query(SUMMARY + "ORDER BY o.id")
+    List<OrderSummaryDto> findSummaries();
+
+    /**
+     * Find the summaries of a user's orders.
+     *
+     * @param userId the user's id
+     * @return order summaries ordered by id
+     */
+    @Query(SUMMARY + "WHERE o.user.id = :userId ORDER BY o.id")
+    List<OrderSummaryDto> findSummariesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Marks an order fulfilled only if it is not already, so two requests
+     * racing to fulfil the same order cannot both succeed.
+     *
+     * @param id  id of the order
+     * @param now time of fulfilment
+     * @return 1 if this call fulfilled the order, 0 if it was missing or already fulfilled
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.isFulfilled = true, o.fulfilledAt = :now WHERE o.id = :id AND o.isFulfilled = false")
+    int markFulfilled(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Fills in the total and item count of orders placed before they were
+     * stored, using current food prices. The subqueries read only
+     * orders_foods and foods, never orders, so MySQL accepts them in an
+     * UPDATE of orders.
+     *
+     * @return number of orders updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query(value = "UPDATE orders SET "
+            + "item_count = (SELECT COUNT(*) FROM orders_foods l WHERE l.order_id = orders.id), "
+            + "total_price = (SELECT COALESCE(SUM(f.price), 0) FROM orders_foods l "
+            + "JOIN foods f ON f.id = l.foods_id WHERE l.order_id = orders.id) "
+            + "WHERE item_count = 0 AND EXISTS (SELECT 1 FROM orders_foods l WHERE l.order_id = orders.id)",
+            nativeQuery = true)
+    int backfillTotals();
+
+    /**
+     * Find ids of a user's orders between two ids, newest first. Served from
+     * the (user_id, id) index; without a status predicate the
+     * (user_id, is_fulfilled, id) index cannot give id order.
+     *
+     * @param userId the user's id
+     * @param before only ids below this are returned
+     * @param since only ids above this are returned
+     * @param pageable limits the page size
+     * @return order ids, newest first
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId AND o.id < :before AND o.id > :since "
+            + "ORDER BY o.id DESC")
+    List<Long> findPageIds(@Param("userId") Long userId, @Param("before") long before,
+            @Param("since") long since, Pageable pageable);
+
+    /**
+     * Find ids of a user's orders with the given status between two ids,
+     * newest first. Served from the (user_id, is_fulfilled, id) index.
+     *
+     * @param userId the user's id
+     * @param isFulfilled true for fulfilled orders, false for pending ones
+     * @param before only ids below this are returned
+     * @param since only ids above this are returned
+     * @param pageable limits the page size
+     * @return order ids, newest first
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId AND o.isFulfilled = :isFulfilled "
+            + "AND o.id < :before AND o.id > :since ORDER BY o.id DESC")
+    List<Long> findPageIds(@Param("userId") Long userId, @Param("isFulfilled") boolean isFulfilled,
+            @Param("before") long before, @Param("since") long since, Pageable pageable);
+
+    /**
+     * Find the header and items of the given orders.
+     *
+     * @param ids the order ids
+     * @return one row per order item
+     */
+    @Query(LINE_ROW + "WHERE o.id IN :ids ORDER BY o.id")
+    List<OrderLineRow> findLineRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Count orders per user.
+     *
+     * @return one row per user, keyed by user id
+     */
+    @Query("SELECT new FoodSeer.dto.IdValueRow(o.user.id, COUNT(o)) FROM Order o GROUP BY o.user.id")
+    List<IdValueRow> countByUser();
+
+    /**
+     * Count orders of the given users.
+     *
+     * @param userIds ids of the users
+     * @return one row per user with orders, keyed by user id
+     */
+    @Query("SELECT new FoodSeer.dto.IdValueRow(o.user.id, COUNT(o)) FROM Order o WHERE o.user.id IN :userIds "
+            + "GROUP BY o.user.id")
+    List<IdValueRow> countByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Find ids of a user's orders, lowest first, one batch at a time.
+     *
+     * @param userId   the user's id
+     * @param pageable limits the number of ids returned
+     * @return order ids
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId ORDER BY o.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Count a user's orders.
+     *
+     * @param userId the user's id
+     * @return number of orders
+     */
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    long countByUserId(@Param("userId") Long userId);
+
+    /**
+     * Delete the food links of the given orders.
+     *
+     * @param ids order ids
+     * @return number of rows deleted
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = "DELETE FROM orders_foods WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteFoodLinksByOrderIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete the price snapshots of the given orders.
+     *
+     * @param ids order ids
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM order_price_snapshot WHERE order_id IN (:ids)", nativeQuery = true)
+    int deletePriceSnapshotsByOrderIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete the legacy rated food ids of the given orders.
+     *
+     * @param ids order ids
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM order_rated_food_ids WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteLegacyRatingsByOrderIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete the given orders. Their collection rows must be deleted first.
+     *
+     * @param ids order ids
+     * @return number of orders deleted
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
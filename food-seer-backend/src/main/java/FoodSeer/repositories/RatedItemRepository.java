@@ -0,0 +1,74 @@
+package FoodSeer.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import FoodSeer.dto.IdValueRow;
+import FoodSeer.entity.RatedItem;
+
+/**
+ * Repository for ratings of foods in orders.
+ */
+public interface RatedItemRepository extends JpaRepository<RatedItem, Long> {
+
+    /**
+     * Find the ids of foods rated in an order.
+     *
+     * @param orderId id of the order
+     * @return rated food ids
+     */
+    @Query("SELECT r.foodId FROM RatedItem r WHERE r.orderId = :orderId")
+    List<Long> findFoodIdsByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * Find the rated food ids of the given orders.
+     *
+     * @param orderIds ids of the orders
+     * @return one row per rating, keyed by order id
+     */
+    @Query("SELECT new FoodSeer.dto.IdValueRow(r.orderId, r.foodId) FROM RatedItem r WHERE r.orderId IN :orderIds")
+    List<IdValueRow> findRatedFoodIds(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Delete the ratings of the given orders.
+     *
+     * @param orderIds ids of the orders
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RatedItem r WHERE r.orderId IN :orderIds")
+    void deleteByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Copies rated food ids kept on orders by older versions into this table.
+     * Ratings already copied are skipped, so running this again changes
+     * nothing.
+     *
+     * @return number of ratings copied
+     */
+    @Modifying
+    @Transactional
+    @Query("INSERT INTO RatedItem (orderId, foodId, createdAt) "
+            + "SELECT o.id, r, COALESCE(o.fulfilledAt, o.createdAt) FROM Order o JOIN o.legacyRatedFoodIds r "
+            + "WHERE NOT EXISTS (SELECT 1 FROM RatedItem ri WHERE ri.orderId = o.id AND ri.foodId = r)")
+    int copyLegacyOrderRatings();
+
+    /**
+     * Copies rated food ids kept on archived orders by older versions into
+     * this table. Ratings already copied are skipped.
+     *
+     * @return number of ratings copied
+     */
+    @Modifying
+    @Transactional
+    @Query("INSERT INTO RatedItem (orderId, foodId, createdAt) "
+            + "SELECT a.id, r, a.fulfilledAt FROM ArchivedOrder a JOIN a.legacyRatedFoodIds r "
+            + "WHERE NOT EXISTS (SELECT 1 FROM RatedItem ri WHERE ri.orderId = a.id AND ri.foodId = r)")
+    int copyLegacyArchivedOrderRatings();
+}
@@ -1,8 +1,12 @@
 package FoodSeer.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import FoodSeer.entity.User;
@@ -33,4 +37,68 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsernameOrEmail ( String usernameOrEmail, String usernameOrEmail2 );
 
+    /**
+     * Finds users after an id, in id order, so pages are read from the
+     * primary key instead of counting past earlier rows.
+     *
+     * @param after
+     *            only users with a larger id are returned
+     * @param role
+     *            role to match, or null for any role
+     * @param pageable
+     *            limits the number of users returned
+     * @return matching users
+     */
+    @Query ( "SELECT u FROM User u WHERE u.id > :after AND (:role IS NULL OR u.role = :role) ORDER BY u.id" )
+    List<User> findPage ( @Param ( "after" ) long after, @Param ( "role" ) String role, Pageable pageable );
+
+    /**
+     * Finds users whose username starts with a prefix, in username order,
+     * as a range scan of the username index.
+     *
+     * @param prefix
+     *            LIKE pattern matched against the username, escaped with '!'
+     * @param after
+     *            only users with a later username are returned; "" for the
+     *            first page
+     * @param role
+     *            role to match, or null for any role
+     * @param pageable
+     *            limits the number of users returned
+     * @return matching users
+     */
+    @Query ( "SELECT u FROM User u WHERE u.username LIKE :prefix ESCAPE '!' AND u.username > :after "
+            + "AND (:role IS NULL OR u.role = :role) ORDER BY u.username" )
+    List<User> findPageByUsernamePrefix ( @Param ( "prefix" ) String prefix, @Param ( "after" ) String after,
+            @Param ( "role" ) String role, Pageable pageable );
+
+    /**
+     * Finds users whose email, but not username, starts with a prefix, in
+     * email order, as a range scan of the email index. Users matched by
+     * username are left to {@link #findPageByUsernamePrefix}.
+     *
+     * @param prefix
+     *            LIKE pattern matched against the email, escaped with '!'
+     * @param after
+     *            only users with a later email are returned; "" for the first
+     *            page
+     * @param role
+     *            role to match, or null for any role
+     * @param pageable
+     *            limits the number of users returned
+     * @return matching users
+     */
+    @Query ( "SELECT u FROM User u WHERE u.email LIKE :prefix ESCAPE '!' AND u.email > :after "
+            + "AND u.username NOT LIKE :prefix ESCAPE '!' AND (:role IS NULL OR u.role = :role) "
+            + "ORDER BY u.email" )
+    List<User> findPageByEmailPrefix ( @Param ( "prefix" ) String prefix, @Param ( "after" ) String after,
+            @Param ( "role" ) String role, Pageable pageable );
+
+    /**
+     * Counts users per role.
+     *
+     * @return one [role, count] row per role
+     */
+    @Query ( "SELECT u.role, COUNT(u) FROM User u GROUP BY u.role" )
+    List<Object[]> countByRole ();
 }
@@ -0,0 +1,27 @@
+package FoodSeer.security;
+
+import java.security.Principal;
+
+/**
+ * Principal for a request authenticated with a JWT. Built from the token's
+ * claims, so no user lookup is needed to authorize a request.
+ *
+ * @param id
+ *            user id, or null for tokens issued without one
+ * @param username
+ *            username
+ * @param role
+ *            role, such as ROLE_CUSTOMER
+ */
+public record AuthenticatedUser ( Long id, String username, String role ) implements Principal {
+
+    /**
+     * Returns the username, so Authentication.getName() keeps working.
+     *
+     * @return the username
+     */
+    @Override
+    public String getName () {
+        return username;
+    }
+}
@@ -0,0 +1,216 @@
+package FoodSeer.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import FoodSeer.dto.PasswordHashStatsDto;
+import FoodSeer.exception.FoodSeerAPIException;
+
+/**
+ * BCrypt password encoder that hashes on a small dedicated pool instead of
+ * the calling thread. At most one hash per pool thread runs at a time and a
+ * bounded number wait in a queue; when the queue is full the caller is
+ * answered 503 at once, so a burst of logins cannot take every CPU from
+ * ordinary requests. Hashes made with a different cost than the configured
+ * one are reported by upgradeEncoding, so they are rehashed on the next
+ * successful login.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    /** Cost in a BCrypt hash such as $2a$10$... */
+    private static final Pattern BCRYPT_COST = Pattern.compile( "^\\$2[aby]?\\$(\\d\\d)\\$" );
+
+    /** Encoder doing the hashing */
+    private final BCryptPasswordEncoder delegate;
+
+    /** Configured BCrypt cost */
+    private final int cost;
+
+    /** Longest a caller waits for its hash, queueing included */
+    private final long timeoutMillis;
+
+    /** Pool running the hashes */
+    private final ThreadPoolExecutor executor;
+
+    /** Number of encode calls completed */
+    private final LongAdder encodes = new LongAdder();
+
+    /** Number of matches calls completed */
+    private final LongAdder matches = new LongAdder();
+
+    /** Number of calls rejected because the queue was full or the wait timed out */
+    private final LongAdder rejected = new LongAdder();
+
+    /** Number of stored hashes found with a different cost */
+    private final LongAdder upgrades = new LongAdder();
+
+    /** Total time spent hashing in nanoseconds */
+    private final LongAdder hashNanos = new LongAdder();
+
+    /** Total time spent waiting in the queue in nanoseconds */
+    private final LongAdder queueNanos = new LongAdder();
+
+    /** Longest single hash in nanoseconds */
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    /**
+     * Creates the encoder.
+     *
+     * @param cost
+     *            BCrypt cost (log2 rounds)
+     * @param threads
+     *            number of hashes run at once
+     * @param queueCapacity
+     *            number of hashes allowed to wait for a thread
+     * @param timeoutMillis
+     *            longest a caller waits for its hash
+     */
+    public BoundedPasswordEncoder ( final int cost, final int threads, final int queueCapacity,
+            final long timeoutMillis ) {
+        this.delegate = new BCryptPasswordEncoder( cost );
+        this.cost = cost;
+        this.timeoutMillis = timeoutMillis;
+        final AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor( threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>( queueCapacity ), runnable -> {
+                    final Thread thread = new Thread( runnable, "password-hash-" + count.incrementAndGet() );
+                    thread.setDaemon( true );
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy() );
+    }
+
+    @Override
+    public String encode ( final CharSequence rawPassword ) {
+        final String encoded = run( () -> delegate.encode( rawPassword ) );
+        encodes.increment();
+        return encoded;
+    }
+
+    @Override
+    public boolean matches ( final CharSequence rawPassword, final String encodedPassword ) {
+        final boolean result = run( () -> delegate.matches( rawPassword, encodedPassword ) );
+        matches.increment();
+        return result;
+    }
+
+    /**
+     * Returns true if the stored hash was made with a different cost than the
+     * configured one, in either direction.
+     *
+     * @param encodedPassword
+     *            the stored hash
+     * @return true if the password should be hashed again
+     */
+    @Override
+    public boolean upgradeEncoding ( final String encodedPassword ) {
+        if ( encodedPassword == null ) {
+            return false;
+        }
+        final Matcher matcher = BCRYPT_COST.matcher( encodedPassword );
+        if ( !matcher.find() || Integer.parseInt( matcher.group( 1 ) ) == cost ) {
+            return false;
+        }
+        upgrades.increment();
+        return true;
+    }
+
+    /**
+     * Returns hashing statistics since startup.
+     *
+     * @return the statistics
+     */
+    public PasswordHashStatsDto getStats () {
+        final long encodeCount = encodes.sum();
+        final long matchCount = matches.sum();
+        final long total = encodeCount + matchCount;
+        return new PasswordHashStatsDto( cost, encodeCount, matchCount, rejected.sum(), upgrades.sum(),
+                total == 0 ? 0 : hashNanos.sum() / total / 1_000_000.0,
+                maxHashNanos.get() / 1_000_000.0,
+                total == 0 ? 0 : queueNanos.sum() / total / 1_000_000.0,
+                executor.getActiveCount(), executor.getQueue().size() );
+    }
+
+    /**
+     * Stops the pool.
+     */
+    public void shutdown () {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a hash on the pool and waits for it.
+     *
+     * @param <T>
+     *            result type
+     * @param hash
+     *            the hashing work
+     * @return its result
+     */
+    private <T> T run ( final Callable<T> hash ) {
+        final long submitted = System.nanoTime();
+        final Future<T> future;
+        try {
+            future = executor.submit( () -> {
+                final long started = System.nanoTime();
+                queueNanos.add( started - submitted );
+                try {
+                    return hash.call();
+                }
+                finally {
+                    final long elapsed = System.nanoTime() - started;
+                    hashNanos.add( elapsed );
+                    maxHashNanos.accumulateAndGet( elapsed, Math::max );
+                }
+            } );
+        }
+        catch ( final RejectedExecutionException e ) {
+            rejected.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get( timeoutMillis, TimeUnit.MILLISECONDS );
+        }
+        catch ( final TimeoutException e ) {
+            future.cancel( true );
+            rejected.increment();
+            throw busy();
+        }
+        catch ( final InterruptedException e ) {
+            future.cancel( true );
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while hashing a password", e );
+        }
+        catch ( final ExecutionException e ) {
+            if ( e.getCause() instanceof RuntimeException runtime ) {
+                throw runtime;
+            }
+            throw new IllegalStateException( "Password hashing failed", e.getCause() );
+        }
+    }
+
+    /**
+     * Error returned when too many hashes are waiting.
+     *
+     * @return the exception to throw
+     */
+    private static FoodSeerAPIException busy () {
+        return new FoodSeerAPIException( HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many sign-in requests, please try again shortly" );
+    }
+}
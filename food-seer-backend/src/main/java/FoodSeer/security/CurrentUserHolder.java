@@ -0,0 +1,126 @@
+package FoodSeer.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import FoodSeer.entity.User;
+import FoodSeer.repositories.UserRepository;
+import FoodSeer.util.BoundedTtlCache;
+
+/**
+ * Resolves the authenticated User. The user is looked up at most once per
+ * request and kept as a request attribute, so every service called while
+ * handling the request shares it. Tokens carry the user id, which is looked
+ * up in a bounded cache shared across requests before falling back to the
+ * database; principals without an id are looked up by username.
+ */
+@Component
+public class CurrentUserHolder {
+
+    /** Request attribute holding the resolved user */
+    private static final String ATTRIBUTE = CurrentUserHolder.class.getName() + ".user";
+
+    /** Source of users */
+    private final UserRepository userRepository;
+
+    /** Users by id, or null when disabled */
+    private final BoundedTtlCache<Long, User> cache;
+
+    /**
+     * Creates the holder.
+     *
+     * @param userRepository
+     *            source of users
+     * @param ttlMillis
+     *            how long a user is cached across requests, or 0 to disable
+     *            the cache
+     * @param maxEntries
+     *            maximum number of users cached
+     */
+    public CurrentUserHolder ( final UserRepository userRepository,
+            @Value ( "${app.users.cache-ttl-ms:60000}" ) final long ttlMillis,
+            @Value ( "${app.users.cache-max-entries:10000}" ) final int maxEntries ) {
+        this.userRepository = userRepository;
+        this.cache = ttlMillis > 0 && maxEntries > 0 ? new BoundedTtlCache<>( maxEntries, ttlMillis ) : null;
+    }
+
+    /**
+     * Returns the authenticated user.
+     *
+     * @return the user, or null if the request is not authenticated or the
+     *         user no longer exists
+     */
+    public User get () {
+        final Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if ( auth == null || !auth.isAuthenticated() ) {
+            return null;
+        }
+
+        final RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if ( request != null ) {
+            final Object held = request.getAttribute( ATTRIBUTE, RequestAttributes.SCOPE_REQUEST );
+            if ( held instanceof User user && user.getUsername().equals( auth.getName() ) ) {
+                return user;
+            }
+        }
+
+        final User user = load( auth );
+        if ( user != null && request != null ) {
+            request.setAttribute( ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST );
+        }
+        return user;
+    }
+
+    /**
+     * Forgets a cached user, so later lookups, including the rest of the
+     * current request, read their current state.
+     *
+     * @param id
+     *            the user id
+     */
+    public void evict ( final Long id ) {
+        if ( id == null ) {
+            return;
+        }
+        if ( cache != null ) {
+            cache.remove( id );
+        }
+        final RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if ( request != null && request.getAttribute( ATTRIBUTE, RequestAttributes.SCOPE_REQUEST ) instanceof User user
+                && id.equals( user.getId() ) ) {
+            request.removeAttribute( ATTRIBUTE, RequestAttributes.SCOPE_REQUEST );
+        }
+    }
+
+    /**
+     * Looks up the user for an authentication, by id when the token carries
+     * one.
+     *
+     * @param auth
+     *            the authentication
+     * @return the user, or null if not found
+     */
+    private User load ( final Authentication auth ) {
+        if ( auth.getPrincipal() instanceof AuthenticatedUser principal && principal.id() != null ) {
+            final Long id = principal.id();
+            User user = cache == null ? null : cache.get( id );
+            if ( user == null ) {
+                user = userRepository.findById( id ).orElse( null );
+                if ( user != null && cache != null ) {
+                    cache.put( id, user );
+                }
+            }
+            return user;
+        }
+
+        final User user = userRepository.findByUsername( auth.getName() ).orElse( null );
+        if ( user != null && cache != null ) {
+            cache.put( user.getId(), user );
+        }
+        return user;
+    }
+}
@@ -6,6 +6,7 @@ import java.util.Set;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -15,11 +16,12 @@ import FoodSeer.repositories.UserRepository;
 import lombok.AllArgsConstructor;
 
 /**
- * Supports finding and logging in a user by username or email.
+ * Supports finding and logging in a user by username or email, and stores
+ * rehashed passwords when the BCrypt cost has changed since they were hashed.
  */
 @Service
 @AllArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     /** Link to userRepository */
     private UserRepository userRepository;
@@ -43,4 +45,24 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new org.springframework.security.core.userdetails.User( usernameOrEmail, user.getPassword(),
                 authorities );
     }
+
+    /**
+     * Stores a password rehashed with the current BCrypt cost. Called by the
+     * authentication provider after a successful login.
+     *
+     * @param user
+     *            the authenticated user
+     * @param newPassword
+     *            the new hash
+     * @return the user with the new hash
+     */
+    @Override
+    public UserDetails updatePassword ( final UserDetails user, final String newPassword ) {
+        userRepository.findByUsernameOrEmail( user.getUsername(), user.getUsername() ).ifPresent( stored -> {
+            stored.setPassword( newPassword );
+            userRepository.save( stored );
+        } );
+        return org.springframework.security.core.userdetails.User.withUserDetails( user ).password( newPassword )
+                .build();
+    }
 }
@@ -1,10 +1,15 @@
 package FoodSeer.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -13,7 +18,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import FoodSeer.service.TokenRevocationService;
+
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Checks user's tokens.
@@ -24,21 +32,55 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	/** Token provider */
     private JwtTokenProvider jwtTokenProvider;
 
-    /** Service for UserDetails */
+    /** Service for UserDetails, used for tokens issued without a role claim */
     private UserDetailsService userDetailsService;
 
+    /** Optional cache of current roles, or null */
+    private PrincipalCache principalCache;
+
+    /** Revoked token ids, or null to skip the check */
+    private TokenRevocationService tokenRevocationService;
+
     /** 
      * Constructs the authentication filter
      * @param jwtTokenProvider token provide
      * @param userDetailsService service for UserDetails
      */
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
+        this(jwtTokenProvider, userDetailsService, null);
+    }
+
+    /** 
+     * Constructs the authentication filter
+     * @param jwtTokenProvider token provide
+     * @param userDetailsService service for UserDetails
+     * @param principalCache optional cache of current roles
+     */
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService,
+            PrincipalCache principalCache) {
+        this(jwtTokenProvider, userDetailsService, principalCache, null);
+    }
+
+    /** 
+     * Constructs the authentication filter
+     * @param jwtTokenProvider token provide
+     * @param userDetailsService service for UserDetails
+     * @param principalCache optional cache of current roles
+     * @param tokenRevocationService optional store of revoked token ids
+     */
+    @Autowired
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService,
+            PrincipalCache principalCache, TokenRevocationService tokenRevocationService) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
-     * Loads the user given the token.
+     * Authenticates the request from the token's claims. The database is only
+     * read for tokens issued without a role claim, or through the principal
+     * cache when it is enabled.
      * @param request request from client
      * @param response response for the request
      * @param filterChain permissions
@@ -51,25 +93,78 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
 
         // Validate token
-        if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-            // get username from token
-            String username = jwtTokenProvider.getUsername(token);
+        Claims claims = null;
+        if (StringUtils.hasText(token)) {
+            try {
+                claims = jwtTokenProvider.parseAndValidate(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                // Invalid or expired token: continue unauthenticated so the
+                // entry point answers 401
+            }
+        }
+        if (claims != null && isRevoked(claims)) {
+            claims = null;
+        }
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null) {
+            AuthenticatedUser principal = toPrincipal(claims);
 
-            UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities()
-            );
+            if (principal != null) {
+                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        principal.role() == null ? List.of() : List.of(new SimpleGrantedAuthority(principal.role()))
+                );
 
-            authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Checks the token's id and user against the revocations held in memory.
+     * @param claims verified token claims
+     * @return true if the token, or every token of its user, was revoked
+     */
+    private boolean isRevoked(Claims claims) {
+        if (tokenRevocationService == null) {
+            return false;
+        }
+        String jti = claims.getId();
+        Number userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Number.class);
+        return jti != null && tokenRevocationService.isRevoked(jti)
+                || userId != null && tokenRevocationService.isUserRevoked(userId.longValue());
+    }
+
+    /**
+     * Builds the principal for verified claims.
+     * @param claims verified token claims
+     * @return the principal, or null if the user no longer exists
+     */
+    private AuthenticatedUser toPrincipal(Claims claims) {
+        String username = claims.getSubject();
+        if (principalCache != null && principalCache.isEnabled()) {
+            return principalCache.get(username);
+        }
+
+        String role = claims.get(JwtTokenProvider.ROLE_CLAIM, String.class);
+        if (role == null) {
+            // Token issued before roles were added to the claims
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            role = userDetails.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .findFirst()
+                    .orElse(null);
+            return new AuthenticatedUser(null, userDetails.getUsername(), role);
+        }
+        Number userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Number.class);
+        return new AuthenticatedUser(userId == null ? null : userId.longValue(), username, role);
+    }
+
     /**
      * Extracts the JWT token from the Authorization header of the HTTP request.
      * @param request
@@ -1,16 +1,26 @@
 package FoodSeer.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import FoodSeer.entity.User;
+import FoodSeer.util.BoundedTtlCache;
+
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
  * Provides a token for the user.
@@ -18,13 +28,40 @@ import java.nio.charset.StandardCharsets;
 @Component
 public class JwtTokenProvider {
 
-	/** Pulls secret from application.properties */
-    @Value("${app.jwt-secret}")
-    private String jwtSecret;
+    /**
+     * Lifetime of access tokens. Kept short, so role changes reach clients
+     * at their next refresh; sessions are kept alive by refresh tokens.
+     */
+    private final long jwtExpirationDate;
+
+    /** Signing key and parser, built from the secret at startup */
+    private final Signer signer;
 
-    /** Pulls experiation of user login from application.properties */
-    @Value("${app.jwt-expiration-milliseconds}")
-    private Long jwtExpirationDate;
+    /** Claims of recently verified tokens by token hash, or null when disabled */
+    private final BoundedTtlCache<String, Claims> verifiedTokens;
+
+    /** Claim holding the user's role */
+    public static final String ROLE_CLAIM = "role";
+
+    /** Claim holding the user's id */
+    public static final String USER_ID_CLAIM = "uid";
+
+    /**
+     * Builds the signing key, parser and verified token cache once, so
+     * requests never wait on their construction.
+     * @param jwtSecret secret from application.properties, as base64, hex or plain text
+     * @param jwtExpirationDate lifetime of access tokens in milliseconds
+     * @param verifiedCacheMaxEntries maximum number of verified tokens remembered, or 0 to verify every time
+     */
+    public JwtTokenProvider(@Value("${app.jwt-secret}") String jwtSecret,
+            @Value("${app.jwt.access-expiration-ms:900000}") long jwtExpirationDate,
+            @Value("${app.jwt.verified-cache-max-entries:10000}") int verifiedCacheMaxEntries) {
+        this.jwtExpirationDate = jwtExpirationDate;
+        SecretKey key = key(jwtSecret);
+        this.signer = new Signer(key, Jwts.parserBuilder().setSigningKey(key).build());
+        this.verifiedTokens = verifiedCacheMaxEntries <= 0 ? null
+                : new BoundedTtlCache<>(verifiedCacheMaxEntries, jwtExpirationDate);
+    }
 
     /**
      * Generates the token
@@ -32,21 +69,55 @@ public class JwtTokenProvider {
      * @return the generated token
      */
     public String generateToken(Authentication authentication) {
-        String username = authentication.getName();
+        String role = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElse(null);
+        return generateToken(authentication.getName(), role, null);
+    }
 
+    /**
+     * Generates a token carrying the user's id and role, so requests can be
+     * authorized from the token alone.
+     * @param user the authenticated user
+     * @return the generated token
+     */
+    public String generateToken(User user) {
+        return generateToken(user.getUsername(), user.getRole(), user.getId());
+    }
+
+    /**
+     * Generates the token
+     * @param username subject of the token
+     * @param role role claim, or null to leave it out
+     * @param userId user id claim, or null to leave it out
+     * @return the generated token
+     */
+    private String generateToken(String username, String role, Long userId) {
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + jwtExpirationDate);
 
-
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .setIssuedAt(currentDate)
-                .setExpiration(expireDate)
-                .signWith(key())
-                .compact();
+                .setExpiration(expireDate);
+        if (role != null) {
+            builder.claim(ROLE_CLAIM, role);
+        }
+        if (userId != null) {
+            builder.claim(USER_ID_CLAIM, userId);
+        }
+        return builder.signWith(signer.key()).compact();
     }
 
-    private SecretKey key() {
+    /**
+     * Decodes the secret into a signing key. Only called once; the key is
+     * kept by the signer.
+     * @param jwtSecret the secret
+     * @return the signing key
+     */
+    private static SecretKey key(String jwtSecret) {
         // jwtSecret in properties might be base64, hex, or plain text.
         try {
             // Try base64 first
@@ -68,20 +139,21 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * Returns the lifetime of access tokens.
+     * @return lifetime in milliseconds
+     */
+    public long getAccessTokenTtlMillis() {
+        return jwtExpirationDate;
+    }
+
     /**
      * Returns the username
      * @param token token to use for authentication
      * @return the username that is authenticated
      */
     public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject(); //username
-
+        return parseAndValidate(token).getSubject(); //username
     }
 
     /**
@@ -90,10 +162,58 @@ public class JwtTokenProvider {
      * @return true if valid
      */
     public boolean validateToken(String token) {
-        Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token);
+        parseAndValidate(token);
         return true;
     }
+
+    /**
+     * Verifies the token once and returns its claims, so callers can read
+     * everything they need from a single verification. Tokens verified
+     * recently are answered from a bounded cache keyed by the token's hash
+     * until they expire, skipping the signature check.
+     * @param token token to verify
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseAndValidate(String token) {
+        BoundedTtlCache<String, Claims> cache = verifiedTokens;
+        String hash = cache == null ? null : sha256(token);
+        if (cache != null) {
+            Claims cached = cache.get(hash);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Claims claims = signer.parser().parseClaimsJws(token).getBody();
+        if (cache != null && claims.getExpiration() != null) {
+            long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+            if (remaining > 0) {
+                cache.put(hash, claims, remaining);
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Returns the hex SHA-256 of a token, so raw tokens are not kept in memory.
+     * @param token the token
+     * @return 64 character hex digest
+     */
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Signing key and the parser that verifies with it.
+     * @param key signing key
+     * @param parser parser for tokens signed with the key
+     */
+    private record Signer(SecretKey key, JwtParser parser) {
+    }
 }
@@ -0,0 +1,84 @@
+package FoodSeer.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import FoodSeer.entity.User;
+import FoodSeer.repositories.UserRepository;
+import FoodSeer.util.BoundedTtlCache;
+
+/**
+ * Optional short-lived cache of users' current roles. Tokens carry the role
+ * they were issued with; deployments that need role changes to apply before
+ * a token expires set app.jwt.principal-cache-ttl-ms, and the filter then
+ * takes the role from here, reading the database at most once per TTL per
+ * user. Disabled by default.
+ */
+@Component
+public class PrincipalCache {
+
+    /** Source of current roles */
+    private final UserRepository userRepository;
+
+    /** Current principals by username, or null when disabled */
+    private final BoundedTtlCache<String, AuthenticatedUser> cache;
+
+    /**
+     * Creates the cache.
+     *
+     * @param userRepository
+     *            source of current roles
+     * @param ttlMillis
+     *            how long a role is trusted, or 0 to disable the cache
+     * @param maxEntries
+     *            maximum number of users cached
+     */
+    public PrincipalCache ( final UserRepository userRepository,
+            @Value ( "${app.jwt.principal-cache-ttl-ms:0}" ) final long ttlMillis,
+            @Value ( "${app.jwt.principal-cache-max-entries:10000}" ) final int maxEntries ) {
+        this.userRepository = userRepository;
+        this.cache = ttlMillis > 0 ? new BoundedTtlCache<>( maxEntries, ttlMillis ) : null;
+    }
+
+    /**
+     * Returns true if roles should be taken from this cache instead of the
+     * token.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled () {
+        return cache != null;
+    }
+
+    /**
+     * Returns the current principal for a username.
+     *
+     * @param username
+     *            the username
+     * @return the principal, or null if the user no longer exists
+     */
+    public AuthenticatedUser get ( final String username ) {
+        AuthenticatedUser principal = cache.get( username );
+        if ( principal == null ) {
+            final User user = userRepository.findByUsername( username ).orElse( null );
+            if ( user == null ) {
+                return null;
+            }
+            principal = new AuthenticatedUser( user.getId(), user.getUsername(), user.getRole() );
+            cache.put( username, principal );
+        }
+        return principal;
+    }
+
+    /**
+     * Forgets a user, so their next request sees their current role.
+     *
+     * @param username
+     *            the username
+     */
+    public void evict ( final String username ) {
+        if ( cache != null ) {
+            cache.remove( username );
+        }
+    }
+}
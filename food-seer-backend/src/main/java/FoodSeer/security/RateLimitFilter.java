@@ -0,0 +1,223 @@
+package FoodSeer.security;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import FoodSeer.config.Roles;
+import FoodSeer.util.BoundedTtlCache;
+import FoodSeer.util.TokenBucket;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limits how often each user may call the expensive endpoint groups, so one
+ * client cannot use up the chat model or the database pool for everyone. Runs
+ * after JwtAuthenticationFilter, so requests are counted per user rather than
+ * per address; unauthenticated requests are left for security to reject.
+ *
+ * Each user has a token bucket per endpoint group. Limits are set per group
+ * and role with app.rate-limit.{group}.{role}.requests-per-minute and
+ * .burst, where role is admin, staff or customer; a limit of 0 turns the
+ * check off for that role.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /** Role name used when a user has no known role */
+    private static final String DEFAULT_ROLE = "customer";
+
+    /** Endpoint groups by path prefix */
+    private static final Map<String, String> GROUPS = Map.of(
+            "/api/chat", "chat",
+            "/api/orders", "orders");
+
+    /** Requests per minute for each group and role when not configured */
+    private static final Map<String, Map<String, Integer>> DEFAULT_LIMITS = Map.of(
+            "chat", Map.of(roleName(Roles.ROLE_ADMIN), 60,
+                    roleName(Roles.UserRoles.ROLE_STAFF.name()), 30,
+                    roleName(Roles.UserRoles.ROLE_CUSTOMER.name()), 20),
+            "orders", Map.of(roleName(Roles.ROLE_ADMIN), 600,
+                    roleName(Roles.UserRoles.ROLE_STAFF.name()), 600,
+                    roleName(Roles.UserRoles.ROLE_CUSTOMER.name()), 120));
+
+    /** Source of configured limits */
+    private final Environment environment;
+
+    /** False to let every request through */
+    private final boolean enabled;
+
+    /** Buckets by group, role and user; idle buckets expire */
+    private final BoundedTtlCache<String, TokenBucket> buckets;
+
+    /** Resolved limits by group and role */
+    private final Map<String, Limit> limits = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the filter.
+     *
+     * @param environment   source of configured limits
+     * @param enabled       false to let every request through
+     * @param maxKeys       most buckets kept at once
+     * @param idleTtlMillis how long an unused bucket is kept; should be at
+     *                      least the time a bucket takes to refill
+     */
+    @Autowired
+    public RateLimitFilter(final Environment environment,
+            @Value("${app.rate-limit.enabled:true}") final boolean enabled,
+            @Value("${app.rate-limit.max-keys:100000}") final int maxKeys,
+            @Value("${app.rate-limit.idle-ttl-ms:600000}") final long idleTtlMillis) {
+        this.environment = environment;
+        this.enabled = enabled;
+        this.buckets = new BoundedTtlCache<>(maxKeys, idleTtlMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        final String group = enabled ? groupOf(request) : null;
+        final Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (group == null || auth == null || !auth.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String role = roleOf(auth);
+        final Limit limit = limits.computeIfAbsent(group + "." + role, key -> resolveLimit(group, role));
+        if (limit.isUnlimited()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final TokenBucket bucket = buckets.getOrCreate(group + ":" + role + ":" + userKey(auth),
+                key -> new TokenBucket(limit.burst(), limit.perMinute() / 60.0));
+        final long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Returns the endpoint group of a request.
+     *
+     * @param request the request
+     * @return the group, or null if the path is not limited
+     */
+    private static String groupOf(final HttpServletRequest request) {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (final Map.Entry<String, String> group : GROUPS.entrySet()) {
+            final String prefix = group.getKey();
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return group.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the role a request is limited as.
+     *
+     * @param auth the authenticated user
+     * @return lower-case role name without the ROLE_ prefix
+     */
+    private static String roleOf(final Authentication auth) {
+        if (auth.getPrincipal() instanceof AuthenticatedUser user && user.role() != null) {
+            return roleName(user.role());
+        }
+        for (final GrantedAuthority authority : auth.getAuthorities()) {
+            if (authority.getAuthority().startsWith("ROLE_")) {
+                return roleName(authority.getAuthority());
+            }
+        }
+        return DEFAULT_ROLE;
+    }
+
+    /**
+     * Returns the key a user's buckets are stored under.
+     *
+     * @param auth the authenticated user
+     * @return the user id when the token carries one, otherwise the username
+     */
+    private static String userKey(final Authentication auth) {
+        if (auth.getPrincipal() instanceof AuthenticatedUser user && user.id() != null) {
+            return "id:" + user.id();
+        }
+        return "name:" + auth.getName();
+    }
+
+    /**
+     * Reads the limit for a group and role from the environment.
+     *
+     * @param group endpoint group
+     * @param role  role name
+     * @return the limit
+     */
+    private Limit resolveLimit(final String group, final String role) {
+        final Map<String, Integer> defaults = DEFAULT_LIMITS.get(group);
+        final int fallback = defaults.getOrDefault(role, defaults.get(DEFAULT_ROLE));
+        final String prefix = "app.rate-limit." + group + "." + role + ".";
+        final int perMinute = environment.getProperty(prefix + "requests-per-minute", Integer.class, fallback);
+        final int burst = environment.getProperty(prefix + "burst", Integer.class, perMinute);
+        return new Limit(perMinute, burst);
+    }
+
+    /**
+     * Writes a 429 response telling the client when to retry.
+     *
+     * @param request   the request
+     * @param response  the response
+     * @param waitNanos time until the next request is allowed
+     * @throws IOException if the response cannot be written
+     */
+    private static void reject(final HttpServletRequest request, final HttpServletResponse response,
+            final long waitNanos) throws IOException {
+        final long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().print(String.format(
+                "{\"timestamp\":\"%s\",\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"%s\",\"path\":\"%s\"}",
+                OffsetDateTime.now(), "Rate limit exceeded, retry after " + retryAfter + " seconds",
+                request.getRequestURI()));
+    }
+
+    /**
+     * Returns a role as it appears in property names.
+     *
+     * @param role role such as ROLE_STAFF
+     * @return role such as staff
+     */
+    private static String roleName(final String role) {
+        return (role.startsWith("ROLE_") ? role.substring("ROLE_".length()) : role).toLowerCase();
+    }
+
+    /**
+     * Requests allowed for a group and role.
+     *
+     * @param perMinute steady requests per minute, or 0 for no limit
+     * @param burst     requests allowed at once
+     */
+    private record Limit(int perMinute, int burst) {
+        boolean isUnlimited() {
+            return perMinute <= 0 || burst <= 0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package FoodSeer.service;
+
+import FoodSeer.dto.AnalyticsDto;
+
+/**
+ * Keeps order statistics in memory, updated from order events, so reports
+ * never scan the order tables.
+ */
+public interface AnalyticsService {
+
+    /**
+     * Returns the current statistics.
+     *
+     * @param hours
+     *            number of most recent hourly buckets to include
+     * @param topCustomers
+     *            number of customers to include
+     * @return the statistics
+     */
+    AnalyticsDto getAnalytics(int hours, int topCustomers);
+
+    /**
+     * Saves the current statistics to the database.
+     */
+    void checkpoint();
+
+    /**
+     * Replaces the in-memory statistics with the last saved checkpoint, or
+     * rebuilds them from the order tables if there is none.
+     */
+    void restore();
+}
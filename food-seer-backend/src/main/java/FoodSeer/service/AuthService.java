@@ -5,10 +5,15 @@ import org.springframework.http.ResponseEntity;
 
 import FoodSeer.dto.AuthResponseDto;
 import FoodSeer.dto.LoginRequestDto;
+import FoodSeer.dto.RefreshRequestDto;
 import FoodSeer.dto.RegisterRequestDto;
 
 public interface AuthService {
     public ResponseEntity<Map<String, String>> register ( final RegisterRequestDto req );
 
     public ResponseEntity<AuthResponseDto> login ( final LoginRequestDto req );
+
+    public ResponseEntity<AuthResponseDto> refresh ( final RefreshRequestDto req );
+
+    public ResponseEntity<Map<String, String>> logout ( final String authorization, final String refreshToken );
 }
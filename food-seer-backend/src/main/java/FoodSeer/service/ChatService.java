@@ -1,5 +1,8 @@
 package FoodSeer.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import FoodSeer.dto.ChatCacheStatsDto;
 import FoodSeer.dto.ChatRequestDto;
 import FoodSeer.dto.ChatResponseDto;
 
@@ -14,5 +17,23 @@ public interface ChatService {
      * @return the AI's response
      */
     ChatResponseDto sendMessage(ChatRequestDto chatRequest);
+
+    /**
+     * Sends a message to the Ollama AI and relays the answer as it is
+     * generated. Events are named "token", carrying the next piece of the
+     * answer; "done", carrying the whole answer; and "error". The upstream
+     * request is aborted if the client disconnects.
+     *
+     * @param chatRequest the chat request containing the user's message
+     * @return the event stream
+     */
+    SseEmitter streamMessage(ChatRequestDto chatRequest);
+
+    /**
+     * Returns statistics of the answer cache.
+     *
+     * @return the statistics
+     */
+    ChatCacheStatsDto getCacheStats();
 }
 
@@ -0,0 +1,43 @@
+package FoodSeer.service;
+
+import java.util.List;
+
+import FoodSeer.dto.RankedFoodDto;
+
+/**
+ * Keeps rated foods sorted by a Bayesian average of their ratings, so a food
+ * with one 5-star vote does not outrank one with hundreds of 4.8 votes, and
+ * the best foods can be listed without sorting the catalog.
+ */
+public interface FoodRankingService {
+
+    /**
+     * Returns the highest ranked foods.
+     *
+     * @param limit
+     *            maximum number of foods to return
+     * @return foods, best first
+     */
+    List<RankedFoodDto> getTopFoods(int limit);
+
+    /**
+     * Re-reads the ratings of the given foods and moves them in the ranking.
+     *
+     * @param foodIds
+     *            ids of foods whose ratings changed
+     */
+    void refresh(Iterable<Long> foodIds);
+
+    /**
+     * Removes a food from the ranking.
+     *
+     * @param foodId
+     *            id of the deleted food
+     */
+    void remove(Long foodId);
+
+    /**
+     * Rebuilds the ranking from the database.
+     */
+    void rebuild();
+}
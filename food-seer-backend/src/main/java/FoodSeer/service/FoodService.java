@@ -1,6 +1,7 @@
 package FoodSeer.service;
 
 import java.util.List;
+import java.util.Map;
 
 import FoodSeer.dto.FoodDto;
 
@@ -99,4 +100,16 @@ public interface FoodService {
      * @return The updated FoodDto with new average rating
      */
     FoodDto rateFoodInOrder(Long orderId, Long foodId, Double rating);
-}
\ No newline at end of file
+
+    /**
+     * Rates several food items of one order in a single transaction, ensuring
+     * the order is fulfilled and none of the items has been rated yet.
+     *
+     * @param orderId
+     * The ID of the order containing the foods
+     * @param ratings
+     * The rating score for each food ID
+     * @return The updated FoodDtos, ordered by ID
+     */
+    List<FoodDto> rateOrder(Long orderId, Map<Long, Double> ratings);
+}
@@ -0,0 +1,38 @@
+package FoodSeer.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import FoodSeer.dto.FulfillmentJobDto;
+import FoodSeer.exception.ResourceNotFoundException;
+
+/**
+ * Fulfills orders in the background so staff requests do not hold a servlet
+ * thread while stock is checked and deducted.
+ */
+public interface FulfillmentService {
+
+    /**
+     * Accepts an order for asynchronous fulfillment. If the order already has
+     * a pending job, that job is returned instead of queueing a second one.
+     *
+     * @param orderId
+     *            id of the order to fulfill
+     * @return the accepted job
+     * @throws ResourceNotFoundException
+     *             if the order does not exist
+     * @throws RejectedExecutionException
+     *             if too many jobs are already pending
+     */
+    FulfillmentJobDto submit(long orderId);
+
+    /**
+     * Returns the current state of a job.
+     *
+     * @param jobId
+     *            tracking id returned by submit
+     * @return the job
+     * @throws ResourceNotFoundException
+     *             if the job is unknown or has expired
+     */
+    FulfillmentJobDto getJob(String jobId);
+}
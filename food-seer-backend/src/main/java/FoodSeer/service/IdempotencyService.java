@@ -0,0 +1,44 @@
+package FoodSeer.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+
+import FoodSeer.exception.FoodSeerAPIException;
+
+/**
+ * Makes non-idempotent endpoints safe to retry. A request sent with an
+ * Idempotency-Key header runs once; retries with the same key get the stored
+ * response back without running the request again.
+ */
+public interface IdempotencyService {
+
+    /** Name of the request header carrying the client's key */
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Runs the action once per key, or replays the stored response.
+     *
+     * @param <T>
+     *            response body type
+     * @param key
+     *            the client's key, or null to run the action without
+     *            idempotency
+     * @param scope
+     *            name of the endpoint, so the same key can be used on
+     *            different endpoints
+     * @param request
+     *            the request body, used to detect a key reused for a different
+     *            request
+     * @param responseType
+     *            response body type, used to read back a stored response
+     * @param action
+     *            the request to run
+     * @return the response of the action, or the stored response on a retry
+     * @throws FoodSeerAPIException
+     *             409 if the first request with this key is still running, 422
+     *             if the key was used with a different request
+     */
+    <T> ResponseEntity<T> execute(String key, String scope, Object request, Class<T> responseType,
+            Supplier<ResponseEntity<T>> action);
+}
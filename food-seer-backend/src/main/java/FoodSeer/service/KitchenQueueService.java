@@ -0,0 +1,89 @@
+package FoodSeer.service;
+
+import java.util.List;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import FoodSeer.dto.KitchenTicketDto;
+import FoodSeer.dto.OrderDto;
+import FoodSeer.exception.ResourceNotFoundException;
+
+/**
+ * In-memory queue of unfulfilled orders for kitchen staff. Pending orders are
+ * ordered by priority (highest first) and then by age (oldest first).
+ */
+public interface KitchenQueueService {
+
+    /**
+     * Rebuilds the queue from the unfulfilled orders in the database.
+     */
+    void rebuild();
+
+    /**
+     * Returns every ticket in the queue, unclaimed tickets first in the order
+     * they will be handed out, followed by claimed tickets.
+     *
+     * @return snapshot of the queue
+     */
+    List<KitchenTicketDto> getQueue();
+
+    /**
+     * Claims the highest priority unclaimed order.
+     *
+     * @param staff
+     *            username of the staff member claiming the order
+     * @return the claimed ticket, or null if nothing is waiting
+     */
+    KitchenTicketDto claimNext(String staff);
+
+    /**
+     * Puts a claimed order back in the queue.
+     *
+     * @param orderId
+     *            id of the order
+     * @param staff
+     *            username of the staff member releasing the order
+     * @return the released ticket
+     * @throws ResourceNotFoundException
+     *             if the order is not in the queue
+     * @throws IllegalStateException
+     *             if the order is not claimed by the given staff member
+     */
+    KitchenTicketDto release(Long orderId, String staff);
+
+    /**
+     * Fulfills a claimed order and removes it from the queue.
+     *
+     * @param orderId
+     *            id of the order
+     * @param staff
+     *            username of the staff member completing the order
+     * @return the fulfilled order
+     * @throws ResourceNotFoundException
+     *             if the order is not in the queue
+     * @throws IllegalStateException
+     *             if the order is not claimed by the given staff member
+     */
+    OrderDto complete(Long orderId, String staff);
+
+    /**
+     * Changes the priority of a queued order.
+     *
+     * @param orderId
+     *            id of the order
+     * @param priority
+     *            the new priority
+     * @return the updated ticket
+     * @throws ResourceNotFoundException
+     *             if the order is not in the queue
+     */
+    KitchenTicketDto reprioritize(Long orderId, int priority);
+
+    /**
+     * Opens a Server-Sent Events stream of queue changes. The current queue is
+     * sent first as a {@code snapshot} event.
+     *
+     * @return the emitter for the stream
+     */
+    SseEmitter subscribe();
+}
@@ -0,0 +1,27 @@
+package FoodSeer.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves old fulfilled orders from the orders table into the archive tables
+ * so the tables used by the kitchen and checkout stay small.
+ */
+public interface OrderArchiveService {
+
+    /**
+     * Archives all orders fulfilled longer ago than the configured age.
+     * Called on a schedule.
+     *
+     * @return number of orders archived
+     */
+    int archiveOldOrders();
+
+    /**
+     * Archives all orders fulfilled before the cutoff, in batches.
+     *
+     * @param cutoff
+     *            orders fulfilled before this time are archived
+     * @return number of orders archived
+     */
+    int archiveOrdersFulfilledBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,27 @@
+package FoodSeer.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes changes to a customer's orders over server-sent events, so the
+ * orders page can update without polling.
+ */
+public interface OrderNotificationService {
+
+    /**
+     * Opens a stream of events for one user's orders. Events are named
+     * CREATED, FULFILLED and RATED and carry the order.
+     *
+     * @param userId
+     *            id of the user
+     * @return the emitter
+     */
+    SseEmitter subscribe(Long userId);
+
+    /**
+     * Returns the number of open streams.
+     *
+     * @return number of subscribers
+     */
+    int subscriberCount();
+}
@@ -3,6 +3,9 @@ package FoodSeer.service;
 import java.util.List;
 
 import FoodSeer.dto.OrderDto;
+import FoodSeer.dto.OrderPageDto;
+import FoodSeer.dto.OrderSummaryDto;
+import FoodSeer.dto.OrderView;
 import FoodSeer.exception.ResourceNotFoundException;
 
 /**
@@ -43,6 +46,8 @@ public interface OrderService {
      * @param orderId
      *            the ID of the order to fulfill
      * @return the updated order as a DTO
+     * @throws IllegalStateException
+     *             if the order is already fulfilled
      */
     OrderDto fulfillOrder(long orderId);
 
@@ -80,4 +85,72 @@ public interface OrderService {
      * @return a list of unfulfilled orders belonging to the current user
      */
     List<OrderDto> getCurrentUserUnfulfilledOrders();
+
+    /**
+     * Retrieves a read-only view of all orders, including archived ones,
+     * without loading order entities.
+     *
+     * @return a list of all orders
+     */
+    List<OrderView> getAllOrderViews();
+
+    /**
+     * Retrieves a read-only view of all orders with the given status.
+     *
+     * @param fulfilled
+     *            true for fulfilled orders, false for pending ones
+     * @return a list of matching orders
+     */
+    List<OrderView> getOrderViews(boolean fulfilled);
+
+    /**
+     * Retrieves a read-only view of the current user's orders.
+     *
+     * @return a list of orders belonging to the current user
+     */
+    List<OrderView> getCurrentUserOrderViews();
+
+    /**
+     * Retrieves a read-only view of the current user's orders with the given
+     * status.
+     *
+     * @param fulfilled
+     *            true for fulfilled orders, false for pending ones
+     * @return a list of matching orders belonging to the current user
+     */
+    List<OrderView> getCurrentUserOrderViews(boolean fulfilled);
+
+    /**
+     * Retrieves the stored total and item count of every order, including
+     * archived ones, without reading order items.
+     *
+     * @return a list of order summaries
+     */
+    List<OrderSummaryDto> getOrderSummaries();
+
+    /**
+     * Retrieves the stored total and item count of the current user's orders.
+     *
+     * @return a list of order summaries belonging to the current user
+     */
+    List<OrderSummaryDto> getCurrentUserOrderSummaries();
+
+    /**
+     * Retrieves one page of the current user's orders, newest first, using
+     * the order id as the cursor.
+     *
+     * @param fulfilled
+     *            true for fulfilled orders, false for pending ones, null for
+     *            all
+     * @param before
+     *            only orders with a smaller id are returned, or null to start
+     *            from the newest
+     * @param since
+     *            only orders with a larger id are returned, or null for no
+     *            lower bound
+     * @param limit
+     *            maximum number of orders on the page
+     * @return the page
+     */
+    OrderPageDto getCurrentUserOrderPage(Boolean fulfilled, Long before, Long since, int limit);
 }
@@ -0,0 +1,43 @@
+package FoodSeer.service;
+
+import FoodSeer.exception.FoodSeerAPIException;
+
+/**
+ * Issues and rotates refresh tokens, which are exchanged for new access tokens
+ * so access tokens can be short-lived.
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Issues a new refresh token.
+     *
+     * @param userId id of the user
+     * @return the token value to hand to the client
+     */
+    String issue(Long userId);
+
+    /**
+     * Exchanges a refresh token. The token cannot be used again; presenting
+     * it a second time revokes every token of its user.
+     *
+     * @param token the token value
+     * @return id of the user the token belongs to
+     * @throws FoodSeerAPIException
+     *             with 401 if the token is unknown, expired or already used
+     */
+    Long consume(String token);
+
+    /**
+     * Revokes a refresh token, such as on logout.
+     *
+     * @param token the token value
+     */
+    void revoke(String token);
+
+    /**
+     * Revokes every refresh token of a user.
+     *
+     * @param userId id of the user
+     */
+    void revokeAll(Long userId);
+}
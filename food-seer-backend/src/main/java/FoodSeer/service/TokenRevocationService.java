@@ -0,0 +1,48 @@
+package FoodSeer.service;
+
+import java.util.Date;
+
+/**
+ * Tracks tokens revoked before they expire, such as on logout.
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revokes a token until it expires.
+     *
+     * @param jti       the token's id
+     * @param expiresAt the token's expiration
+     */
+    void revoke(String jti, Date expiresAt);
+
+    /**
+     * Revokes every token issued to a user, such as while the account is
+     * being deleted.
+     *
+     * @param userId    the user's id
+     * @param expiresAt when the latest token issued so far expires
+     */
+    void revokeUser(long userId, Date expiresAt);
+
+    /**
+     * Checks whether a user's tokens have been revoked. Answered from memory.
+     *
+     * @param userId the user's id
+     * @return true if the user's tokens were revoked and have not expired
+     */
+    boolean isUserRevoked(long userId);
+
+    /**
+     * Checks whether a token has been revoked. Answered from memory.
+     *
+     * @param jti the token's id
+     * @return true if the token was revoked and has not expired
+     */
+    boolean isRevoked(String jti);
+
+    /**
+     * Drops expired revocations and reloads the rest from the database, so
+     * revocations made on other nodes are picked up.
+     */
+    void reload();
+}
@@ -0,0 +1,48 @@
+package FoodSeer.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import FoodSeer.dto.UserDeletionJobDto;
+import FoodSeer.exception.ResourceNotFoundException;
+
+/**
+ * Deletes users and their order history with bulk statements, in batches that
+ * each commit on their own, so no single transaction holds locks on a long
+ * history.
+ */
+public interface UserDeletionService {
+
+    /**
+     * Deletes a user and everything they own, in the calling thread.
+     *
+     * @param userId
+     *            id of the user
+     * @return false if the user did not exist
+     */
+    boolean delete(Long userId);
+
+    /**
+     * Accepts a user for deletion in the background. If the user already has
+     * a pending deletion, that job is returned instead.
+     *
+     * @param userId
+     *            id of the user
+     * @return the accepted job
+     * @throws ResourceNotFoundException
+     *             if the user does not exist
+     * @throws RejectedExecutionException
+     *             if too many deletions are already pending
+     */
+    UserDeletionJobDto submit(Long userId);
+
+    /**
+     * Returns the current state of a job.
+     *
+     * @param jobId
+     *            tracking id returned by submit
+     * @return the job
+     * @throws ResourceNotFoundException
+     *             if the job is unknown or has expired
+     */
+    UserDeletionJobDto getJob(String jobId);
+}
@@ -1,5 +1,6 @@
 package FoodSeer.service;
 
+import FoodSeer.dto.UserPageDto;
 import FoodSeer.entity.User;
 
 public interface UserService {
@@ -16,6 +17,23 @@ public interface UserService {
      */
     public java.util.List<FoodSeer.entity.User> listUsers();
 
+    /**
+     * Returns one page of users: in id order, or when searching, users whose
+     * username starts with the search merged with users matched only by email.
+     *
+     * @param search          prefix of the username or email, or null
+     * @param role            role such as ADMIN or ROLE_ADMIN, or null for any
+     * @param after           without a search, only users with a larger id are returned, or null
+     * @param afterUsername   with a search, only username matches after this username, or null
+     * @param afterEmail      with a search, only email matches after this email, or null
+     * @param limit           maximum number of users, 1 to 100
+     * @param withOrderCounts true to include each user's order count
+     * @return the page
+     * @throws IllegalArgumentException if the limit is out of range
+     */
+    public UserPageDto listUsers(String search, String role, Long after, String afterUsername, String afterEmail,
+            int limit, boolean withOrderCounts);
+
     /**
      * Find user by id.
      */
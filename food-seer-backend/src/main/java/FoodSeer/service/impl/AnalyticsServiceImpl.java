@@ -0,0 +1,410 @@
+package FoodSeer.service.impl;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import FoodSeer.dto.AnalyticsDto;
+import FoodSeer.dto.IdValueRow;
+import FoodSeer.dto.OrderLineView;
+import FoodSeer.dto.OrderView;
+import FoodSeer.entity.AnalyticsCheckpoint;
+import FoodSeer.entity.Food;
+import FoodSeer.event.OrderEvent;
+import FoodSeer.repositories.AnalyticsCheckpointRepository;
+import FoodSeer.repositories.ArchivedOrderRepository;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.service.AnalyticsService;
+import FoodSeer.service.OrderService;
+import FoodSeer.util.LongCounterMap;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Implementation of the AnalyticsService.
+ *
+ * Counters are updated from committed order events and kept in
+ * LongCounterMaps and a ring of hourly buckets, all guarded by this object's
+ * lock; an update touches a few array slots, and a read copies at most one
+ * entry per food plus the requested buckets. The aggregates are written to
+ * the analytics_checkpoints table on a schedule and read back at startup.
+ * Events after the last checkpoint are lost if the process dies; with no
+ * checkpoint at all, totals are rebuilt from the order tables once.
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    /** Logger for checkpoint failures */
+    private static final Logger LOG = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    /** Id of the checkpoint row */
+    private static final String CHECKPOINT_ID = "orders";
+
+    /** Milliseconds in an hour */
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /** Stores checkpoints */
+    @Autowired
+    private AnalyticsCheckpointRepository checkpointRepository;
+
+    /** Source for rebuilding totals when there is no checkpoint */
+    @Autowired
+    private OrderService orderService;
+
+    /** Source for rebuilding per-user counts */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** Source for rebuilding per-user counts of archived orders */
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    /** Serializes checkpoints */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** Number of orders placed */
+    private long ordersCreated;
+
+    /** Number of orders fulfilled */
+    private long ordersFulfilled;
+
+    /** Revenue from fulfilled orders */
+    private long totalRevenue;
+
+    /** Units sold by food id */
+    private final LongCounterMap unitsByFood = new LongCounterMap(256);
+
+    /** Orders placed by user id */
+    private final LongCounterMap ordersByUser = new LongCounterMap(1024);
+
+    /** Hour since the epoch held by each bucket, or -1 if unused */
+    private final long[] bucketHour;
+
+    /** Orders fulfilled in each bucket */
+    private final long[] bucketOrders;
+
+    /** Revenue in each bucket */
+    private final long[] bucketRevenue;
+
+    /** True if anything changed since the last checkpoint */
+    private boolean dirty;
+
+    /**
+     * Creates the service.
+     *
+     * @param bucketHours number of hourly buckets kept
+     */
+    public AnalyticsServiceImpl(@Value("${app.analytics.bucket-hours:168}") final int bucketHours) {
+        this.bucketHour = new long[bucketHours];
+        this.bucketOrders = new long[bucketHours];
+        this.bucketRevenue = new long[bucketHours];
+        Arrays.fill(bucketHour, -1);
+    }
+
+    /**
+     * Updates the counters for an order that was placed or fulfilled.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderEvent(final OrderEvent event) {
+        switch (event.type()) {
+            case CREATED -> {
+                ordersCreated++;
+                if (event.userId() != null) {
+                    ordersByUser.add(event.userId(), 1);
+                }
+            }
+            case FULFILLED -> {
+                final long revenue = event.order().getTotalPrice();
+                ordersFulfilled++;
+                totalRevenue += revenue;
+                for (final Food food : event.order().getFoods()) {
+                    unitsByFood.add(food.getId(), 1);
+                }
+                final int slot = bucket(System.currentTimeMillis() / HOUR_MILLIS);
+                bucketOrders[slot]++;
+                bucketRevenue[slot] += revenue;
+            }
+            default -> {
+                return;
+            }
+        }
+        dirty = true;
+    }
+
+    @Override
+    public synchronized AnalyticsDto getAnalytics(final int hours, final int topCustomers) {
+        final Map<Long, Long> units = new LinkedHashMap<>();
+        unitsByFood.forEach(units::put);
+
+        final long currentHour = System.currentTimeMillis() / HOUR_MILLIS;
+        final int span = Math.max(0, Math.min(hours, bucketHour.length));
+        final List<AnalyticsDto.HourBucket> buckets = new ArrayList<>(span);
+        for (long hour = currentHour - span + 1; hour <= currentHour; hour++) {
+            final int slot = (int) Math.floorMod(hour, (long) bucketHour.length);
+            final boolean used = bucketHour[slot] == hour;
+            buckets.add(new AnalyticsDto.HourBucket(hourStart(hour), used ? bucketOrders[slot] : 0,
+                    used ? bucketRevenue[slot] : 0));
+        }
+
+        return new AnalyticsDto(ordersCreated, ordersFulfilled, totalRevenue, units,
+                topCustomers(Math.max(0, topCustomers)), buckets);
+    }
+
+    /**
+     * Saves the counters if they changed since the last checkpoint.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${app.analytics.checkpoint-interval-ms:60000}",
+            fixedDelayString = "${app.analytics.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        final Snapshot snapshot;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            snapshot = snapshot();
+            dirty = false;
+        }
+        try {
+            checkpointRepository.save(new AnalyticsCheckpoint(CHECKPOINT_ID, objectMapper.writeValueAsString(snapshot)));
+        } catch (final JsonProcessingException | RuntimeException e) {
+            LOG.warn("Could not save analytics checkpoint", e);
+            synchronized (this) {
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Loads the last checkpoint once the application has started.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        final Snapshot snapshot = checkpointRepository.findById(CHECKPOINT_ID).map(checkpoint -> {
+            try {
+                return objectMapper.readValue(checkpoint.getPayload(), Snapshot.class);
+            } catch (final JsonProcessingException e) {
+                LOG.warn("Ignoring unreadable analytics checkpoint", e);
+                return null;
+            }
+        }).orElse(null);
+
+        if (snapshot != null) {
+            apply(snapshot);
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * Saves the counters on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    /**
+     * Rebuilds the totals from the order tables. Hourly buckets start empty,
+     * since only the checkpoint keeps them.
+     */
+    private void rebuild() {
+        final List<OrderView> orders = orderService.getAllOrderViews();
+        final List<IdValueRow> userCounts = new ArrayList<>(orderRepository.countByUser());
+        userCounts.addAll(archivedOrderRepository.countByUser());
+
+        synchronized (this) {
+            clear();
+            ordersCreated = orders.size();
+            for (final OrderView order : orders) {
+                if (order.isFulfilled()) {
+                    ordersFulfilled++;
+                    totalRevenue += order.totalPrice();
+                    for (final OrderLineView line : order.foods()) {
+                        unitsByFood.add(line.id(), 1);
+                    }
+                }
+            }
+            for (final IdValueRow row : userCounts) {
+                ordersByUser.add(row.id(), (Long) row.value());
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Replaces the counters with a checkpoint.
+     *
+     * @param snapshot the checkpoint
+     */
+    private synchronized void apply(final Snapshot snapshot) {
+        clear();
+        ordersCreated = snapshot.ordersCreated();
+        ordersFulfilled = snapshot.ordersFulfilled();
+        totalRevenue = snapshot.totalRevenue();
+        for (int i = 0; i < snapshot.foodIds().length; i++) {
+            unitsByFood.add(snapshot.foodIds()[i], snapshot.units()[i]);
+        }
+        for (int i = 0; i < snapshot.userIds().length; i++) {
+            ordersByUser.add(snapshot.userIds()[i], snapshot.userOrders()[i]);
+        }
+        for (int i = 0; i < snapshot.hours().length; i++) {
+            final int slot = bucket(snapshot.hours()[i]);
+            bucketOrders[slot] = snapshot.hourOrders()[i];
+            bucketRevenue[slot] = snapshot.hourRevenue()[i];
+        }
+        dirty = false;
+    }
+
+    /**
+     * Resets every counter.
+     */
+    private void clear() {
+        ordersCreated = 0;
+        ordersFulfilled = 0;
+        totalRevenue = 0;
+        unitsByFood.clear();
+        ordersByUser.clear();
+        Arrays.fill(bucketHour, -1);
+        Arrays.fill(bucketOrders, 0);
+        Arrays.fill(bucketRevenue, 0);
+    }
+
+    /**
+     * Returns the slot for an hour, clearing it if it held an older hour.
+     *
+     * @param hour hours since the epoch
+     * @return the slot index
+     */
+    private int bucket(final long hour) {
+        final int slot = (int) Math.floorMod(hour, (long) bucketHour.length);
+        if (bucketHour[slot] != hour) {
+            bucketHour[slot] = hour;
+            bucketOrders[slot] = 0;
+            bucketRevenue[slot] = 0;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the users with the most orders, largest first.
+     *
+     * @param limit number of users to return
+     * @return order counts by user id
+     */
+    private Map<Long, Long> topCustomers(final int limit) {
+        final PriorityQueue<long[]> top = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[1]));
+        if (limit > 0) {
+            ordersByUser.forEach((user, count) -> {
+                if (top.size() < limit) {
+                    top.add(new long[] { user, count });
+                } else if (count > top.peek()[1]) {
+                    top.poll();
+                    top.add(new long[] { user, count });
+                }
+            });
+        }
+        final List<long[]> sorted = new ArrayList<>(top);
+        sorted.sort(Comparator.comparingLong((long[] entry) -> entry[1]).reversed());
+        final Map<Long, Long> result = new LinkedHashMap<>();
+        for (final long[] entry : sorted) {
+            result.put(entry[0], entry[1]);
+        }
+        return result;
+    }
+
+    /**
+     * Copies the counters into a checkpoint.
+     *
+     * @return the checkpoint
+     */
+    private Snapshot snapshot() {
+        final long[][] foods = toArrays(unitsByFood);
+        final long[][] users = toArrays(ordersByUser);
+        final int used = (int) Arrays.stream(bucketHour).filter(hour -> hour >= 0).count();
+        final long[] hours = new long[used];
+        final long[] orders = new long[used];
+        final long[] revenue = new long[used];
+        int next = 0;
+        for (int slot = 0; slot < bucketHour.length; slot++) {
+            if (bucketHour[slot] >= 0) {
+                hours[next] = bucketHour[slot];
+                orders[next] = bucketOrders[slot];
+                revenue[next] = bucketRevenue[slot];
+                next++;
+            }
+        }
+        return new Snapshot(ordersCreated, ordersFulfilled, totalRevenue, foods[0], foods[1], users[0], users[1],
+                hours, orders, revenue);
+    }
+
+    /**
+     * Copies a counter map into parallel key and value arrays.
+     *
+     * @param map the map
+     * @return keys in the first array, counters in the second
+     */
+    private static long[][] toArrays(final LongCounterMap map) {
+        final long[] keys = new long[map.size()];
+        final long[] values = new long[map.size()];
+        final int[] next = { 0 };
+        map.forEach((key, value) -> {
+            keys[next[0]] = key;
+            values[next[0]] = value;
+            next[0]++;
+        });
+        return new long[][] { keys, values };
+    }
+
+    /**
+     * Returns the local time at the start of an hour.
+     *
+     * @param hour hours since the epoch
+     * @return the start of the hour
+     */
+    private static LocalDateTime hourStart(final long hour) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(hour * HOUR_MILLIS), ZoneId.systemDefault());
+    }
+
+    /**
+     * Checkpoint contents. Maps and buckets are stored as parallel arrays.
+     *
+     * @param ordersCreated   number of orders placed
+     * @param ordersFulfilled number of orders fulfilled
+     * @param totalRevenue    revenue from fulfilled orders
+     * @param foodIds         food ids
+     * @param units           units sold for each food id
+     * @param userIds         user ids
+     * @param userOrders      orders placed by each user id
+     * @param hours           hours since the epoch of the used buckets
+     * @param hourOrders      orders fulfilled in each hour
+     * @param hourRevenue     revenue in each hour
+     */
+    record Snapshot(long ordersCreated, long ordersFulfilled, long totalRevenue, long[] foodIds, long[] units,
+            long[] userIds, long[] userOrders, long[] hours, long[] hourOrders, long[] hourRevenue) {
+    }
+}
@@ -3,6 +3,7 @@ package FoodSeer.service.impl;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -12,11 +13,17 @@ import org.springframework.stereotype.Service;
 
 import FoodSeer.dto.AuthResponseDto;
 import FoodSeer.dto.LoginRequestDto;
+import FoodSeer.dto.RefreshRequestDto;
 import FoodSeer.dto.RegisterRequestDto;
 import FoodSeer.entity.User;
+import FoodSeer.exception.FoodSeerAPIException;
 import FoodSeer.repositories.UserRepository;
 import FoodSeer.security.JwtTokenProvider;
 import FoodSeer.service.AuthService;
+import FoodSeer.service.RefreshTokenService;
+import FoodSeer.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.AllArgsConstructor;
 
 @Service
@@ -29,6 +36,8 @@ public class AuthServiceImpl implements AuthService {
     private PasswordEncoder       passwordEncoder;
     private AuthenticationManager authManager;
     private JwtTokenProvider      jwtService;
+    private TokenRevocationService tokenRevocationService;
+    private RefreshTokenService   refreshTokenService;
 
     @Override
     public ResponseEntity<Map<String, String>> register ( final RegisterRequestDto req ) {
@@ -68,7 +77,57 @@ public class AuthServiceImpl implements AuthService {
                 req.password() );
         final Authentication authentication = authManager.authenticate( auth );
 
-        final String token = jwtService.generateToken( authentication );
-        return ResponseEntity.ok( new AuthResponseDto( token ) );
+        // One lookup at login puts the id and role in the token, so later
+        // requests are authorized without reading the user again
+        final User user = userRepository.findByUsernameOrEmail( req.username(), req.username() ).orElse( null );
+        if ( user == null ) {
+            return ResponseEntity.ok( new AuthResponseDto( jwtService.generateToken( authentication ) ) );
+        }
+        return ResponseEntity.ok( issueTokens( user ) );
+    }
+
+    @Override
+    public ResponseEntity<AuthResponseDto> refresh ( final RefreshRequestDto req ) {
+        final Long userId = refreshTokenService.consume( req == null ? null : req.refreshToken() );
+        // Read the user again, so a changed role is in the new access token
+        final User user = userRepository.findById( userId )
+                .orElseThrow( () -> new FoodSeerAPIException( HttpStatus.UNAUTHORIZED, "User no longer exists" ) );
+        return ResponseEntity.ok( issueTokens( user ) );
+    }
+
+    /**
+     * Issues a short-lived access token and a new refresh token.
+     *
+     * @param user
+     *            the signed in user
+     * @return both tokens
+     */
+    private AuthResponseDto issueTokens ( final User user ) {
+        return new AuthResponseDto( jwtService.generateToken( user ), refreshTokenService.issue( user.getId() ),
+                jwtService.getAccessTokenTtlMillis() / 1000 );
+    }
+
+    @Override
+    public ResponseEntity<Map<String, String>> logout ( final String authorization, final String refreshToken ) {
+        refreshTokenService.revoke( refreshToken );
+        if ( authorization == null || !authorization.startsWith( "Bearer " ) ) {
+            // An expired access token may be dropped by the client; revoking
+            // the refresh token alone still ends the session
+            return refreshToken == null ? ResponseEntity.badRequest().body( Map.of( "error", "Missing bearer token" ) )
+                    : ResponseEntity.ok( Map.of( "message", "Logged out" ) );
+        }
+        final Claims claims;
+        try {
+            claims = jwtService.parseAndValidate( authorization.substring( 7 ) );
+        }
+        catch ( final JwtException | IllegalArgumentException e ) {
+            return ResponseEntity.status( HttpStatus.UNAUTHORIZED ).body( Map.of( "error", "Invalid token" ) );
+        }
+        if ( claims.getId() == null ) {
+            // Issued before tokens carried an id; it lapses at its expiration
+            return ResponseEntity.badRequest().body( Map.of( "error", "Token cannot be revoked" ) );
+        }
+        tokenRevocationService.revoke( claims.getId(), claims.getExpiration() );
+        return ResponseEntity.ok( Map.of( "message", "Logged out" ) );
     }
 }
@@ -1,111 +1,618 @@
 package FoodSeer.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import FoodSeer.dto.ChatCacheStatsDto;
 import FoodSeer.dto.ChatRequestDto;
 import FoodSeer.dto.ChatResponseDto;
 import FoodSeer.entity.Food;
+import FoodSeer.entity.User;
+import FoodSeer.event.MenuChangedEvent;
 import FoodSeer.repositories.FoodRepository;
+import FoodSeer.security.CurrentUserHolder;
 import FoodSeer.service.ChatService;
+import FoodSeer.util.CircuitBreaker;
+import FoodSeer.util.SizedTtlCache;
+import jakarta.annotation.PreDestroy;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Implementation of the ChatService, backed by an Ollama server.
+ *
+ * All calls share one HttpClient, which keeps connections to Ollama open
+ * between requests. Every call is bounded: connecting, waiting for Ollama to
+ * start answering, and (for blocking calls) the whole answer each have a
+ * timeout. A circuit breaker counts timeouts, connection failures and 5xx
+ * responses; once it opens, calls fail at once instead of holding request
+ * threads on a server that is down.
+ *
+ * The user's dietary restrictions are sent with every prompt. Answers are
+ * cached by the normalised message, those restrictions, whether the menu was
+ * attached and the catalog version, so a repeated question skips generation. Every menu change bumps the catalog
+ * version and empties the cache.
+ */
 @Service
 public class ChatServiceImpl implements ChatService {
 
-    private static final String OLLAMA_URL = "http://localhost:11434/api/chat";
-    private static final String MODEL = "qwen2.5:1.5b";
+    /** Answer returned while the circuit breaker is open */
+    static final String UNAVAILABLE = "Error: AI service is unavailable, please try again shortly";
+
+    /** Ollama chat endpoint */
+    private final URI ollamaUrl;
+
+    /** Model that answers */
+    private final String model;
+
+    /** Longest wait for Ollama to start answering */
+    private final Duration responseTimeout;
+
+    /** Longest a blocking answer may take in total */
+    private final Duration requestTimeout;
+
+    /** Longest a streamed answer may take */
+    private final long streamTimeoutMillis;
 
-    private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
 
+    /** Shared client; keeps connections to Ollama open between requests */
+    private final HttpClient httpClient;
+
+    /** Fails calls fast while Ollama is unhealthy */
+    private final CircuitBreaker circuitBreaker;
+
+    /** Answers by question, or null when caching is off */
+    private final SizedTtlCache<CacheKey, String> responseCache;
+
+    /** Number of menu changes seen; part of every cache key */
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    /** Relays streamed answers, one virtual thread each */
+    private final ExecutorService streamExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
     @Autowired
     private FoodRepository foodRepository; // fetch foods dynamically
 
-    public ChatServiceImpl() {
-        this.restTemplate = new RestTemplate();
+    /** Current user, whose dietary restrictions are sent with the prompt and are part of the cache key */
+    @Autowired
+    private CurrentUserHolder currentUserHolder;
+
+    /**
+     * Creates the service.
+     *
+     * @param ollamaUrl           Ollama chat endpoint
+     * @param model               model that answers
+     * @param connectTimeoutMs    longest wait to connect to Ollama
+     * @param responseTimeoutMs   longest wait for Ollama to start answering
+     * @param requestTimeoutMs    longest a blocking answer may take in total
+     * @param streamTimeoutMs     longest a streamed answer may take
+     * @param failureThreshold    consecutive failures that open the breaker
+     * @param breakerOpenMs       how long the breaker stays open
+     * @param cacheMaxBytes       size budget of the answer cache, or 0 to
+     *                            turn caching off
+     * @param cacheTtlMs          how long a cached answer is used
+     */
+    public ChatServiceImpl(@Value("${app.chat.ollama-url:http://localhost:11434/api/chat}") final String ollamaUrl,
+            @Value("${app.chat.model:qwen2.5:1.5b}") final String model,
+            @Value("${app.chat.connect-timeout-ms:2000}") final long connectTimeoutMs,
+            @Value("${app.chat.response-timeout-ms:30000}") final long responseTimeoutMs,
+            @Value("${app.chat.request-timeout-ms:60000}") final long requestTimeoutMs,
+            @Value("${app.chat.stream-timeout-ms:120000}") final long streamTimeoutMs,
+            @Value("${app.chat.breaker.failure-threshold:5}") final int failureThreshold,
+            @Value("${app.chat.breaker.open-ms:30000}") final long breakerOpenMs,
+            @Value("${app.chat.cache.max-bytes:8388608}") final long cacheMaxBytes,
+            @Value("${app.chat.cache.ttl-ms:3600000}") final long cacheTtlMs) {
+        this.ollamaUrl = URI.create(ollamaUrl);
+        this.model = model;
+        this.responseTimeout = Duration.ofMillis(responseTimeoutMs);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.streamTimeoutMillis = streamTimeoutMs;
         this.objectMapper = new ObjectMapper();
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, breakerOpenMs);
+        this.responseCache = cacheMaxBytes > 0 && cacheTtlMs > 0
+                ? new SizedTtlCache<>(cacheMaxBytes, cacheTtlMs, CacheKey::weigh)
+                : null;
     }
 
     @Override
     public ChatResponseDto sendMessage(final ChatRequestDto chatRequest) {
-        try {
-            ArrayNode messages = objectMapper.createArrayNode();
-
-            // System prompt
-            ObjectNode systemMsg = objectMapper.createObjectNode();
-            systemMsg.put("role", "system");
-            systemMsg.put("content",
-                "You are FoodSeer AI. Respond naturally to greetings and normal conversation. " +
-                "Only provide food recommendations when the user explicitly asks for it. " +
-                "Do not add emojis, marketing text, or default food suggestions. Keep answers concise and factual."
-            );
-            messages.add(systemMsg);
-
-            // User message
-            ObjectNode userMsg = objectMapper.createObjectNode();
-            userMsg.put("role", "user");
-            userMsg.put("content", chatRequest.getMessage());
-            messages.add(userMsg);
-
-            // Determine if user explicitly asked for a recommendation
-            String msgLower = chatRequest.getMessage().toLowerCase();
-            if (msgLower.contains("what should i eat") || 
-                msgLower.contains("recommend food") || 
-                msgLower.contains("suggest food")) {
-
-                // Fetch menu from DB
-                List<Food> foods = foodRepository.findAll();
-                String menuString = foods.stream()
-                        .map(f -> f.getFoodName() + " ($" + f.getPrice() + ")"
-                                + (f.getAllergies() != null && !f.getAllergies().isEmpty()
-                                    ? " Contains: " + String.join(", ", f.getAllergies())
-                                    : " No common allergens"))
-                        .collect(Collectors.joining("; "));
-
-                ObjectNode menuMsg = objectMapper.createObjectNode();
-                menuMsg.put("role", "system");
-                menuMsg.put("content", "Available foods with prices and allergies: " + menuString);
-                messages.add(menuMsg);
-            }
-
-            // Prepare request
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            requestBody.put("model", MODEL);
-            requestBody.set("messages", messages);
-            requestBody.put("stream", false);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+        final String diet = currentDiet();
+        final CacheKey key = cacheKey(chatRequest, diet);
+        final String cached = key == null ? null : responseCache.get(key);
+        if (cached != null) {
+            return new ChatResponseDto(cached);
+        }
 
-            HttpEntity<String> httpEntity =
-                    new HttpEntity<>(objectMapper.writeValueAsString(requestBody), headers);
+        final HttpRequest request;
+        try {
+            request = buildRequest(chatRequest, diet, false);
+        } catch (final JsonProcessingException e) {
+            return new ChatResponseDto("Error: " + e.getMessage());
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            return new ChatResponseDto(UNAVAILABLE);
+        }
 
-            ResponseEntity<String> response =
-                    restTemplate.postForEntity(OLLAMA_URL, httpEntity, String.class);
+        final CompletableFuture<HttpResponse<String>> pending =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        try {
+            final HttpResponse<String> response = pending.get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (response.statusCode() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                circuitBreaker.onFailure();
+                return new ChatResponseDto("Error: AI returned status " + response.statusCode());
+            }
+            circuitBreaker.onSuccess();
+            if (response.statusCode() != HttpStatus.OK.value()) {
+                return new ChatResponseDto("Error: AI returned status " + response.statusCode());
+            }
 
-            if (response.getBody() != null) {
-                JsonNode json = objectMapper.readTree(response.getBody());
+            if (response.body() != null && !response.body().isEmpty()) {
+                JsonNode json = objectMapper.readTree(response.body());
                 String aiResponse = json.get("message").get("content").asText();
+                cache(key, aiResponse);
                 return new ChatResponseDto(aiResponse);
             }
 
             return new ChatResponseDto("No response from AI");
 
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.cancel(true);
+            circuitBreaker.release();
+            return new ChatResponseDto("Error: interrupted");
+        } catch (final TimeoutException e) {
+            pending.cancel(true);
+            circuitBreaker.onFailure();
+            return new ChatResponseDto("Error: AI did not answer within " + requestTimeout.toSeconds() + " seconds");
+        } catch (final ExecutionException e) {
+            circuitBreaker.onFailure();
+            final Throwable cause = e.getCause() == null ? e : e.getCause();
+            return new ChatResponseDto("Error: " + cause.getMessage());
         } catch (Exception e) {
             return new ChatResponseDto("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Returns the state of the circuit breaker in front of Ollama.
+     *
+     * @return the breaker state
+     */
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @Override
+    public SseEmitter streamMessage(final ChatRequestDto chatRequest) {
+        final SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        final String diet = currentDiet();
+        final CacheKey key = cacheKey(chatRequest, diet);
+        final String cached = key == null ? null : responseCache.get(key);
+        if (cached != null) {
+            try {
+                emitter.send(SseEmitter.event().name("token").data(new ChatResponseDto(cached)));
+                emitter.send(SseEmitter.event().name("done").data(new ChatResponseDto(cached)));
+                emitter.complete();
+            } catch (final IOException e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+
+        final OllamaStream stream = new OllamaStream(emitter, key);
+        emitter.onCompletion(stream::cancel);
+        emitter.onTimeout(stream::cancel);
+        emitter.onError(e -> stream.cancel());
+
+        final HttpRequest request;
+        try {
+            request = buildRequest(chatRequest, diet, true);
+        } catch (final JsonProcessingException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        streamExecutor.execute(() -> stream.run(request));
+        return emitter;
+    }
+
+    /**
+     * Builds the Ollama chat request for a user's message, adding the user's
+     * dietary restrictions, and the menu when the user asks for a
+     * recommendation.
+     *
+     * @param chatRequest the user's message
+     * @param diet        the user's dietary restrictions, as from currentDiet()
+     * @param stream      true to have Ollama send the answer as it is generated
+     * @return the request
+     * @throws JsonProcessingException if the body cannot be written
+     */
+    private HttpRequest buildRequest(final ChatRequestDto chatRequest, final String diet, final boolean stream)
+            throws JsonProcessingException {
+        ArrayNode messages = objectMapper.createArrayNode();
+
+        // System prompt
+        ObjectNode systemMsg = objectMapper.createObjectNode();
+        systemMsg.put("role", "system");
+        systemMsg.put("content",
+            "You are FoodSeer AI. Respond naturally to greetings and normal conversation. " +
+            "Only provide food recommendations when the user explicitly asks for it. " +
+            "Do not add emojis, marketing text, or default food suggestions. Keep answers concise and factual."
+        );
+        messages.add(systemMsg);
+
+        // Dietary profile; answers are cached per profile, so it must shape the answer
+        if (!diet.isEmpty()) {
+            ObjectNode dietMsg = objectMapper.createObjectNode();
+            dietMsg.put("role", "system");
+            dietMsg.put("content", "The user's dietary restrictions: " + diet.replace(",", ", ")
+                    + ". Never recommend foods that conflict with them.");
+            messages.add(dietMsg);
+        }
+
+        // User message
+        ObjectNode userMsg = objectMapper.createObjectNode();
+        userMsg.put("role", "user");
+        userMsg.put("content", chatRequest.getMessage());
+        messages.add(userMsg);
+
+        // Determine if user explicitly asked for a recommendation
+        if (asksForRecommendation(chatRequest.getMessage())) {
+
+            // Fetch menu from DB
+            List<Food> foods = foodRepository.findAll();
+            String menuString = foods.stream()
+                    .map(f -> f.getFoodName() + " ($" + f.getPrice() + ")"
+                            + (f.getAllergies() != null && !f.getAllergies().isEmpty()
+                                ? " Contains: " + String.join(", ", f.getAllergies())
+                                : " No common allergens"))
+                    .collect(Collectors.joining("; "));
+
+            ObjectNode menuMsg = objectMapper.createObjectNode();
+            menuMsg.put("role", "system");
+            menuMsg.put("content", "Available foods with prices and allergies: " + menuString);
+            messages.add(menuMsg);
+        }
+
+        // Prepare request
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", model);
+        requestBody.set("messages", messages);
+        requestBody.put("stream", stream);
+        return HttpRequest.newBuilder(ollamaUrl)
+                .timeout(responseTimeout)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(requestBody)))
+                .build();
+    }
+
+    @Override
+    public ChatCacheStatsDto getCacheStats() {
+        if (responseCache == null) {
+            return new ChatCacheStatsDto(0, 0, 0, 0, 0, 0, 0, catalogVersion.get());
+        }
+        final SizedTtlCache.Stats stats = responseCache.getStats();
+        return new ChatCacheStatsDto(stats.entries(), stats.bytes(), stats.maxBytes(), stats.hits(),
+                stats.misses(), stats.hitRate(), stats.evictions(), catalogVersion.get());
+    }
+
+    /**
+     * Empties the answer cache when the menu changes, once the change is
+     * committed. Answers still being generated were keyed with the old
+     * catalog version, so they can never be served.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(final MenuChangedEvent event) {
+        catalogVersion.incrementAndGet();
+        if (responseCache != null) {
+            responseCache.clear();
+        }
+    }
+
+    /**
+     * Normalises a message for the cache key: case, compatibility forms of
+     * characters, punctuation and spacing are ignored, so "What should I
+     * eat?" and "what should i eat" are the same question.
+     *
+     * @param message the user's message
+     * @return the normalised message
+     */
+    public static String normalizeMessage(final String message) {
+        final String folded = Normalizer.normalize(message, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return folded.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    /**
+     * Returns true if the user explicitly asked for a recommendation, in
+     * which case the menu is sent along with the message.
+     *
+     * @param message the user's message
+     * @return true to attach the menu
+     */
+    private static boolean asksForRecommendation(final String message) {
+        final String msgLower = message.toLowerCase();
+        return msgLower.contains("what should i eat") || 
+            msgLower.contains("recommend food") || 
+            msgLower.contains("suggest food");
+    }
+
+    /**
+     * Returns the current user's dietary restrictions, trimmed, lower case and
+     * sorted, so the same profile always gives the same prompt and cache key.
+     *
+     * @return comma separated restrictions, or "" if there are none
+     */
+    private String currentDiet() {
+        final User user = currentUserHolder == null ? null : currentUserHolder.get();
+        return user == null || user.getDietaryRestrictions() == null ? ""
+                : Arrays.stream(user.getDietaryRestrictions().split(","))
+                        .map(r -> r.trim().toLowerCase(Locale.ROOT))
+                        .filter(r -> !r.isEmpty())
+                        .sorted()
+                        .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Builds the cache key for a request.
+     *
+     * @param chatRequest the user's message
+     * @param diet        the user's dietary restrictions, as from currentDiet()
+     * @return the key, or null when caching is off or the message is empty
+     */
+    private CacheKey cacheKey(final ChatRequestDto chatRequest, final String diet) {
+        if (responseCache == null || chatRequest.getMessage() == null) {
+            return null;
+        }
+        final String message = normalizeMessage(chatRequest.getMessage());
+        if (message.isEmpty()) {
+            return null;
+        }
+        return new CacheKey(message, diet, asksForRecommendation(chatRequest.getMessage()), catalogVersion.get());
+    }
+
+    /**
+     * Stores a generated answer.
+     *
+     * @param key    the question, or null to skip caching
+     * @param answer the answer
+     */
+    private void cache(final CacheKey key, final String answer) {
+        if (key != null && !answer.isEmpty()) {
+            responseCache.put(key, answer);
+        }
+    }
+
+    /**
+     * Stops accepting streams when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+
+    /**
+     * One streamed answer. Ollama sends one JSON object per line, each with
+     * the next piece of the answer; every piece is relayed as a "token"
+     * event, followed by a "done" event with the whole answer. Cancelling,
+     * such as when the client disconnects, aborts the upstream request so
+     * the model stops generating.
+     */
+    private final class OllamaStream {
+
+        /** Client connection */
+        private final SseEmitter emitter;
+
+        /** Where to cache the answer, or null */
+        private final CacheKey key;
+
+        /** Pending upstream request, cancelled to abort it */
+        private volatile CompletableFuture<HttpResponse<InputStream>> upstream;
+
+        /** Upstream response body, closed to abort reading */
+        private volatile InputStream body;
+
+        /** Set once the stream is cancelled */
+        private volatile boolean cancelled;
+
+        /**
+         * Creates a stream.
+         *
+         * @param emitter client connection
+         * @param key     where to cache the answer, or null
+         */
+        OllamaStream(final SseEmitter emitter, final CacheKey key) {
+            this.emitter = emitter;
+            this.key = key;
+        }
+
+        /**
+         * Sends the request and relays the answer until it ends, fails or is
+         * cancelled.
+         *
+         * @param request the Ollama request
+         */
+        void run(final HttpRequest request) {
+            if (!circuitBreaker.tryAcquire()) {
+                sendError(UNAVAILABLE);
+                return;
+            }
+            final HttpResponse<InputStream> response;
+            try {
+                upstream = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+                if (cancelled) {
+                    upstream.cancel(true);
+                    circuitBreaker.release();
+                    return;
+                }
+                response = upstream.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                circuitBreaker.release();
+                cancel();
+                return;
+            } catch (final ExecutionException | CancellationException e) {
+                if (cancelled) {
+                    circuitBreaker.release();
+                } else {
+                    circuitBreaker.onFailure();
+                    final Throwable cause = e.getCause() == null ? e : e.getCause();
+                    sendError("Error: " + cause.getMessage());
+                }
+                cancel();
+                return;
+            }
+            if (response.statusCode() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+
+            body = response.body();
+            try {
+                if (cancelled) {
+                    body.close();
+                    return;
+                }
+                if (response.statusCode() != HttpStatus.OK.value()) {
+                    body.close();
+                    sendError("Error: AI returned status " + response.statusCode());
+                    return;
+                }
+
+                final StringBuilder answer = new StringBuilder();
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                    String line;
+                    while (!cancelled && (line = reader.readLine()) != null) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        final JsonNode chunk = objectMapper.readTree(line);
+                        if (chunk.hasNonNull("error")) {
+                            sendError("Error: " + chunk.get("error").asText());
+                            return;
+                        }
+                        final String token = chunk.path("message").path("content").asText("");
+                        if (!token.isEmpty()) {
+                            answer.append(token);
+                            emitter.send(SseEmitter.event().name("token").data(new ChatResponseDto(token)));
+                        }
+                        if (chunk.path("done").asBoolean(false)) {
+                            break;
+                        }
+                    }
+                }
+                if (!cancelled) {
+                    cache(key, answer.toString());
+                    emitter.send(SseEmitter.event().name("done").data(new ChatResponseDto(answer.toString())));
+                    emitter.complete();
+                }
+            } catch (final Exception e) {
+                // Writing to a client that went away also lands here
+                if (!cancelled) {
+                    sendError("Error: " + e.getMessage());
+                }
+                cancel();
+            }
+        }
+
+        /**
+         * Aborts the upstream request. Safe to call more than once and from
+         * any thread.
+         */
+        void cancel() {
+            cancelled = true;
+            final CompletableFuture<HttpResponse<InputStream>> pending = upstream;
+            if (pending != null) {
+                pending.cancel(true);
+            }
+            final InputStream stream = body;
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (final IOException e) {
+                    // The connection is being discarded anyway
+                }
+            }
+        }
+
+        /**
+         * Sends an "error" event and ends the stream.
+         *
+         * @param message the error
+         */
+        private void sendError(final String message) {
+            try {
+                emitter.send(SseEmitter.event().name("error").data(new ChatResponseDto(message)));
+                emitter.complete();
+            } catch (final IOException | IllegalStateException e) {
+                cancel();
+            }
+        }
+    }
+
+    /**
+     * Everything that decides the answer to a question.
+     *
+     * @param message        normalised message
+     * @param diet           user's dietary restrictions, sorted
+     * @param withMenu       true if the menu is sent with the message
+     * @param catalogVersion menu changes seen when the question was asked
+     */
+    private record CacheKey(String message, String diet, boolean withMenu, long catalogVersion) {
+
+        /** Rough bytes used by a map entry, its key and value objects */
+        private static final long OVERHEAD_BYTES = 128;
+
+        /**
+         * Estimates the memory used by a cached answer.
+         *
+         * @param key    the question
+         * @param answer the answer
+         * @return size in bytes
+         */
+        static long weigh(final CacheKey key, final String answer) {
+            return OVERHEAD_BYTES + 2L * (key.message().length() + key.diet().length() + answer.length());
+        }
+    }
 }
@@ -0,0 +1,161 @@
+package FoodSeer.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import FoodSeer.dto.RankedFoodDto;
+import FoodSeer.entity.Food;
+import FoodSeer.event.MenuChangedEvent;
+import FoodSeer.event.OrderEvent;
+import FoodSeer.repositories.FoodRepository;
+import FoodSeer.service.FoodRankingService;
+
+/**
+ * Implementation of the FoodRankingService.
+ *
+ * The score of a food is (priorWeight * priorMean + ratingSum) /
+ * (priorWeight + numberOfRatings). The prior is fixed by configuration rather
+ * than taken from the global mean, so a rating only changes the score of the
+ * food that was rated. Foods are kept in a skip list ordered by score, so
+ * reading the top K walks K entries; writers take this object's lock so an
+ * entry is never in the list twice.
+ */
+@Service
+public class FoodRankingServiceImpl implements FoodRankingService {
+
+    /** Orders entries best first, ties broken by id */
+    private static final Comparator<RankedFoodDto> BEST_FIRST = Comparator
+            .comparingDouble(RankedFoodDto::score).reversed()
+            .thenComparing(RankedFoodDto::id);
+
+    /** Source of ratings */
+    @Autowired
+    private FoodRepository foodRepository;
+
+    /** Rating assumed before a food has any ratings */
+    private final double priorMean;
+
+    /** Number of ratings the prior counts as */
+    private final double priorWeight;
+
+    /** Ranked foods, best first */
+    private final ConcurrentSkipListSet<RankedFoodDto> ranking = new ConcurrentSkipListSet<>(BEST_FIRST);
+
+    /** Current entry of each ranked food */
+    private final ConcurrentHashMap<Long, RankedFoodDto> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the service.
+     *
+     * @param priorMean   rating assumed before a food has any ratings
+     * @param priorWeight number of ratings the prior counts as
+     */
+    public FoodRankingServiceImpl(@Value("${app.foods.ranking.prior-mean:3.0}") final double priorMean,
+            @Value("${app.foods.ranking.prior-weight:10}") final double priorWeight) {
+        this.priorMean = priorMean;
+        this.priorWeight = priorWeight;
+    }
+
+    @Override
+    public List<RankedFoodDto> getTopFoods(final int limit) {
+        final List<RankedFoodDto> top = new ArrayList<>(Math.min(Math.max(limit, 0), entries.size()));
+        final Iterator<RankedFoodDto> it = ranking.iterator();
+        while (top.size() < limit && it.hasNext()) {
+            top.add(it.next());
+        }
+        return top;
+    }
+
+    /**
+     * Moves rated foods once the rating has been committed.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(final OrderEvent event) {
+        if (event.type() == OrderEvent.Type.RATED && event.order().getRatedFoodIds() != null) {
+            refresh(event.order().getRatedFoodIds());
+        }
+    }
+
+    /**
+     * Moves, removes or reloads foods once a menu change has been committed.
+     *
+     * @param event the menu change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(final MenuChangedEvent event) {
+        if (event.foodId() == null) {
+            rebuild();
+            return;
+        }
+        final Optional<Food> food = foodRepository.findById(event.foodId());
+        if (food.isPresent()) {
+            put(food.get());
+        } else {
+            remove(event.foodId());
+        }
+    }
+
+    @Override
+    public void refresh(final Iterable<Long> foodIds) {
+        for (final Food food : foodRepository.findAllById(foodIds)) {
+            put(food);
+        }
+    }
+
+    @Override
+    public synchronized void remove(final Long foodId) {
+        final RankedFoodDto old = entries.remove(foodId);
+        if (old != null) {
+            ranking.remove(old);
+        }
+    }
+
+    /**
+     * Loads every rated food once the application has started.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        final List<Food> rated = foodRepository.findByNumberOfRatingsGreaterThan(0);
+        synchronized (this) {
+            ranking.clear();
+            entries.clear();
+            rated.forEach(this::put);
+        }
+    }
+
+    /**
+     * Adds or moves a food in the ranking.
+     *
+     * @param food the food
+     */
+    private synchronized void put(final Food food) {
+        final int count = food.getNumberOfRatings();
+        if (count == 0) {
+            remove(food.getId());
+            return;
+        }
+        final double score = (priorWeight * priorMean + food.getRatingSum()) / (priorWeight + count);
+        final RankedFoodDto entry = new RankedFoodDto(food.getId(), food.getFoodName(), food.getRating(), count,
+                score);
+        final RankedFoodDto old = entries.put(food.getId(), entry);
+        if (old != null) {
+            ranking.remove(old);
+        }
+        ranking.add(entry);
+    }
+}
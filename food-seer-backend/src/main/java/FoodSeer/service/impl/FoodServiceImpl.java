@@ -1,23 +1,40 @@
 package FoodSeer.service.impl;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import FoodSeer.dto.FoodDto;
 import FoodSeer.dto.InventoryDto;
+import FoodSeer.dto.OrderDto;
 import FoodSeer.entity.Food;
 import FoodSeer.entity.Inventory;
 import FoodSeer.entity.Order;
+import FoodSeer.entity.RatedItem;
+import FoodSeer.event.MenuChangedEvent;
+import FoodSeer.event.OrderEvent;
 import FoodSeer.exception.ResourceNotFoundException;
 import FoodSeer.mapper.FoodMapper;
 import FoodSeer.mapper.InventoryMapper;
+import FoodSeer.mapper.OrderMapper;
 import FoodSeer.repositories.FoodRepository;
 import FoodSeer.repositories.InventoryRepository;
 import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.RatedItemRepository;
 import FoodSeer.service.FoodService;
 import FoodSeer.service.InventoryService;
 import jakarta.transaction.Transactional;
@@ -44,6 +61,24 @@ public class FoodServiceImpl implements FoodService {
     @Autowired
     private OrderRepository orderRepository;
 
+    /** Connection to the rated item repository */
+    @Autowired
+    private RatedItemRepository ratedItemRepository;
+
+    /** Publishes order events to in-process listeners. */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Fills in rating sums for foods rated before they were stored. Runs
+     * before other startup listeners, which may read the sums.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @org.springframework.core.annotation.Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillRatingSums() {
+        foodRepository.backfillRatingSums();
+    }
+
     /**
      * Creates an food with the given information. A created food
      * needs to add to a new/existing inventory
@@ -103,6 +138,7 @@ public class FoodServiceImpl implements FoodService {
             InventoryMapper.mapToInventoryDto( createdInventory );
         }
 
+        eventPublisher.publishEvent( new MenuChangedEvent( savedFood.getId() ) );
         return FoodMapper.mapToFoodDto( savedFood );
 
     }
@@ -176,6 +212,7 @@ public class FoodServiceImpl implements FoodService {
         
         // Now safe to delete the food
         foodRepository.delete( food );
+        eventPublisher.publishEvent( new MenuChangedEvent( foodId ) );
     }
 
     /**
@@ -184,6 +221,7 @@ public class FoodServiceImpl implements FoodService {
     @Override
     public void deleteAllFoods () {
         foodRepository.deleteAll();
+        eventPublisher.publishEvent( new MenuChangedEvent( null ) );
     }
 
     /**
@@ -284,13 +322,18 @@ public class FoodServiceImpl implements FoodService {
         if ( isDuplicateName( name ) ) {
 
             final FoodDto foodDto = getDuplicateName( name );
-            // update with the new entries
-            foodDto.setAmount( amount );
-            foodDto.setPrice(price);
-            foodDto.setAllergies(allergies);
+            // update the managed row, so ratings added meanwhile are kept
+            final Food food = foodRepository.findById( foodDto.getId() )
+                    .orElseThrow( () -> new ResourceNotFoundException( "Food does not exist with name " + name ) );
+            food.setAmount( amount );
+            food.setPrice( price );
+            food.getAllergies().clear();
+            if ( allergies != null ) {
+                food.getAllergies().addAll( allergies );
+            }
 
-            final Food food = FoodMapper.mapToFood( foodDto );
             final Food savedFood = foodRepository.saveAndFlush( food );
+            eventPublisher.publishEvent( new MenuChangedEvent( savedFood.getId() ) );
 
             return FoodMapper.mapToFoodDto( savedFood );
 
@@ -309,10 +352,27 @@ public class FoodServiceImpl implements FoodService {
     @Override
     @Transactional
     public FoodDto rateFoodInOrder(Long orderId, Long foodId, Double rating) {
-        
+        final Map<Long, Double> ratings = new HashMap<>();
+        ratings.put(foodId, rating);
+        return rateOrder(orderId, ratings).get(0);
+    }
+
+    /**
+     * Rates several food items of one order together. Everything is checked
+     * against a single load of the order before anything is written.
+     */
+    @Override
+    @Transactional
+    public List<FoodDto> rateOrder(Long orderId, Map<Long, Double> ratings) {
+
         // 1. Validate Input
-        if (rating == null || rating < 0 || rating > 5) {
-             throw new IllegalArgumentException("Rating must be between 0 and 5");
+        if (ratings == null || ratings.isEmpty()) {
+            throw new IllegalArgumentException("At least one rating is required");
+        }
+        for (Double rating : ratings.values()) {
+            if (rating == null || rating < 0 || rating > 5) {
+                throw new IllegalArgumentException("Rating must be between 0 and 5");
+            }
         }
 
         // 2. Find the Order
@@ -324,40 +384,49 @@ public class FoodServiceImpl implements FoodService {
             throw new IllegalStateException("You cannot rate an item from an order that has not been delivered/fulfilled yet.");
         }
 
-        // 4. VALIDATION: Did they actually buy this food in this order?
-        boolean foodIsInOrder = order.getFoods().stream()
-                .anyMatch(f -> f.getId().equals(foodId));
-        
-        if (!foodIsInOrder) {
-            throw new IllegalArgumentException("Food item " + foodId + " is not part of Order " + orderId);
+        // 4. VALIDATION: Did they actually buy these foods in this order?
+        Set<Long> orderedFoodIds = order.getFoods().stream()
+                .map(Food::getId)
+                .collect(Collectors.toSet());
+        // Sorted, so concurrent requests lock food rows in the same order
+        List<Long> foodIds = new ArrayList<>(new TreeSet<>(ratings.keySet()));
+        for (Long foodId : foodIds) {
+            if (!orderedFoodIds.contains(foodId)) {
+                throw new IllegalArgumentException("Food item " + foodId + " is not part of Order " + orderId);
+            }
         }
 
-        // 5. CHECK: Has this food already been rated in this specific order?
-        if (order.hasFoodBeenRated(foodId)) {
+        // 5. CHECK + RECORD: The unique (order_id, food_id) constraint on
+        // rated_items rejects a food already rated in this order, so the
+        // check and the insert are one statement and the order row is never
+        // rewritten.
+        List<RatedItem> ratedItems = foodIds.stream()
+                .map(foodId -> new RatedItem(orderId, foodId, ratings.get(foodId)))
+                .collect(Collectors.toList());
+        try {
+            ratedItemRepository.saveAllAndFlush(ratedItems);
+        } catch (DataIntegrityViolationException e) {
             throw new IllegalStateException("You have already rated this food item for this order.");
         }
 
-        // 6. Fetch the Food
-        Food food = foodRepository.findById(foodId)
-                .orElseThrow(() -> new ResourceNotFoundException("Food not found with ID: " + foodId));
-
-        // 7. THE MATH: Calculate new rolling average
-        double currentRating = food.getRating();
-        int currentCount = food.getNumberOfRatings();
-
-        double newAverage = ((currentRating * currentCount) + rating) / (currentCount + 1);
+        // 6. Build the event payload with every food rated in this order so far
+        OrderDto savedOrderDto = OrderMapper.mapToOrderDto(order);
+        savedOrderDto.setRatedFoodIds(new HashSet<>(ratedItemRepository.findFoodIdsByOrderId(orderId)));
 
-        // 8. Update Food fields
-        food.setRating(newAverage);
-        food.setNumberOfRatings(currentCount + 1);
-
-        // 9. CRITICAL: Mark this food as rated in the order history!
-        order.addRatedFoodId(foodId);
-        orderRepository.saveAndFlush(order); // Save the "Checklist"
+        // 7. Add the ratings with atomic UPDATEs, last, so the food rows are
+        // locked as briefly as possible. The average is derived on read.
+        for (Long foodId : foodIds) {
+            foodRepository.addRating(foodId, ratings.get(foodId));
+        }
 
-        // 10. Save Food and Convert
-        Food savedFood = foodRepository.saveAndFlush(food);
-        return FoodMapper.mapToFoodDto(savedFood);
+        // 8. Re-read the Foods and Convert
+        List<FoodDto> ratedFoods = foodRepository.findAllById(foodIds).stream()
+                .sorted(Comparator.comparing(Food::getId))
+                .map(FoodMapper::mapToFoodDto)
+                .collect(Collectors.toList());
+        eventPublisher.publishEvent(new OrderEvent(OrderEvent.Type.RATED,
+                order.getUser() == null ? null : order.getUser().getId(), savedOrderDto));
+        return ratedFoods;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package FoodSeer.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FoodSeer.dto.FulfillmentJobDto;
+import FoodSeer.dto.OrderDto;
+import FoodSeer.entity.Food;
+import FoodSeer.exception.ResourceNotFoundException;
+import FoodSeer.service.FulfillmentService;
+import FoodSeer.service.OrderService;
+import FoodSeer.util.BoundedTtlCache;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Implementation of the FulfillmentService.
+ *
+ * Each job runs on its own virtual thread. Jobs that share a food are chained
+ * so they run in the order they were accepted, which keeps stock deductions
+ * for a food in arrival order; jobs on unrelated foods run in parallel. The
+ * number of pending jobs is capped and extra requests are rejected at once
+ * rather than queued without limit.
+ */
+@Service
+public class FulfillmentServiceImpl implements FulfillmentService {
+
+    /** Service that performs the fulfillment */
+    @Autowired
+    private OrderService orderService;
+
+    /** Runs lookups and jobs in a transaction, since they run outside a request */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Runs jobs on virtual threads */
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** Free slots for pending jobs */
+    private final Semaphore slots;
+
+    /** Jobs by tracking id, kept for a while after they finish */
+    private final BoundedTtlCache<String, FulfillmentJobDto> jobs;
+
+    /** Id of the pending job for each order */
+    private final ConcurrentHashMap<Long, String> pendingByOrder = new ConcurrentHashMap<>();
+
+    /** Last job accepted for each food; the next job on that food waits for it */
+    private final ConcurrentHashMap<Long, CompletableFuture<Void>> tailByFood = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the service.
+     *
+     * @param queueCapacity maximum number of pending jobs
+     * @param jobTtlMinutes how long finished jobs can be polled
+     * @param maxJobs       maximum number of jobs remembered
+     */
+    public FulfillmentServiceImpl(@Value("${app.orders.fulfillment.queue-capacity:100}") final int queueCapacity,
+            @Value("${app.orders.fulfillment.job-ttl-minutes:60}") final long jobTtlMinutes,
+            @Value("${app.orders.fulfillment.max-jobs:10000}") final int maxJobs) {
+        this.slots = new Semaphore(queueCapacity);
+        this.jobs = new BoundedTtlCache<>(maxJobs, Duration.ofMinutes(jobTtlMinutes).toMillis());
+    }
+
+    @Override
+    public FulfillmentJobDto submit(final long orderId) {
+        final FulfillmentJobDto pending = pendingJob(orderId);
+        if (pending != null) {
+            return pending;
+        }
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException("Too many fulfillment requests are pending");
+        }
+
+        final OrderDto order;
+        try {
+            order = transactionTemplate.execute(status -> orderService.getOrderById(orderId));
+        } catch (final RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        if (order.getIsFulfilled()) {
+            slots.release();
+            throw new IllegalStateException("Order is already fulfilled");
+        }
+
+        final Set<Long> foodIds = new LinkedHashSet<>();
+        for (final Food food : order.getFoods()) {
+            foodIds.add(food.getId());
+        }
+
+        synchronized (this) {
+            final FulfillmentJobDto raced = pendingJob(orderId);
+            if (raced != null) {
+                slots.release();
+                return raced;
+            }
+
+            final FulfillmentJobDto job = new FulfillmentJobDto(UUID.randomUUID().toString(), orderId,
+                    FulfillmentJobDto.Status.QUEUED, null, null, LocalDateTime.now(), null);
+            jobs.put(job.jobId(), job);
+            pendingByOrder.put(orderId, job.jobId());
+
+            final List<CompletableFuture<Void>> previous = new ArrayList<>();
+            for (final Long foodId : foodIds) {
+                final CompletableFuture<Void> tail = tailByFood.get(foodId);
+                if (tail != null) {
+                    previous.add(tail);
+                }
+            }
+
+            final CompletableFuture<Void> future = CompletableFuture
+                    .allOf(previous.toArray(new CompletableFuture[0]))
+                    .exceptionally(e -> null)
+                    .thenRunAsync(() -> run(job), executor);
+            for (final Long foodId : foodIds) {
+                tailByFood.put(foodId, future);
+            }
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    jobs.put(job.jobId(), job.failed("Fulfillment was not run"));
+                }
+                pendingByOrder.remove(orderId, job.jobId());
+                for (final Long foodId : foodIds) {
+                    tailByFood.remove(foodId, future);
+                }
+                slots.release();
+            });
+            return job;
+        }
+    }
+
+    @Override
+    public FulfillmentJobDto getJob(final String jobId) {
+        final FulfillmentJobDto job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Fulfillment job does not exist with id " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Returns the pending job for an order, if there is one.
+     *
+     * @param orderId the order id
+     * @return the pending job, or null
+     */
+    private FulfillmentJobDto pendingJob(final long orderId) {
+        final String jobId = pendingByOrder.get(orderId);
+        if (jobId == null) {
+            return null;
+        }
+        final FulfillmentJobDto job = jobs.get(jobId);
+        return job == null || job.isDone() ? null : job;
+    }
+
+    /**
+     * Fulfills the job's order and records the outcome. If another request
+     * fulfilled the order while this one waited, the service's conditional
+     * claim fails and the job is marked failed.
+     *
+     * @param job the job to run
+     */
+    private void run(final FulfillmentJobDto job) {
+        jobs.put(job.jobId(), job.running());
+        try {
+            final OrderDto fulfilled = orderService.fulfillOrder(job.orderId());
+            jobs.put(job.jobId(), job.succeeded(fulfilled));
+        } catch (final RuntimeException e) {
+            jobs.put(job.jobId(), job.failed(e.getMessage()));
+        }
+    }
+
+    /**
+     * Stops accepting work when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,265 @@
+package FoodSeer.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import FoodSeer.entity.IdempotencyRecord;
+import FoodSeer.exception.FoodSeerAPIException;
+import FoodSeer.repositories.IdempotencyRecordRepository;
+import FoodSeer.service.IdempotencyService;
+import FoodSeer.util.BoundedTtlCache;
+
+/**
+ * Implementation of the IdempotencyService.
+ *
+ * Completed responses are kept in a bounded in-memory cache in front of the
+ * idempotency_keys table. The table is the source of truth across nodes: the
+ * first request inserts an in-progress row, so a concurrent retry on another
+ * node fails the insert and is told to try again later. The in-progress row
+ * holds a short lease rather than the full time-to-live, so a node that dies
+ * mid-request blocks its key only until the lease runs out; the lease is
+ * extended to the full time-to-live once the response is stored.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    /** Response header set when a stored response is replayed */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /** Longest key accepted from clients */
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /** Logger for keys whose lease could not be released */
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    /** Repository for stored responses */
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    /** Serializes request and response bodies */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** How long a key is remembered */
+    private final Duration ttl;
+
+    /** How long a key is held while its first request runs */
+    private final Duration inProgressLease;
+
+    /** Recently completed responses by hashed key */
+    private final BoundedTtlCache<String, StoredResponse> cache;
+
+    /** Keys whose first request is running on this node */
+    private final ConcurrentHashMap<String, Boolean> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the service.
+     *
+     * @param ttlMinutes       how long a key is remembered
+     * @param maxEntries       maximum number of responses cached in memory
+     * @param inProgressLeaseMs how long a key is held while its first request runs
+     */
+    public IdempotencyServiceImpl(@Value("${app.idempotency.ttl-minutes:1440}") final long ttlMinutes,
+            @Value("${app.idempotency.max-entries:10000}") final int maxEntries,
+            @Value("${app.idempotency.in-progress-lease-ms:60000}") final long inProgressLeaseMs) {
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.inProgressLease = Duration.ofMillis(inProgressLeaseMs);
+        this.cache = new BoundedTtlCache<>(maxEntries, ttl.toMillis());
+    }
+
+    @Override
+    public <T> ResponseEntity<T> execute(final String key, final String scope, final Object request,
+            final Class<T> responseType, final Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new FoodSeerAPIException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        final String id = sha256(currentUsername() + '\n' + scope + '\n' + key);
+        final String requestHash = sha256(toJson(request));
+
+        final StoredResponse cached = cache.get(id);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        if (inFlight.putIfAbsent(id, Boolean.TRUE) != null) {
+            throw inProgress();
+        }
+        try {
+            final LocalDateTime now = LocalDateTime.now();
+            final IdempotencyRecord existing = idempotencyRecordRepository.findById(id).orElse(null);
+            if (existing != null) {
+                if (existing.getExpiresAt().isAfter(now)) {
+                    if (existing.getStatus() == IdempotencyRecord.IN_PROGRESS) {
+                        throw inProgress();
+                    }
+                    final StoredResponse stored = new StoredResponse(existing.getRequestHash(),
+                            existing.getStatus(), existing.getResponseBody());
+                    cache.put(id, stored, Duration.between(now, existing.getExpiresAt()).toMillis());
+                    return replay(stored, requestHash, responseType);
+                }
+                idempotencyRecordRepository.delete(existing);
+            }
+
+            final IdempotencyRecord record = new IdempotencyRecord(id, requestHash, now, now.plus(inProgressLease));
+            try {
+                idempotencyRecordRepository.saveAndFlush(record);
+            } catch (final DataIntegrityViolationException e) {
+                // Another node inserted the same key first
+                throw inProgress();
+            }
+
+            boolean stored = false;
+            try {
+                final ResponseEntity<T> response = action.get();
+                if (response.getStatusCode().is5xxServerError()) {
+                    return response;
+                }
+                final StoredResponse completed = new StoredResponse(requestHash, response.getStatusCode().value(),
+                        toJson(response.getBody()));
+                record.complete(completed.status(), completed.body(), LocalDateTime.now().plus(ttl));
+                idempotencyRecordRepository.save(record);
+                stored = true;
+                cache.put(id, completed);
+                return response;
+            } finally {
+                if (!stored) {
+                    // Nothing was stored, so the client may retry with the same key
+                    releaseLease(record);
+                }
+            }
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    /**
+     * Deletes expired keys from the database.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    /**
+     * Deletes the in-progress row of a request that stored no response. If
+     * that fails too, the row is left to its short lease.
+     *
+     * @param record the in-progress row
+     */
+    private void releaseLease(final IdempotencyRecord record) {
+        try {
+            idempotencyRecordRepository.delete(record);
+        } catch (final DataAccessException e) {
+            LOG.warn("Idempotency key could not be released; it frees up when its lease expires", e);
+        }
+    }
+
+    /**
+     * Rebuilds a stored response.
+     *
+     * @param <T>          response body type
+     * @param stored       the stored response
+     * @param requestHash  hash of the current request body
+     * @param responseType response body type
+     * @return the stored response
+     */
+    private <T> ResponseEntity<T> replay(final StoredResponse stored, final String requestHash,
+            final Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new FoodSeerAPIException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+        try {
+            final T body = stored.body() == null ? null : objectMapper.readValue(stored.body(), responseType);
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException("Stored response could not be read", e);
+        }
+    }
+
+    /**
+     * Error returned while the first request with a key is still running.
+     *
+     * @return the exception to throw
+     */
+    private static FoodSeerAPIException inProgress() {
+        return new FoodSeerAPIException(HttpStatus.CONFLICT,
+                "A request with this " + HEADER + " is still being processed");
+    }
+
+    /**
+     * Returns the username of the caller, so keys are scoped per user.
+     *
+     * @return the username, or "anonymous"
+     */
+    private static String currentUsername() {
+        final Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? "anonymous" : auth.getName();
+    }
+
+    /**
+     * Serializes a value to JSON.
+     *
+     * @param value the value
+     * @return JSON string
+     */
+    private String toJson(final Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException("Value could not be serialized", e);
+        }
+    }
+
+    /**
+     * Returns the hex SHA-256 of a string.
+     *
+     * @param value the string
+     * @return 64 character hex digest
+     */
+    private static String sha256(final String value) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A completed response.
+     *
+     * @param requestHash hash of the request that produced it
+     * @param status      HTTP status
+     * @param body        JSON body
+     */
+    private record StoredResponse(String requestHash, int status, String body) {
+    }
+}
@@ -0,0 +1,380 @@
+package FoodSeer.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import FoodSeer.dto.KitchenTicketDto;
+import FoodSeer.dto.OrderDto;
+import FoodSeer.entity.Order;
+import FoodSeer.event.OrderEvent;
+import FoodSeer.exception.ResourceNotFoundException;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.service.KitchenQueueService;
+import FoodSeer.service.OrderService;
+import FoodSeer.util.SseHub;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+
+/**
+ * Implementation of the KitchenQueueService.
+ *
+ * The map of tickets by order id is the source of truth; every state change
+ * is a compare-and-set on a single key, so operations on different orders
+ * never block each other. Unclaimed tickets are also kept in a skip list
+ * sorted by priority and age, which makes claiming the next order O(log n).
+ * Entries in the skip list that no longer match the map are stale and are
+ * skipped when polled.
+ *
+ * A rebuild fills a new map and skip list off to the side and swaps both in
+ * at once. Changes to the queue hold the shared side of a read-write lock and
+ * a rebuild holds the exclusive side, so no claim or enqueue is lost or
+ * doubled by a rebuild running at the same time. Staff clients are kept in
+ * an SseHub, so a slow client never delays the request that changed the queue.
+ */
+@Service
+public class KitchenQueueServiceImpl implements KitchenQueueService {
+
+    /** Highest priority first, then oldest first, then lowest id. */
+    private static final Comparator<KitchenTicketDto> QUEUE_ORDER = Comparator
+            .comparing(KitchenTicketDto::priority, Comparator.reverseOrder())
+            .thenComparing(KitchenTicketDto::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(KitchenTicketDto::orderId);
+
+    /** The one channel all staff clients subscribe to. */
+    private static final String CHANNEL = "kitchen";
+
+    /** Repository for orders. */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** Order service used to fulfill completed orders. */
+    @Autowired
+    private OrderService orderService;
+
+    /** Current tickets; replaced as a whole by a rebuild. */
+    private volatile QueueState state = new QueueState();
+
+    /** Shared by queue changes, held exclusively by a rebuild. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Connected staff clients. */
+    private final SseHub<String> hub;
+
+    /**
+     * Creates the service.
+     *
+     * @param sseTimeout how long a staff client may stay subscribed before reconnecting
+     */
+    public KitchenQueueServiceImpl(@Value("${app.kitchen.sse-timeout-ms:1800000}") final long sseTimeout) {
+        this.hub = new SseHub<>(sseTimeout);
+    }
+
+    /**
+     * Loads the pending orders once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Keeps the queue in sync with orders placed or fulfilled elsewhere, once
+     * the change has been committed.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(final OrderEvent event) {
+        lock.readLock().lock();
+        try {
+            switch (event.type()) {
+                case CREATED -> {
+                    final KitchenTicketDto ticket = toTicket(event.order());
+                    if (state.enqueue(ticket)) {
+                        broadcast("ENQUEUED", ticket);
+                    }
+                }
+                case FULFILLED -> remove(event.orderId());
+                default -> {
+                    // other events do not change the queue
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the queue from the unfulfilled orders in the database.
+     */
+    @Override
+    @Transactional
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            final QueueState rebuilt = new QueueState();
+            for (final Order order : orderRepository.findByIsFulfilled(false)) {
+                rebuilt.enqueue(new KitchenTicketDto(order.getId(), order.getName(), order.getPriority(),
+                        order.getCreatedAt(), order.getItemCount(), null));
+            }
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        broadcast("SNAPSHOT", getQueue());
+    }
+
+    /**
+     * Returns a snapshot of the queue.
+     *
+     * @return unclaimed tickets in hand-out order, then claimed tickets
+     */
+    @Override
+    public List<KitchenTicketDto> getQueue() {
+        final QueueState current = state;
+        final List<KitchenTicketDto> queue = new ArrayList<>(current.tickets.size());
+        for (final KitchenTicketDto ticket : current.pending) {
+            if (current.tickets.get(ticket.orderId()) == ticket) {
+                queue.add(ticket);
+            }
+        }
+        current.tickets.values().stream()
+                .filter(t -> t.claimedBy() != null)
+                .sorted(QUEUE_ORDER)
+                .forEach(queue::add);
+        return queue;
+    }
+
+    /**
+     * Claims the next unclaimed order.
+     *
+     * @param staff username of the staff member
+     * @return the claimed ticket, or null if the queue is empty
+     */
+    @Override
+    public KitchenTicketDto claimNext(final String staff) {
+        lock.readLock().lock();
+        try {
+            final QueueState current = state;
+            KitchenTicketDto next;
+            while ((next = current.pending.pollFirst()) != null) {
+                final KitchenTicketDto claimed = next.claim(staff);
+                if (current.tickets.replace(next.orderId(), next, claimed)) {
+                    broadcast("CLAIMED", claimed);
+                    return claimed;
+                }
+                // stale entry: the ticket was removed or changed after it was queued
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puts a claimed order back in the queue.
+     *
+     * @param orderId id of the order
+     * @param staff   username of the staff member
+     * @return the released ticket
+     */
+    @Override
+    public KitchenTicketDto release(final Long orderId, final String staff) {
+        lock.readLock().lock();
+        try {
+            final KitchenTicketDto current = getClaimedTicket(orderId, staff);
+            final KitchenTicketDto released = current.release();
+            if (!state.tickets.replace(orderId, current, released)) {
+                throw new IllegalStateException("Order " + orderId + " was changed by someone else. Please retry.");
+            }
+            state.pending.add(released);
+            broadcast("RELEASED", released);
+            return released;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fulfills a claimed order. The ticket is removed when the order service
+     * publishes the fulfillment event.
+     *
+     * @param orderId id of the order
+     * @param staff   username of the staff member
+     * @return the fulfilled order
+     */
+    @Override
+    public OrderDto complete(final Long orderId, final String staff) {
+        getClaimedTicket(orderId, staff);
+        try {
+            return orderService.fulfillOrder(orderId);
+        } catch (final ResourceNotFoundException e) {
+            // The order was deleted while it was queued
+            lock.readLock().lock();
+            try {
+                remove(orderId);
+            } finally {
+                lock.readLock().unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Changes the priority of a queued order and saves it.
+     *
+     * @param orderId  id of the order
+     * @param priority the new priority
+     * @return the updated ticket
+     */
+    @Override
+    public KitchenTicketDto reprioritize(final Long orderId, final int priority) {
+        final Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order does not exist with id " + orderId));
+        order.setPriority(priority);
+        orderRepository.save(order);
+
+        lock.readLock().lock();
+        try {
+            while (true) {
+                final KitchenTicketDto current = state.tickets.get(orderId);
+                if (current == null) {
+                    throw new ResourceNotFoundException("Order " + orderId + " is not in the kitchen queue");
+                }
+                final KitchenTicketDto updated = current.withPriority(priority);
+                if (state.tickets.replace(orderId, current, updated)) {
+                    if (current.claimedBy() == null) {
+                        state.pending.remove(current);
+                        state.pending.add(updated);
+                    }
+                    broadcast("UPDATED", updated);
+                    return updated;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Opens a stream of queue changes.
+     *
+     * @return the emitter
+     */
+    @Override
+    public SseEmitter subscribe() {
+        return hub.subscribe(CHANNEL, "SNAPSHOT", this::getQueue);
+    }
+
+    /**
+     * Pings every staff client so dead connections are cleaned up.
+     */
+    @Scheduled(fixedDelayString = "${app.kitchen.heartbeat-ms:25000}")
+    public void heartbeat() {
+        hub.heartbeat();
+    }
+
+    /**
+     * Closes all streams when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        hub.close();
+    }
+
+    /**
+     * Removes an order from the queue, whether claimed or not. The caller
+     * holds the shared lock.
+     *
+     * @param orderId id of the order
+     */
+    private void remove(final Long orderId) {
+        final KitchenTicketDto removed = state.tickets.remove(orderId);
+        if (removed != null) {
+            state.pending.remove(removed);
+            broadcast("REMOVED", removed);
+        }
+    }
+
+    /**
+     * Returns the ticket for an order, checking it is claimed by the given
+     * staff member.
+     *
+     * @param orderId id of the order
+     * @param staff   username of the staff member
+     * @return the claimed ticket
+     */
+    private KitchenTicketDto getClaimedTicket(final Long orderId, final String staff) {
+        final KitchenTicketDto current = state.tickets.get(orderId);
+        if (current == null) {
+            throw new ResourceNotFoundException("Order " + orderId + " is not in the kitchen queue");
+        }
+        if (!staff.equals(current.claimedBy())) {
+            throw new IllegalStateException("Order " + orderId + " is not claimed by " + staff);
+        }
+        return current;
+    }
+
+    /**
+     * Builds a queue ticket for a newly placed order.
+     *
+     * @param order the order
+     * @return the ticket
+     */
+    private static KitchenTicketDto toTicket(final OrderDto order) {
+        return new KitchenTicketDto(order.getId(), order.getName(), order.getPriority(), order.getCreatedAt(),
+                order.getFoods().size(), null);
+    }
+
+    /**
+     * Sends an event to every connected staff client without waiting for it
+     * to be written.
+     *
+     * @param name event name
+     * @param data event payload
+     */
+    private void broadcast(final String name, final Object data) {
+        hub.send(CHANNEL, name, data);
+    }
+
+    /**
+     * Tickets by order id and the unclaimed ones in hand-out order.
+     */
+    private static final class QueueState {
+
+        /** Every queued ticket, claimed or not, by order id. */
+        private final ConcurrentHashMap<Long, KitchenTicketDto> tickets = new ConcurrentHashMap<>();
+
+        /** Unclaimed tickets in the order they will be handed out. */
+        private final ConcurrentSkipListSet<KitchenTicketDto> pending = new ConcurrentSkipListSet<>(QUEUE_ORDER);
+
+        /**
+         * Adds a ticket if the order is not already queued.
+         *
+         * @param ticket the ticket to add
+         * @return true if the ticket was added
+         */
+        private boolean enqueue(final KitchenTicketDto ticket) {
+            if (tickets.putIfAbsent(ticket.orderId(), ticket) == null) {
+                pending.add(ticket);
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package FoodSeer.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FoodSeer.entity.ArchivedOrder;
+import FoodSeer.entity.Order;
+import FoodSeer.repositories.ArchivedOrderRepository;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.service.OrderArchiveService;
+
+/**
+ * Archives old fulfilled orders in the background. Each batch is copied and
+ * deleted in its own short transaction so the job never holds locks on the
+ * orders table for long, and a failure only rolls back one batch.
+ */
+@Service
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    /** Logger for archive runs. */
+    private static final Logger LOG = LoggerFactory.getLogger(OrderArchiveServiceImpl.class);
+
+    /** Repository for hot orders. */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** Repository for archived orders. */
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    /** Runs each batch in its own transaction. */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Whether the scheduled job runs. */
+    @Value("${app.orders.archive.enabled:true}")
+    private boolean enabled;
+
+    /** Orders fulfilled more than this many days ago are archived. */
+    @Value("${app.orders.archive.after-days:90}")
+    private long afterDays;
+
+    /** Number of orders moved per transaction. */
+    @Value("${app.orders.archive.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Archives all orders fulfilled longer ago than the configured age.
+     *
+     * @return number of orders archived
+     */
+    @Override
+    @Scheduled(initialDelayString = "${app.orders.archive.initial-delay-ms:60000}",
+            fixedDelayString = "${app.orders.archive.interval-ms:3600000}")
+    public int archiveOldOrders() {
+        if (!enabled) {
+            return 0;
+        }
+        final int archived = archiveOrdersFulfilledBefore(LocalDateTime.now().minusDays(afterDays));
+        if (archived > 0) {
+            LOG.info("Archived {} orders fulfilled more than {} days ago", archived, afterDays);
+        }
+        return archived;
+    }
+
+    /**
+     * Archives all orders fulfilled before the cutoff, in batches.
+     *
+     * @param cutoff orders fulfilled before this time are archived
+     * @return number of orders archived
+     */
+    @Override
+    public int archiveOrdersFulfilledBefore(final LocalDateTime cutoff) {
+        int total = 0;
+        while (true) {
+            final Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (moved == null || moved == 0) {
+                return total;
+            }
+            total += moved;
+            if (moved < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Copies one batch of orders into the archive and deletes them from the
+     * orders table.
+     *
+     * @param cutoff orders fulfilled before this time are archived
+     * @return number of orders moved
+     */
+    private int archiveBatch(final LocalDateTime cutoff) {
+        final List<Long> ids = orderRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        final List<Order> orders = orderRepository.findAllById(ids);
+        final LocalDateTime now = LocalDateTime.now();
+        final List<ArchivedOrder> archived = new ArrayList<>(orders.size());
+        for (final Order order : orders) {
+            archived.add(new ArchivedOrder(order, now));
+        }
+        archivedOrderRepository.saveAll(archived);
+
+        // Bulk deletes, children first, instead of one cascade per order
+        orderRepository.deleteFoodLinksByOrderIdIn(ids);
+        orderRepository.deletePriceSnapshotsByOrderIdIn(ids);
+        orderRepository.deleteLegacyRatingsByOrderIdIn(ids);
+        orderRepository.deleteByIdIn(ids);
+        return orders.size();
+    }
+}
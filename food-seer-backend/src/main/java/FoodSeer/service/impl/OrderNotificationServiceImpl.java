@@ -0,0 +1,73 @@
+package FoodSeer.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import FoodSeer.event.OrderEvent;
+import FoodSeer.service.OrderNotificationService;
+import FoodSeer.util.SseHub;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Implementation of the OrderNotificationService.
+ *
+ * Keeps one channel per user in an SseHub and forwards order events to the
+ * owner's channel. Events are forwarded after the transaction that raised
+ * them commits, so clients never see a change that was rolled back.
+ */
+@Service
+public class OrderNotificationServiceImpl implements OrderNotificationService {
+
+    /** Subscribers by user id */
+    private final SseHub<Long> hub;
+
+    /**
+     * Creates the service.
+     *
+     * @param sseTimeout how long a client may stay subscribed before reconnecting
+     */
+    public OrderNotificationServiceImpl(@Value("${app.orders.events.sse-timeout-ms:1800000}") final long sseTimeout) {
+        this.hub = new SseHub<>(sseTimeout);
+    }
+
+    @Override
+    public SseEmitter subscribe(final Long userId) {
+        return hub.subscribe(userId);
+    }
+
+    @Override
+    public int subscriberCount() {
+        return hub.subscriberCount();
+    }
+
+    /**
+     * Forwards an order event to the order owner's subscribers.
+     *
+     * @param event the order event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderEvent(final OrderEvent event) {
+        if (event.userId() != null) {
+            hub.send(event.userId(), event.type().name(), event.order());
+        }
+    }
+
+    /**
+     * Pings every subscriber so dead connections are cleaned up.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        hub.heartbeat();
+    }
+
+    /**
+     * Closes all streams when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        hub.close();
+    }
+}
@@ -1,22 +1,45 @@
 package FoodSeer.service.impl;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import FoodSeer.dto.IdValueRow;
 import FoodSeer.dto.InventoryDto;
 import FoodSeer.dto.OrderDto;
+import FoodSeer.dto.OrderLineRow;
+import FoodSeer.dto.OrderPageDto;
+import FoodSeer.dto.OrderSummaryDto;
+import FoodSeer.dto.OrderView;
+import FoodSeer.entity.ArchivedOrder;
 import FoodSeer.entity.Food;
 import FoodSeer.entity.Order;
+import FoodSeer.event.OrderEvent;
 import FoodSeer.exception.ResourceNotFoundException;
 import FoodSeer.mapper.OrderMapper;
 import FoodSeer.entity.User;
+import FoodSeer.repositories.ArchivedOrderRepository;
 import FoodSeer.repositories.FoodRepository;
 import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.RatedItemRepository;
 import FoodSeer.service.InventoryService;
 import FoodSeer.service.OrderService;
 import FoodSeer.service.UserService;
@@ -27,6 +50,12 @@ import FoodSeer.service.UserService;
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    /** Maximum number of ids bound to one IN query. */
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    /** Largest page a client may request. */
+    private static final int MAX_PAGE_SIZE = 100;
+
     /** Repository for food items. */
     @Autowired
     private FoodRepository foodRepository;
@@ -35,6 +64,10 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    /** Repository for archived orders. */
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
     /** Inventory service for stock management. */
     @Autowired
     private InventoryService inventoryService;
@@ -43,6 +76,32 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private UserService userService;
 
+    /** Connection to the rated item repository */
+    @Autowired
+    private RatedItemRepository ratedItemRepository;
+
+    /** Publishes order events to in-process listeners. */
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Copies rated food ids kept on orders by older versions into the
+     * rated_items table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void copyLegacyRatings() {
+        ratedItemRepository.copyLegacyOrderRatings();
+        ratedItemRepository.copyLegacyArchivedOrderRatings();
+    }
+
+    /**
+     * Fills in totals for orders placed before they were stored.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTotals() {
+        orderRepository.backfillTotals();
+    }
+
     /**
      * Creates an order with the given information.
      *
@@ -50,6 +109,7 @@ public class OrderServiceImpl implements OrderService {
      * @return created order
      */
     @Override
+    @Transactional
     public OrderDto createOrder(final OrderDto orderDto) {
         // Load actual Food entities from database (managed entities)
         final List<Food> foods = new ArrayList<>();
@@ -71,13 +131,17 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("No authenticated user found");
         }
         order.setUser(currentUser);
+        order.capturePrices();
         
         final Order savedOrder = orderRepository.save(order);
-        return OrderMapper.mapToOrderDto(savedOrder);
+        final OrderDto savedOrderDto = OrderMapper.mapToOrderDto(savedOrder);
+        eventPublisher.publishEvent(new OrderEvent(OrderEvent.Type.CREATED, currentUser.getId(), savedOrderDto));
+        return savedOrderDto;
     }
 
     /**
-     * Returns the order with the given id.
+     * Returns the order with the given id, looking in the archive if it is no
+     * longer in the orders table.
      *
      * @param orderId order's id
      * @return the order with the given id
@@ -85,20 +149,43 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public OrderDto getOrderById(final Long orderId) {
-        final Order order = orderRepository.findById(orderId)
+        final OrderDto order = orderRepository.findById(orderId)
+                .map(OrderMapper::mapToOrderDto)
+                .or(() -> archivedOrderRepository.findById(orderId).map(OrderMapper::mapToOrderDto))
                 .orElseThrow(() -> new ResourceNotFoundException("Order does not exist with id " + orderId));
-        return OrderMapper.mapToOrderDto(order);
+        order.setRatedFoodIds(new HashSet<>(ratedItemRepository.findFoodIdsByOrderId(orderId)));
+        return order;
     }
 
     /**
-     * Returns a list of all the orders.
+     * Returns a list of all the orders, archived orders first.
      *
      * @return all the orders
      */
     @Override
     public List<OrderDto> getAllOrders() {
-        final List<Order> orders = orderRepository.findAll();
-        return orders.stream().map(OrderMapper::mapToOrderDto).collect(Collectors.toList());
+        return merge(archivedOrderRepository.findAll(), orderRepository.findAll());
+    }
+
+    /**
+     * Maps archived and hot orders into one list, archived orders first since
+     * they are always older.
+     *
+     * @param archived archived orders
+     * @param hot      orders still in the orders table
+     * @return combined list of DTOs
+     */
+    private List<OrderDto> merge(final List<ArchivedOrder> archived, final List<Order> hot) {
+        final List<OrderDto> orders = Stream.concat(archived.stream().map(OrderMapper::mapToOrderDto),
+                hot.stream().map(OrderMapper::mapToOrderDto))
+                .collect(Collectors.toList());
+
+        final Map<Long, OrderDto> byId = new HashMap<>();
+        orders.forEach(order -> byId.put(order.getId(), order));
+        for (final IdValueRow row : findInChunks(byId.keySet(), ratedItemRepository::findRatedFoodIds)) {
+            byId.get(row.id()).getRatedFoodIds().add((Long) row.value());
+        }
+        return orders;
     }
 
     /**
@@ -108,36 +195,40 @@ public class OrderServiceImpl implements OrderService {
      * @return the updated OrderDto
      */
     @Override
+    @Transactional
     public OrderDto fulfillOrder(final long orderId) {
-        final Order order = orderRepository.findById(orderId)
+        final Order pending = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order does not exist with id " + orderId));
 
         // Count how many of each food is in the order
-        final Map<Long, Long> foodCounts = order.getFoods().stream()
+        final Map<Long, Long> foodCounts = pending.getFoods().stream()
                 .collect(Collectors.groupingBy(Food::getId, Collectors.counting()));
 
-        // Check inventory and deduct quantities
+        // Claim the order first, so it is fulfilled and its stock taken only once
+        if (orderRepository.markFulfilled(orderId, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Order is already fulfilled");
+        }
+
+        // Deduct quantities with conditional UPDATEs; a shortfall rolls back the rest
         for (final Map.Entry<Long, Long> entry : foodCounts.entrySet()) {
             final Long foodId = entry.getKey();
             final Long quantityNeeded = entry.getValue();
-            
-            final Food food = foodRepository.findById(foodId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Food not found with id " + foodId));
-            
-            // Check if enough stock
-            if (food.getAmount() < quantityNeeded) {
-                throw new IllegalArgumentException("Not enough stock to fulfill the order for " + food.getFoodName() 
+
+            if (foodRepository.decrementAmount(foodId, quantityNeeded.intValue()) == 0) {
+                final Food food = foodRepository.findById(foodId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Food not found with id " + foodId));
+                throw new IllegalArgumentException("Not enough stock to fulfill the order for " + food.getFoodName()
                         + ". Need: " + quantityNeeded + ", Available: " + food.getAmount());
             }
-            
-            // Deduct from inventory
-            food.setAmount((int) (food.getAmount() - quantityNeeded));
-            foodRepository.save(food);
         }
 
-        order.setIsFulfilled(true);
-        final Order savedOrder = orderRepository.save(order);
-        return OrderMapper.mapToOrderDto(savedOrder);
+        // The updates cleared the persistence context, so read the order again
+        final Order savedOrder = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order does not exist with id " + orderId));
+        final OrderDto savedOrderDto = OrderMapper.mapToOrderDto(savedOrder);
+        eventPublisher.publishEvent(new OrderEvent(OrderEvent.Type.FULFILLED,
+                savedOrder.getUser() == null ? null : savedOrder.getUser().getId(), savedOrderDto));
+        return savedOrderDto;
     }
 
     /**
@@ -180,9 +271,7 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public List<OrderDto> getAllFulfilledOrders() {
-        return getAllOrders().stream()
-                .filter(OrderDto::getIsFulfilled)
-                .collect(Collectors.toList());
+        return merge(archivedOrderRepository.findAll(), orderRepository.findByIsFulfilled(true));
     }
 
     /**
@@ -192,8 +281,9 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public List<OrderDto> getAllUnfulfilledOrders() {
-        return getAllOrders().stream()
-                .filter(o -> !o.getIsFulfilled())
+        // Archived orders are always fulfilled, so only the hot table is read
+        return orderRepository.findByIsFulfilled(false).stream()
+                .map(OrderMapper::mapToOrderDto)
                 .collect(Collectors.toList());
     }
 
@@ -209,8 +299,8 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("No authenticated user found");
         }
         
-        final List<Order> orders = orderRepository.findByUser(currentUser);
-        return orders.stream().map(OrderMapper::mapToOrderDto).collect(Collectors.toList());
+        return merge(archivedOrderRepository.findByUserId(currentUser.getId()),
+                orderRepository.findByUser(currentUser));
     }
 
     /**
@@ -225,8 +315,8 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalStateException("No authenticated user found");
         }
         
-        final List<Order> orders = orderRepository.findByUserAndIsFulfilled(currentUser, true);
-        return orders.stream().map(OrderMapper::mapToOrderDto).collect(Collectors.toList());
+        return merge(archivedOrderRepository.findByUserId(currentUser.getId()),
+                orderRepository.findByUserAndIsFulfilled(currentUser, true));
     }
 
     /**
@@ -244,4 +334,215 @@ public class OrderServiceImpl implements OrderService {
         final List<Order> orders = orderRepository.findByUserAndIsFulfilled(currentUser, false);
         return orders.stream().map(OrderMapper::mapToOrderDto).collect(Collectors.toList());
     }
+
+    /**
+     * Returns a read-only view of all orders, archived orders first.
+     *
+     * @return list of all orders
+     */
+    @Override
+    public List<OrderView> getAllOrderViews() {
+        return toViews(archivedOrderRepository.findLineRows(), orderRepository.findLineRows());
+    }
+
+    /**
+     * Returns a read-only view of all orders with the given status.
+     *
+     * @param fulfilled true for fulfilled orders, false for pending ones
+     * @return list of matching orders
+     */
+    @Override
+    public List<OrderView> getOrderViews(final boolean fulfilled) {
+        return toViews(fulfilled ? archivedOrderRepository.findLineRows() : List.of(),
+                orderRepository.findLineRowsByIsFulfilled(fulfilled));
+    }
+
+    /**
+     * Returns a read-only view of the current user's orders.
+     *
+     * @return list of current user's orders
+     */
+    @Override
+    public List<OrderView> getCurrentUserOrderViews() {
+        final User currentUser = userService.getCurrentUser();
+        if (currentUser == null) {
+            throw new IllegalStateException("No authenticated user found");
+        }
+
+        return toViews(archivedOrderRepository.findLineRowsByUserId(currentUser.getId()),
+                orderRepository.findLineRowsByUserId(currentUser.getId()));
+    }
+
+    /**
+     * Returns a read-only view of the current user's orders with the given
+     * status.
+     *
+     * @param fulfilled true for fulfilled orders, false for pending ones
+     * @return list of matching orders belonging to the current user
+     */
+    @Override
+    public List<OrderView> getCurrentUserOrderViews(final boolean fulfilled) {
+        final User currentUser = userService.getCurrentUser();
+        if (currentUser == null) {
+            throw new IllegalStateException("No authenticated user found");
+        }
+
+        return toViews(fulfilled ? archivedOrderRepository.findLineRowsByUserId(currentUser.getId()) : List.of(),
+                orderRepository.findLineRowsByUserIdAndIsFulfilled(currentUser.getId(), fulfilled));
+    }
+
+    /**
+     * Returns one page of the current user's orders, newest first. Each tier
+     * is asked for one more id than the page holds, so the page can be cut
+     * from the merged ids and the caller learns whether more remain.
+     *
+     * @param fulfilled true for fulfilled orders, false for pending ones, null for all
+     * @param before    only orders with a smaller id are returned, or null
+     * @param since     only orders with a larger id are returned, or null
+     * @param limit     maximum number of orders on the page
+     * @return the page
+     */
+    @Override
+    public OrderPageDto getCurrentUserOrderPage(final Boolean fulfilled, final Long before, final Long since,
+            final int limit) {
+        final User currentUser = userService.getCurrentUser();
+        if (currentUser == null) {
+            throw new IllegalStateException("No authenticated user found");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        final long upper = before == null ? Long.MAX_VALUE : before;
+        final long lower = since == null ? 0L : since;
+        final PageRequest probe = PageRequest.of(0, limit + 1);
+
+        final List<Long> hotIds = fulfilled == null
+                ? orderRepository.findPageIds(currentUser.getId(), upper, lower, probe)
+                : orderRepository.findPageIds(currentUser.getId(), fulfilled, upper, lower, probe);
+        // Archived orders are always fulfilled
+        final List<Long> archivedIds = Boolean.FALSE.equals(fulfilled)
+                ? List.of()
+                : archivedOrderRepository.findPageIds(currentUser.getId(), upper, lower, probe);
+
+        final List<Long> ids = new ArrayList<>(hotIds);
+        ids.addAll(archivedIds);
+        ids.sort(Comparator.reverseOrder());
+        final boolean hasMore = ids.size() > limit;
+        final List<Long> pageIds = hasMore ? ids.subList(0, limit) : ids;
+
+        final Set<Long> hotPageIds = new HashSet<>(hotIds);
+        final List<Long> archivedPageIds = new ArrayList<>();
+        final List<Long> hotPage = new ArrayList<>();
+        for (final Long id : pageIds) {
+            (hotPageIds.contains(id) ? hotPage : archivedPageIds).add(id);
+        }
+
+        final List<OrderView> views = toViews(
+                archivedPageIds.isEmpty() ? List.of() : archivedOrderRepository.findLineRowsByIdIn(archivedPageIds),
+                hotPage.isEmpty() ? List.of() : orderRepository.findLineRowsByIdIn(hotPage));
+        views.sort(Comparator.comparing(OrderView::id).reversed());
+        return new OrderPageDto(views, hasMore ? pageIds.get(pageIds.size() - 1) : null);
+    }
+
+    /**
+     * Builds views from archived and hot order rows. Rated food ids and
+     * allergies are fetched with one batched query each instead of loading
+     * every order and food.
+     *
+     * @param archivedRows rows for archived orders
+     * @param hotRows      rows for orders still in the orders table
+     * @return views, archived orders first
+     */
+    private List<OrderView> toViews(final List<OrderLineRow> archivedRows, final List<OrderLineRow> hotRows) {
+        final Set<Long> foodIds = new HashSet<>();
+        final Map<Long, Set<Long>> ratedFoodIds = new HashMap<>();
+        collectRatedFoodIds(archivedRows, ratedItemRepository::findRatedFoodIds, foodIds, ratedFoodIds);
+        collectRatedFoodIds(hotRows, ratedItemRepository::findRatedFoodIds, foodIds, ratedFoodIds);
+
+        final Map<Long, List<String>> allergies = new HashMap<>();
+        for (final IdValueRow row : findInChunks(foodIds, foodRepository::findAllergies)) {
+            allergies.computeIfAbsent(row.id(), id -> new ArrayList<>()).add((String) row.value());
+        }
+
+        final List<OrderView> views = new ArrayList<>(OrderMapper.mapToOrderViews(archivedRows, ratedFoodIds, allergies));
+        views.addAll(OrderMapper.mapToOrderViews(hotRows, ratedFoodIds, allergies));
+        return views;
+    }
+
+    /**
+     * Collects the food ids of the rows and looks up the rated food ids of
+     * their orders.
+     *
+     * @param rows         order rows
+     * @param query        query returning rated food ids for a chunk of order ids
+     * @param foodIds      receives the food ids seen in the rows
+     * @param ratedFoodIds receives the rated food ids by order id
+     */
+    private static void collectRatedFoodIds(final List<OrderLineRow> rows,
+            final Function<Collection<Long>, List<IdValueRow>> query, final Set<Long> foodIds,
+            final Map<Long, Set<Long>> ratedFoodIds) {
+        final Set<Long> orderIds = new LinkedHashSet<>();
+        for (final OrderLineRow row : rows) {
+            orderIds.add(row.orderId());
+            if (row.foodId() != null) {
+                foodIds.add(row.foodId());
+            }
+        }
+        for (final IdValueRow row : findInChunks(orderIds, query)) {
+            ratedFoodIds.computeIfAbsent(row.id(), id -> new HashSet<>()).add((Long) row.value());
+        }
+    }
+
+    /**
+     * Runs an IN query over the ids in chunks so large histories do not
+     * exceed the database's bind parameter limit.
+     *
+     * @param ids   ids to look up
+     * @param query query for one chunk of ids
+     * @return combined results
+     */
+    private static List<IdValueRow> findInChunks(final Collection<Long> ids,
+            final Function<Collection<Long>, List<IdValueRow>> query) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        final List<Long> all = new ArrayList<>(ids);
+        final List<IdValueRow> results = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += IN_CHUNK_SIZE) {
+            results.addAll(query.apply(all.subList(i, Math.min(all.size(), i + IN_CHUNK_SIZE))));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the stored total and item count of every order, archived
+     * orders first.
+     *
+     * @return list of order summaries
+     */
+    @Override
+    public List<OrderSummaryDto> getOrderSummaries() {
+        final List<OrderSummaryDto> summaries = new ArrayList<>(archivedOrderRepository.findSummaries());
+        summaries.addAll(orderRepository.findSummaries());
+        return summaries;
+    }
+
+    /**
+     * Returns the stored total and item count of the current user's orders.
+     *
+     * @return list of order summaries belonging to the current user
+     */
+    @Override
+    public List<OrderSummaryDto> getCurrentUserOrderSummaries() {
+        final User currentUser = userService.getCurrentUser();
+        if (currentUser == null) {
+            throw new IllegalStateException("No authenticated user found");
+        }
+
+        final List<OrderSummaryDto> summaries = new ArrayList<>(
+                archivedOrderRepository.findSummariesByUserId(currentUser.getId()));
+        summaries.addAll(orderRepository.findSummariesByUserId(currentUser.getId()));
+        return summaries;
+    }
 }
@@ -0,0 +1,130 @@
+package FoodSeer.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import FoodSeer.entity.RefreshToken;
+import FoodSeer.exception.FoodSeerAPIException;
+import FoodSeer.repositories.RefreshTokenRepository;
+import FoodSeer.service.RefreshTokenService;
+
+/**
+ * Implementation of the RefreshTokenService.
+ *
+ * Tokens are 256 random bits handed to the client once; only their SHA-256 is
+ * stored. Exchanging a token marks it used with a conditional update, so two
+ * requests racing with the same token cannot both succeed.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    /** Random bytes in a token */
+    private static final int TOKEN_BYTES = 32;
+
+    /** Repository for hashed refresh tokens */
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    /** Source of token values */
+    private final SecureRandom random = new SecureRandom();
+
+    /** How long a refresh token is accepted */
+    private final Duration ttl;
+
+    /**
+     * Creates the service.
+     *
+     * @param ttlMillis how long a refresh token is accepted
+     */
+    public RefreshTokenServiceImpl(
+            @Value("${app.jwt.refresh-expiration-ms:${app.jwt-expiration-milliseconds:604800000}}") final long ttlMillis) {
+        this.ttl = Duration.ofMillis(ttlMillis);
+    }
+
+    @Override
+    public String issue(final Long userId) {
+        final byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        final String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        final LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(new RefreshToken(sha256(token), userId, now, now.plus(ttl)));
+        return token;
+    }
+
+    @Override
+    public Long consume(final String token) {
+        if (token == null || token.isBlank()) {
+            throw invalid();
+        }
+        final RefreshToken stored = refreshTokenRepository.findByTokenHash(sha256(token)).orElseThrow(
+                RefreshTokenServiceImpl::invalid);
+        final LocalDateTime now = LocalDateTime.now();
+        if (stored.getExpiresAt().isBefore(now)) {
+            refreshTokenRepository.delete(stored);
+            throw invalid();
+        }
+        if (stored.getUsedAt() != null || refreshTokenRepository.markUsed(stored.getId(), now) == 0) {
+            // The token was copied; sign the user out everywhere
+            refreshTokenRepository.deleteByUserId(stored.getUserId());
+            throw invalid();
+        }
+        return stored.getUserId();
+    }
+
+    @Override
+    public void revoke(final String token) {
+        if (token != null && !token.isBlank()) {
+            refreshTokenRepository.deleteByTokenHash(sha256(token));
+        }
+    }
+
+    @Override
+    public void revokeAll(final Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Deletes expired tokens from the database.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    /**
+     * Error returned for a token that cannot be exchanged.
+     *
+     * @return the exception to throw
+     */
+    private static FoodSeerAPIException invalid() {
+        return new FoodSeerAPIException(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token");
+    }
+
+    /**
+     * Returns the hex SHA-256 of a token.
+     *
+     * @param value the token
+     * @return 64 character hex digest
+     */
+    private static String sha256(final String value) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package FoodSeer.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import FoodSeer.entity.RevokedToken;
+import FoodSeer.repositories.RevokedTokenRepository;
+import FoodSeer.service.TokenRevocationService;
+import FoodSeer.util.BloomFilter;
+
+/**
+ * Implementation of the TokenRevocationService.
+ *
+ * Revoked ids are stored in the revoked_tokens table and mirrored in memory
+ * as a Bloom filter in front of an exact map of id to expiration. Almost every
+ * request carries a token that was never revoked, which the Bloom filter
+ * answers without allocating or touching the exact map. Expired revocations
+ * are dropped when the filter is rebuilt on the refresh interval, which is
+ * also when revocations made on other nodes are picked up.
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    /** Prefix of the ids that revoke all of a user's tokens; token ids are UUIDs */
+    private static final String USER_PREFIX = "user:";
+
+    /** Target false positive rate of the Bloom filter */
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /** Repository for revoked token ids */
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    /** Number of revocations the filter is sized for */
+    private final int expectedEntries;
+
+    /** Current filter and exact set, replaced as a whole on reload */
+    private volatile Revocations revocations;
+
+    /**
+     * Creates the service.
+     *
+     * @param expectedEntries number of live revocations the filter is sized for
+     */
+    public TokenRevocationServiceImpl(
+            @Value("${app.jwt.revocation.expected-entries:100000}") final int expectedEntries) {
+        this.expectedEntries = expectedEntries;
+        this.revocations = new Revocations(new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE),
+                new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public synchronized void revoke(final String jti, final Date expiresAt) {
+        final long expiresAtMillis = expiresAt.getTime();
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            // Already rejected as expired
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(jti,
+                LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault())));
+        final Revocations current = revocations;
+        current.exact().put(jti, expiresAtMillis);
+        current.bloom().add(jti);
+    }
+
+    @Override
+    public void revokeUser(final long userId, final Date expiresAt) {
+        revoke(USER_PREFIX + userId, expiresAt);
+    }
+
+    @Override
+    public boolean isUserRevoked(final long userId) {
+        return isRevoked(USER_PREFIX + userId);
+    }
+
+    @Override
+    public boolean isRevoked(final String jti) {
+        final Revocations current = revocations;
+        if (!current.bloom().mightContain(jti)) {
+            return false;
+        }
+        final Long expiresAt = current.exact().get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.jwt.revocation.refresh-ms:60000}",
+            fixedDelayString = "${app.jwt.revocation.refresh-ms:60000}")
+    public synchronized void reload() {
+        final LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        final List<RevokedToken> live = revokedTokenRepository.findByExpiresAtAfter(now);
+
+        final BloomFilter bloom = new BloomFilter(Math.max(expectedEntries, live.size() * 2), FALSE_POSITIVE_RATE);
+        final ConcurrentHashMap<String, Long> exact = new ConcurrentHashMap<>(live.size() * 2);
+        for (final RevokedToken token : live) {
+            bloom.add(token.getJti());
+            exact.put(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        revocations = new Revocations(bloom, exact);
+    }
+
+    /**
+     * Revoked ids in memory.
+     *
+     * @param bloom filter that rules out ids never revoked
+     * @param exact expiration in epoch milliseconds by revoked id
+     */
+    private record Revocations(BloomFilter bloom, ConcurrentHashMap<String, Long> exact) {
+    }
+}
@@ -0,0 +1,276 @@
+package FoodSeer.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongConsumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FoodSeer.dto.UserDeletionJobDto;
+import FoodSeer.entity.User;
+import FoodSeer.exception.ResourceNotFoundException;
+import FoodSeer.repositories.ArchivedOrderRepository;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.RatedItemRepository;
+import FoodSeer.repositories.UserRepository;
+import FoodSeer.security.CurrentUserHolder;
+import FoodSeer.security.JwtTokenProvider;
+import FoodSeer.security.PrincipalCache;
+import FoodSeer.service.RefreshTokenService;
+import FoodSeer.service.TokenRevocationService;
+import FoodSeer.service.UserDeletionService;
+import FoodSeer.util.BoundedTtlCache;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Implementation of the UserDeletionService.
+ *
+ * Orders are deleted a batch of ids at a time. Each batch runs in its own
+ * transaction and deletes children before parents: ratings, collection rows
+ * (food links, price snapshots, legacy ratings, archived lines), then the
+ * orders themselves, each as one DELETE ... WHERE id IN statement. The user
+ * row goes last, once nothing refers to it. A deletion that fails part way
+ * leaves a consistent, smaller history and can simply be run again.
+ */
+@Service
+public class UserDeletionServiceImpl implements UserDeletionService {
+
+    /** Repository for users */
+    @Autowired
+    private UserRepository userRepository;
+
+    /** Repository for orders */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** Repository for archived orders */
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    /** Repository for ratings */
+    @Autowired
+    private RatedItemRepository ratedItemRepository;
+
+    /** Revoked so the user cannot sign in while being deleted */
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    /** Blocks the user's access tokens while being deleted */
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    /** Lifetime of access tokens, which bounds how long the block must last */
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    /** Cache of principals, evicted once the user is gone */
+    @Autowired
+    private PrincipalCache principalCache;
+
+    /** Cache of users, evicted once the user is gone */
+    @Autowired
+    private CurrentUserHolder currentUserHolder;
+
+    /** Runs each batch in its own transaction */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /** Runs jobs on virtual threads */
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** Orders deleted per transaction */
+    private final int batchSize;
+
+    /** Free slots for pending jobs */
+    private final Semaphore slots;
+
+    /** Jobs by tracking id, kept for a while after they finish */
+    private final BoundedTtlCache<String, UserDeletionJobDto> jobs;
+
+    /** Id of the pending job for each user */
+    private final ConcurrentHashMap<Long, String> pendingByUser = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the service.
+     *
+     * @param batchSize     orders deleted per transaction
+     * @param queueCapacity maximum number of pending jobs
+     * @param jobTtlMinutes how long finished jobs can be polled
+     */
+    public UserDeletionServiceImpl(@Value("${app.users.deletion.batch-size:500}") final int batchSize,
+            @Value("${app.users.deletion.queue-capacity:10}") final int queueCapacity,
+            @Value("${app.users.deletion.job-ttl-minutes:60}") final long jobTtlMinutes) {
+        this.batchSize = batchSize;
+        this.slots = new Semaphore(queueCapacity);
+        this.jobs = new BoundedTtlCache<>(1000, Duration.ofMinutes(jobTtlMinutes).toMillis());
+    }
+
+    @Override
+    public boolean delete(final Long userId) {
+        return run(userId, deleted -> {
+            // No one is polling a synchronous deletion
+        });
+    }
+
+    @Override
+    public UserDeletionJobDto submit(final Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User does not exist with id " + userId);
+        }
+
+        synchronized (this) {
+            final String pendingId = pendingByUser.get(userId);
+            final UserDeletionJobDto pending = pendingId == null ? null : jobs.get(pendingId);
+            if (pending != null && !pending.isDone()) {
+                return pending;
+            }
+            if (!slots.tryAcquire()) {
+                throw new RejectedExecutionException("Too many user deletions are pending");
+            }
+
+            final UserDeletionJobDto job = new UserDeletionJobDto(UUID.randomUUID().toString(), userId,
+                    UserDeletionJobDto.Status.QUEUED, 0, 0, null, LocalDateTime.now(), null);
+            jobs.put(job.jobId(), job);
+            pendingByUser.put(userId, job.jobId());
+            try {
+                executor.execute(() -> {
+                    try {
+                        runJob(job);
+                    } finally {
+                        pendingByUser.remove(userId, job.jobId());
+                        slots.release();
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                pendingByUser.remove(userId, job.jobId());
+                slots.release();
+                throw e;
+            }
+            return job;
+        }
+    }
+
+    @Override
+    public UserDeletionJobDto getJob(final String jobId) {
+        final UserDeletionJobDto job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("User deletion job does not exist with id " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Runs a job and records its progress and outcome.
+     *
+     * @param job the job to run
+     */
+    private void runJob(final UserDeletionJobDto job) {
+        final long total = orderRepository.countByUserId(job.userId())
+                + archivedOrderRepository.countByUserId(job.userId());
+        final UserDeletionJobDto running = job.running(total);
+        jobs.put(job.jobId(), running);
+        try {
+            run(job.userId(), deleted -> jobs.put(job.jobId(), running.progress(deleted)));
+            jobs.put(job.jobId(), jobs.get(job.jobId()).succeeded());
+        } catch (final RuntimeException e) {
+            final UserDeletionJobDto current = jobs.get(job.jobId());
+            jobs.put(job.jobId(), (current == null ? running : current).failed(e.getMessage()));
+        }
+    }
+
+    /**
+     * Deletes a user's orders batch by batch, then the user.
+     *
+     * @param userId   id of the user
+     * @param progress told the number of orders deleted after each batch
+     * @return false if the user did not exist
+     */
+    private boolean run(final Long userId, final LongConsumer progress) {
+        final User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return false;
+        }
+        // Block access tokens and end sessions first, so no new orders are placed while deleting
+        tokenRevocationService.revokeUser(userId,
+                new Date(System.currentTimeMillis() + jwtTokenProvider.getAccessTokenTtlMillis()));
+        refreshTokenService.revokeAll(userId);
+
+        final PageRequest batch = PageRequest.of(0, batchSize);
+        long deleted = 0;
+        int count;
+        while ((count = transactionTemplate.execute(status -> deleteOrders(
+                orderRepository.findIdsByUserId(userId, batch)))) > 0) {
+            deleted += count;
+            progress.accept(deleted);
+        }
+        while ((count = transactionTemplate.execute(status -> deleteArchivedOrders(
+                archivedOrderRepository.findIdsByUserId(userId, batch)))) > 0) {
+            deleted += count;
+            progress.accept(deleted);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // An order placed with a token verified before the block would be orphaned
+            if (orderRepository.countByUserId(userId) + archivedOrderRepository.countByUserId(userId) > 0) {
+                throw new IllegalStateException("User placed orders while being deleted; run the deletion again");
+            }
+            userRepository.deleteById(userId);
+        });
+        principalCache.evict(user.getUsername());
+        currentUserHolder.evict(userId);
+        return true;
+    }
+
+    /**
+     * Deletes orders and the rows that refer to them.
+     *
+     * @param ids order ids
+     * @return number of orders deleted
+     */
+    private int deleteOrders(final List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        ratedItemRepository.deleteByOrderIdIn(ids);
+        orderRepository.deleteFoodLinksByOrderIdIn(ids);
+        orderRepository.deletePriceSnapshotsByOrderIdIn(ids);
+        orderRepository.deleteLegacyRatingsByOrderIdIn(ids);
+        return orderRepository.deleteByIdIn(ids);
+    }
+
+    /**
+     * Deletes archived orders and the rows that refer to them.
+     *
+     * @param ids archived order ids
+     * @return number of archived orders deleted
+     */
+    private int deleteArchivedOrders(final List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        ratedItemRepository.deleteByOrderIdIn(ids);
+        archivedOrderRepository.deleteLinesByOrderIdIn(ids);
+        archivedOrderRepository.deleteLegacyRatingsByOrderIdIn(ids);
+        return archivedOrderRepository.deleteByIdIn(ids);
+    }
+
+    /**
+     * Stops accepting work when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,36 +1,53 @@
 package FoodSeer.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import FoodSeer.entity.Order;
+import FoodSeer.dto.UserPageDto;
+import FoodSeer.dto.UserSummaryDto;
 import FoodSeer.entity.User;
+import FoodSeer.repositories.ArchivedOrderRepository;
 import FoodSeer.repositories.OrderRepository;
 import FoodSeer.repositories.UserRepository;
+import FoodSeer.security.CurrentUserHolder;
+import FoodSeer.security.PrincipalCache;
+import FoodSeer.service.UserDeletionService;
 import FoodSeer.service.UserService;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UserServiceImpl implements UserService {
+
+    /** Largest page a client may request. */
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private CurrentUserHolder currentUserHolder;
+
+    @Autowired
+    private UserDeletionService userDeletionService;
+
     @Override
     public User getCurrentUser () {
-        final Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if ( auth == null || !auth.isAuthenticated() ) {
-            return null;
-        }
-
-        final String username = auth.getName();
-        final Optional<User> u = userRepository.findByUsername( username );
-        return u.orElse( null );
+        // Resolved once per request, by the token's user id when it has one
+        return currentUserHolder.get();
     }
 
     @Override
@@ -38,6 +55,92 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Override
+    public UserPageDto listUsers(final String search, final String role, final Long after,
+            final String afterUsername, final String afterEmail, final int limit, final boolean withOrderCounts) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        final String roleFilter = role == null || role.isBlank() ? null
+                : role.toUpperCase().startsWith("ROLE_") ? role.toUpperCase() : "ROLE_" + role.toUpperCase();
+
+        final List<User> page;
+        Long nextAfter = null;
+        String nextAfterUsername = null;
+        String nextAfterEmail = null;
+        if (search == null || search.isBlank()) {
+            // One extra row tells whether there is a next page
+            final List<User> users = userRepository.findPage(after == null ? 0L : after, roleFilter,
+                    PageRequest.of(0, limit + 1));
+            page = users.size() > limit ? users.subList(0, limit) : users;
+            if (users.size() > limit) {
+                nextAfter = page.get(page.size() - 1).getId();
+            }
+        } else {
+            // Two index range scans, each keyed on the column it matched, merged in key order
+            final String prefix = likePrefix(search.trim());
+            final String lastUsername = afterUsername == null ? "" : afterUsername;
+            final String lastEmail = afterEmail == null ? "" : afterEmail;
+            final List<User> byUsername = userRepository.findPageByUsernamePrefix(prefix, lastUsername,
+                    roleFilter, PageRequest.of(0, limit + 1));
+            final List<User> byEmail = userRepository.findPageByEmailPrefix(prefix, lastEmail, roleFilter,
+                    PageRequest.of(0, limit + 1));
+
+            final List<User> merged = new ArrayList<>(limit);
+            int u = 0;
+            int e = 0;
+            while (merged.size() < limit && (u < byUsername.size() || e < byEmail.size())) {
+                if (e >= byEmail.size() || u < byUsername.size()
+                        && byUsername.get(u).getUsername().compareTo(byEmail.get(e).getEmail()) <= 0) {
+                    merged.add(byUsername.get(u++));
+                } else {
+                    merged.add(byEmail.get(e++));
+                }
+            }
+            page = merged;
+            if (u < byUsername.size() || e < byEmail.size()) {
+                nextAfterUsername = u == 0 ? lastUsername : byUsername.get(u - 1).getUsername();
+                nextAfterEmail = e == 0 ? lastEmail : byEmail.get(e - 1).getEmail();
+            }
+        }
+
+        final Map<Long, Long> orderCounts = new HashMap<>();
+        if (withOrderCounts && !page.isEmpty()) {
+            final List<Long> ids = page.stream().map(User::getId).toList();
+            orderRepository.countByUserIdIn(ids)
+                    .forEach(row -> orderCounts.merge(row.id(), ((Number) row.value()).longValue(), Long::sum));
+            archivedOrderRepository.countByUserIdIn(ids)
+                    .forEach(row -> orderCounts.merge(row.id(), ((Number) row.value()).longValue(), Long::sum));
+        }
+
+        final List<UserSummaryDto> summaries = page.stream()
+                .map(u -> new UserSummaryDto(u.getId(), u.getUsername(), u.getEmail(), u.getRole(),
+                        u.getCostPreference(), u.getDietaryRestrictions(),
+                        withOrderCounts ? orderCounts.getOrDefault(u.getId(), 0L) : null))
+                .toList();
+
+        // Totals for the dashboard, read from the role index once per listing
+        Map<String, Long> roleCounts = null;
+        if (after == null && afterUsername == null && afterEmail == null) {
+            roleCounts = new HashMap<>();
+            for (final Object[] row : userRepository.countByRole()) {
+                roleCounts.put((String) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return new UserPageDto(summaries, nextAfter, nextAfterUsername, nextAfterEmail, roleCounts);
+    }
+
+    /**
+     * Turns a search string into a LIKE prefix pattern, escaping wildcards
+     * such as the underscore allowed in usernames.
+     *
+     * @param search the search string
+     * @return the pattern
+     */
+    private static String likePrefix(final String search) {
+        return search.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+
     @Override
     public User findById(final Long id) {
         return userRepository.findById(id).orElse(null);
@@ -49,25 +152,15 @@ public class UserServiceImpl implements UserService {
         if (u.isEmpty()) return null;
         final User user = u.get();
         user.setRole(role);
-        return userRepository.save(user);
+        final User saved = userRepository.save(user);
+        principalCache.evict(saved.getUsername());
+        currentUserHolder.evict(saved.getId());
+        return saved;
     }
 
     @Override
     public void deleteUser(final Long id) {
-        // First, find the user
-        final Optional<User> userOpt = userRepository.findById(id);
-        if (userOpt.isEmpty()) {
-            return; // User doesn't exist, nothing to delete
-        }
-        
-        final User user = userOpt.get();
-        
-        // Delete all orders associated with this user
-        final List<Order> userOrders = orderRepository.findByUser(user);
-        orderRepository.deleteAll(userOrders);
-        
-        // Now delete the user
-        userRepository.deleteById(id);
+        userDeletionService.delete(id);
     }
 
     @Override
@@ -83,6 +176,8 @@ public class UserServiceImpl implements UserService {
         final User user = u.get();
         user.setCostPreference(costPreference);
         user.setDietaryRestrictions(dietaryRestrictions);
-        return userRepository.save(user);
+        final User saved = userRepository.save(user);
+        currentUserHolder.evict(saved.getId());
+        return saved;
     }
 }
@@ -0,0 +1,116 @@
+package FoodSeer.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings. A negative answer is exact, a positive
+ * answer may be wrong at roughly the configured false positive rate, so
+ * callers confirm positives against an exact set. Lookups hash the string's
+ * cached hash code and do not allocate.
+ */
+public class BloomFilter {
+
+    /** Bit set, 64 bits per element */
+    private final AtomicLongArray words;
+
+    /** Number of bits in the filter */
+    private final int numBits;
+
+    /** Number of bits set per value */
+    private final int numHashes;
+
+    /**
+     * Creates a filter sized for the expected number of values.
+     *
+     * @param expectedEntries
+     *            expected number of values added
+     * @param falsePositiveRate
+     *            target false positive rate once full, between 0 and 1
+     */
+    public BloomFilter ( final int expectedEntries, final double falsePositiveRate ) {
+        if ( expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1 ) {
+            throw new IllegalArgumentException( "Expected entries must be positive and the rate between 0 and 1" );
+        }
+        final double ln2 = Math.log( 2 );
+        final long bits = (long) Math.ceil( -expectedEntries * Math.log( falsePositiveRate ) / ( ln2 * ln2 ) );
+        this.numBits = (int) Math.min( Integer.MAX_VALUE - 63, Math.max( 64, bits ) );
+        this.numHashes = Math.max( 1, (int) Math.round( (double) numBits / expectedEntries * ln2 ) );
+        this.words = new AtomicLongArray( ( numBits + 63 ) / 64 );
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value
+     *            the value
+     */
+    public void add ( final String value ) {
+        final int h1 = mix( value.hashCode() );
+        final int h2 = mix( h1 ^ 0x9E3779B9 ) | 1;
+        for ( int i = 0; i < numHashes; i++ ) {
+            final int bit = Math.floorMod( h1 + i * h2, numBits );
+            final long mask = 1L << bit;
+            final int word = bit >>> 6;
+            long current;
+            do {
+                current = words.get( word );
+                if ( ( current & mask ) != 0 ) {
+                    break;
+                }
+            } while ( !words.compareAndSet( word, current, current | mask ) );
+        }
+    }
+
+    /**
+     * Checks whether a value may have been added.
+     *
+     * @param value
+     *            the value
+     * @return false if the value was definitely never added
+     */
+    public boolean mightContain ( final String value ) {
+        final int h1 = mix( value.hashCode() );
+        final int h2 = mix( h1 ^ 0x9E3779B9 ) | 1;
+        for ( int i = 0; i < numHashes; i++ ) {
+            final int bit = Math.floorMod( h1 + i * h2, numBits );
+            if ( ( words.get( bit >>> 6 ) & ( 1L << bit ) ) == 0 ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bits in the filter.
+     *
+     * @return size in bits
+     */
+    public int bitSize () {
+        return numBits;
+    }
+
+    /**
+     * Returns the number of bits set per value.
+     *
+     * @return hash count
+     */
+    public int hashCount () {
+        return numHashes;
+    }
+
+    /**
+     * Spreads the bits of a hash (murmur3 finalizer).
+     *
+     * @param h
+     *            the hash
+     * @return the mixed hash
+     */
+    private static int mix ( int h ) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
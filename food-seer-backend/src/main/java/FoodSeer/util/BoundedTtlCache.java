@@ -0,0 +1,239 @@
+package FoodSeer.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Small thread-safe cache with a maximum number of entries and a time-to-live
+ * per entry. Entries live in a ConcurrentHashMap, so reads never lock and
+ * writes lock only their own bin. Expired entries are dropped when they are
+ * read or when the cache grows past its bound. The bound is approximate: the
+ * first writer to find the cache over its bound drops expired entries, then
+ * the least recently used ones down to nine tenths of the bound, while other
+ * writers carry on without waiting.
+ *
+ * @param <K>
+ *            key type
+ * @param <V>
+ *            value type
+ */
+public class BoundedTtlCache<K, V> {
+
+    /** Maximum number of entries kept */
+    private final int maxEntries;
+
+    /** Number of entries left after an eviction pass */
+    private final int evictTo;
+
+    /** Default time-to-live of an entry in milliseconds */
+    private final long ttlMillis;
+
+    /** Entries by key */
+    private final ConcurrentHashMap<K, Entry<V>> map = new ConcurrentHashMap<>();
+
+    /** Set while one writer is evicting */
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries
+     *            maximum number of entries kept
+     * @param ttlMillis
+     *            default time-to-live of an entry in milliseconds
+     */
+    public BoundedTtlCache ( final int maxEntries, final long ttlMillis ) {
+        if ( maxEntries <= 0 || ttlMillis <= 0 ) {
+            throw new IllegalArgumentException( "Cache size and time-to-live must be positive" );
+        }
+        this.maxEntries = maxEntries;
+        this.evictTo = maxEntries - maxEntries / 10;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Returns the value for a key, or null if it is missing or expired.
+     *
+     * @param key
+     *            the key
+     * @return the cached value or null
+     */
+    public V get ( final K key ) {
+        final Entry<V> entry = map.get( key );
+        if ( entry == null ) {
+            return null;
+        }
+        if ( entry.isExpired( now() ) ) {
+            map.remove( key, entry );
+            return null;
+        }
+        entry.touch();
+        return entry.value;
+    }
+
+    /**
+     * Stores a value with the default time-to-live.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     */
+    public void put ( final K key, final V value ) {
+        put( key, value, ttlMillis );
+    }
+
+    /**
+     * Stores a value with its own time-to-live.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     * @param entryTtlMillis
+     *            time-to-live of this entry in milliseconds
+     */
+    public void put ( final K key, final V value, final long entryTtlMillis ) {
+        if ( entryTtlMillis <= 0 ) {
+            map.remove( key );
+            return;
+        }
+        map.put( key, new Entry<>( value, now() + entryTtlMillis ) );
+        evictIfFull();
+    }
+
+    /**
+     * Returns the value for a key, creating it if it is missing or expired,
+     * and restarts its time-to-live. Entries read this way expire only after
+     * going unused for the time-to-live. The factory runs at most once per
+     * missing key, while that key's bin is locked, so it must be quick.
+     *
+     * @param key
+     *            the key
+     * @param factory
+     *            creates the value for a missing key
+     * @return the cached or new value
+     */
+    public V getOrCreate ( final K key, final Function<? super K, ? extends V> factory ) {
+        final long time = now();
+        final Entry<V> entry = map.compute( key, ( k, current ) -> new Entry<>(
+                current == null || current.isExpired( time ) ? factory.apply( k ) : current.value,
+                time + ttlMillis ) );
+        evictIfFull();
+        return entry.value;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key
+     *            the key
+     */
+    public void remove ( final K key ) {
+        map.remove( key );
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear () {
+        map.clear();
+    }
+
+    /**
+     * Returns the number of entries, including expired ones not yet dropped.
+     *
+     * @return number of entries
+     */
+    public int size () {
+        return map.size();
+    }
+
+    /**
+     * Drops expired entries, then least recently used ones, once the cache is
+     * over its bound. Only one writer evicts at a time; the others skip it.
+     */
+    private void evictIfFull () {
+        if ( map.size() <= maxEntries || !evicting.compareAndSet( false, true ) ) {
+            return;
+        }
+        try {
+            final long time = now();
+            map.entrySet().removeIf( e -> e.getValue().isExpired( time ) );
+            final int excess = map.size() - evictTo;
+            if ( excess > 0 ) {
+                final List<Map.Entry<K, Entry<V>>> entries = new ArrayList<>( map.entrySet() );
+                entries.sort( Comparator.comparingLong( e -> e.getValue().lastUsed ) );
+                for ( final Map.Entry<K, Entry<V>> eldest : entries.subList( 0, Math.min( excess, entries.size() ) ) ) {
+                    map.remove( eldest.getKey(), eldest.getValue() );
+                }
+            }
+        }
+        finally {
+            evicting.set( false );
+        }
+    }
+
+    /**
+     * Current time used for expiry.
+     *
+     * @return current time in milliseconds
+     */
+    private static long now () {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * A cached value, the time it expires and the time it was last used.
+     *
+     * @param <V>
+     *            value type
+     */
+    private static final class Entry<V> {
+
+        /** The value */
+        private final V value;
+
+        /** Expiry time in milliseconds */
+        private final long expiresAt;
+
+        /** Time of the last read, from System.nanoTime, used to pick entries to evict */
+        private volatile long lastUsed = System.nanoTime();
+
+        /**
+         * Creates an entry.
+         *
+         * @param value
+         *            the value
+         * @param expiresAt
+         *            expiry time in milliseconds
+         */
+        Entry ( final V value, final long expiresAt ) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Returns true once the entry has expired.
+         *
+         * @param time
+         *            current time in milliseconds
+         * @return true if expired
+         */
+        boolean isExpired ( final long time ) {
+            return time >= expiresAt;
+        }
+
+        /**
+         * Records a read.
+         */
+        void touch () {
+            lastUsed = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package FoodSeer.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for calls to a remote service. After a number of
+ * consecutive failures the breaker opens and calls are refused at once
+ * instead of waiting on a service that is down. Once the open period has
+ * passed, a single trial call is let through: if it succeeds the breaker
+ * closes, otherwise it opens again. State changes are compare-and-set on one
+ * immutable snapshot, so callers never lock.
+ */
+public class CircuitBreaker {
+
+    /**
+     * States of the breaker.
+     */
+    public enum State {
+        /** Calls go through */
+        CLOSED,
+        /** Calls are refused */
+        OPEN,
+        /** One trial call is in flight */
+        HALF_OPEN
+    }
+
+    /** Consecutive failures that open the breaker */
+    private final int failureThreshold;
+
+    /** How long the breaker stays open, in nanoseconds */
+    private final long openNanos;
+
+    /** Source of the current time in nanoseconds */
+    private final LongSupplier clock;
+
+    /** Current state, failure count and time the breaker opened */
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>( new Snapshot( State.CLOSED, 0, 0 ) );
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param failureThreshold
+     *            consecutive failures that open the breaker
+     * @param openMillis
+     *            how long the breaker stays open before a trial call
+     */
+    public CircuitBreaker ( final int failureThreshold, final long openMillis ) {
+        this( failureThreshold, openMillis, System::nanoTime );
+    }
+
+    /**
+     * Creates a closed breaker with its own clock.
+     *
+     * @param failureThreshold
+     *            consecutive failures that open the breaker
+     * @param openMillis
+     *            how long the breaker stays open before a trial call
+     * @param clock
+     *            source of the current time in nanoseconds
+     */
+    public CircuitBreaker ( final int failureThreshold, final long openMillis, final LongSupplier clock ) {
+        if ( failureThreshold <= 0 || openMillis <= 0 ) {
+            throw new IllegalArgumentException( "Failure threshold and open time must be positive" );
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos( openMillis );
+        this.clock = clock;
+    }
+
+    /**
+     * Asks to make a call. Every permitted call must be followed by
+     * onSuccess or onFailure.
+     *
+     * @return true if the call may go ahead, false if it should fail fast
+     */
+    public boolean tryAcquire () {
+        while ( true ) {
+            final Snapshot current = snapshot.get();
+            switch ( current.state() ) {
+                case CLOSED:
+                    return true;
+                case HALF_OPEN:
+                    return false;
+                default:
+                    if ( clock.getAsLong() - current.openedAt() < openNanos ) {
+                        return false;
+                    }
+                    if ( snapshot.compareAndSet( current,
+                            new Snapshot( State.HALF_OPEN, current.failures(), current.openedAt() ) ) ) {
+                        return true;
+                    }
+            }
+        }
+    }
+
+    /**
+     * Records a successful call, closing the breaker.
+     */
+    public void onSuccess () {
+        final Snapshot current = snapshot.get();
+        if ( current.state() != State.CLOSED || current.failures() != 0 ) {
+            snapshot.set( new Snapshot( State.CLOSED, 0, 0 ) );
+        }
+    }
+
+    /**
+     * Records a failed call. Opens the breaker if the failure threshold is
+     * reached or the trial call failed.
+     */
+    public void onFailure () {
+        while ( true ) {
+            final Snapshot current = snapshot.get();
+            if ( current.state() == State.OPEN ) {
+                return;
+            }
+            final int failures = current.failures() + 1;
+            final Snapshot next = current.state() == State.HALF_OPEN || failures >= failureThreshold
+                    ? new Snapshot( State.OPEN, failures, clock.getAsLong() )
+                    : new Snapshot( State.CLOSED, failures, 0 );
+            if ( snapshot.compareAndSet( current, next ) ) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records a call that ended without telling whether the service is
+     * healthy, such as one cancelled by the caller. A trial call ended this
+     * way lets the next caller make the trial instead.
+     */
+    public void release () {
+        final Snapshot current = snapshot.get();
+        if ( current.state() == State.HALF_OPEN ) {
+            snapshot.compareAndSet( current, new Snapshot( State.OPEN, current.failures(), current.openedAt() ) );
+        }
+    }
+
+    /**
+     * Returns the current state.
+     *
+     * @return the state
+     */
+    public State getState () {
+        return snapshot.get().state();
+    }
+
+    /**
+     * State, consecutive failures and the time the breaker opened.
+     *
+     * @param state
+     *            the state
+     * @param failures
+     *            consecutive failures
+     * @param openedAt
+     *            time the breaker opened, in nanoseconds
+     */
+    private record Snapshot ( State state, int failures, long openedAt ) {
+    }
+}
@@ -0,0 +1,167 @@
+package FoodSeer.util;
+
+import java.util.Arrays;
+
+/**
+ * Map from long keys to long counters stored in two flat arrays with linear
+ * probing, so counting by id does not box keys or allocate an entry per key.
+ * Not thread-safe; callers must synchronize.
+ */
+public class LongCounterMap {
+
+    /** Marks an unused slot; cannot be used as a key */
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    /** Keys by slot */
+    private long[] keys;
+
+    /** Counters by slot */
+    private long[] values;
+
+    /** Number of keys stored */
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    public LongCounterMap () {
+        this( 16 );
+    }
+
+    /**
+     * Creates an empty map sized for the expected number of keys.
+     *
+     * @param expectedKeys
+     *            expected number of keys
+     */
+    public LongCounterMap ( final int expectedKeys ) {
+        final int capacity = Integer.highestOneBit( Math.max( 8, expectedKeys * 2 - 1 ) ) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill( keys, EMPTY );
+    }
+
+    /**
+     * Adds to the counter of a key, creating it at zero if absent.
+     *
+     * @param key
+     *            the key
+     * @param delta
+     *            amount to add
+     * @return the new counter value
+     */
+    public long add ( final long key, final long delta ) {
+        if ( key == EMPTY ) {
+            throw new IllegalArgumentException( "Key " + key + " is reserved" );
+        }
+        int slot = slot( key );
+        if ( keys[slot] == EMPTY ) {
+            if ( ( size + 1 ) * 2 > keys.length ) {
+                grow();
+                slot = slot( key );
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /**
+     * Returns the counter of a key.
+     *
+     * @param key
+     *            the key
+     * @return the counter, or 0 if the key is absent
+     */
+    public long get ( final long key ) {
+        if ( key == EMPTY ) {
+            return 0;
+        }
+        final int slot = slot( key );
+        return keys[slot] == EMPTY ? 0 : values[slot];
+    }
+
+    /**
+     * Returns the number of keys stored.
+     *
+     * @return the number of keys
+     */
+    public int size () {
+        return size;
+    }
+
+    /**
+     * Removes every key.
+     */
+    public void clear () {
+        Arrays.fill( keys, EMPTY );
+        Arrays.fill( values, 0 );
+        size = 0;
+    }
+
+    /**
+     * Calls the visitor once for every key and counter.
+     *
+     * @param visitor
+     *            receives each entry
+     */
+    public void forEach ( final Visitor visitor ) {
+        for ( int i = 0; i < keys.length; i++ ) {
+            if ( keys[i] != EMPTY ) {
+                visitor.accept( keys[i], values[i] );
+            }
+        }
+    }
+
+    /**
+     * Receives map entries without boxing.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Accepts one entry.
+         *
+         * @param key
+         *            the key
+         * @param value
+         *            the counter
+         */
+        void accept ( long key, long value );
+    }
+
+    /**
+     * Finds the slot holding the key, or the empty slot where it would go.
+     *
+     * @param key
+     *            the key
+     * @return the slot index
+     */
+    private int slot ( final long key ) {
+        final int mask = keys.length - 1;
+        int slot = Long.hashCode( key * 0x9E3779B97F4A7C15L ) & mask;
+        while ( keys[slot] != EMPTY && keys[slot] != key ) {
+            slot = ( slot + 1 ) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the table and reinserts every entry.
+     */
+    private void grow () {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldValues.length * 2];
+        Arrays.fill( keys, EMPTY );
+        for ( int i = 0; i < oldKeys.length; i++ ) {
+            if ( oldKeys[i] != EMPTY ) {
+                final int slot = slot( oldKeys[i] );
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package FoodSeer.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Thread-safe cache bounded by the total size of its entries in bytes rather
+ * than their number, with a time-to-live per entry. When over budget, least
+ * recently used entries are evicted first. Hits, misses and evictions are
+ * counted so the hit rate can be watched.
+ *
+ * @param <K>
+ *            key type
+ * @param <V>
+ *            value type
+ */
+public class SizedTtlCache<K, V> {
+
+    /** Largest total size of all entries, in bytes */
+    private final long maxBytes;
+
+    /** Time-to-live of an entry in milliseconds */
+    private final long ttlMillis;
+
+    /** Estimates the size of an entry in bytes */
+    private final ToLongBiFunction<K, V> weigher;
+
+    /** Entries in least recently used order */
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>( 16, 0.75f, true );
+
+    /** Total size of all entries, in bytes */
+    private long bytes;
+
+    /** Reads that found a live entry */
+    private long hits;
+
+    /** Reads that found nothing or an expired entry */
+    private long misses;
+
+    /** Entries dropped to stay within the size budget */
+    private long evictions;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxBytes
+     *            largest total size of all entries, in bytes
+     * @param ttlMillis
+     *            time-to-live of an entry in milliseconds
+     * @param weigher
+     *            estimates the size of an entry in bytes
+     */
+    public SizedTtlCache ( final long maxBytes, final long ttlMillis, final ToLongBiFunction<K, V> weigher ) {
+        if ( maxBytes <= 0 || ttlMillis <= 0 ) {
+            throw new IllegalArgumentException( "Cache size and time-to-live must be positive" );
+        }
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the value for a key, or null if it is missing or expired.
+     *
+     * @param key
+     *            the key
+     * @return the cached value or null
+     */
+    public synchronized V get ( final K key ) {
+        final Entry<V> entry = map.get( key );
+        if ( entry == null ) {
+            misses++;
+            return null;
+        }
+        if ( entry.expiresAt() <= now() ) {
+            removeEntry( key );
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value();
+    }
+
+    /**
+     * Stores a value, evicting least recently used entries to make room. A
+     * value larger than the whole budget is not stored.
+     *
+     * @param key
+     *            the key
+     * @param value
+     *            the value
+     */
+    public synchronized void put ( final K key, final V value ) {
+        final long weight = weigher.applyAsLong( key, value );
+        removeEntry( key );
+        if ( weight > maxBytes ) {
+            return;
+        }
+        map.put( key, new Entry<>( value, weight, now() + ttlMillis ) );
+        bytes += weight;
+
+        final long time = now();
+        final Iterator<Map.Entry<K, Entry<V>>> eldest = map.entrySet().iterator();
+        while ( bytes > maxBytes && eldest.hasNext() ) {
+            final Map.Entry<K, Entry<V>> next = eldest.next();
+            bytes -= next.getValue().weight();
+            if ( next.getValue().expiresAt() > time ) {
+                evictions++;
+            }
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void clear () {
+        map.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns a snapshot of the cache's size and counters.
+     *
+     * @return the statistics
+     */
+    public synchronized Stats getStats () {
+        return new Stats( map.size(), bytes, maxBytes, hits, misses, evictions );
+    }
+
+    /**
+     * Removes a key and its size from the total.
+     *
+     * @param key
+     *            the key
+     */
+    private void removeEntry ( final K key ) {
+        final Entry<V> removed = map.remove( key );
+        if ( removed != null ) {
+            bytes -= removed.weight();
+        }
+    }
+
+    /**
+     * Current time used for expiry.
+     *
+     * @return current time in milliseconds
+     */
+    private static long now () {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Size and counters of a cache.
+     *
+     * @param entries
+     *            entries held, including expired ones not yet dropped
+     * @param bytes
+     *            total size of the entries
+     * @param maxBytes
+     *            size budget
+     * @param hits
+     *            reads that found a live entry
+     * @param misses
+     *            reads that found nothing
+     * @param evictions
+     *            live entries dropped to stay within the budget
+     */
+    public record Stats ( int entries, long bytes, long maxBytes, long hits, long misses, long evictions ) {
+
+        /**
+         * Returns the share of reads that were hits.
+         *
+         * @return hits over reads, or 0 before the first read
+         */
+        public double hitRate () {
+            final long reads = hits + misses;
+            return reads == 0 ? 0 : (double) hits / reads;
+        }
+    }
+
+    /**
+     * A cached value, its size and the time it expires.
+     *
+     * @param value
+     *            the value
+     * @param weight
+     *            size in bytes
+     * @param expiresAt
+     *            expiry time in milliseconds
+     * @param <V>
+     *            value type
+     */
+    private record Entry<V> ( V value, long weight, long expiresAt ) {
+    }
+}
@@ -0,0 +1,189 @@
+package FoodSeer.util;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fan-out hub for server-sent events grouped into channels, such as one
+ * channel per user. An idle subscriber is only an async servlet response
+ * parked in a map, so it holds no thread. Events are written on virtual
+ * threads so a slow client never blocks the code that published the event,
+ * and events for one channel are written in the order they were sent.
+ *
+ * @param <K>
+ *            channel key type
+ */
+public class SseHub<K> {
+
+    /** How long a subscriber may stay connected before reconnecting */
+    private final long timeoutMillis;
+
+    /** Subscribers by channel */
+    private final ConcurrentHashMap<K, Set<SseEmitter>> channels = new ConcurrentHashMap<>();
+
+    /** Last pending write for each channel; the next write waits for it */
+    private final ConcurrentHashMap<K, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    /** Writes events to clients */
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates a hub.
+     *
+     * @param timeoutMillis
+     *            how long a subscriber may stay connected before reconnecting
+     */
+    public SseHub ( final long timeoutMillis ) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Opens a subscription to a channel.
+     *
+     * @param key
+     *            the channel
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe ( final K key ) {
+        final SseEmitter emitter = new SseEmitter( timeoutMillis );
+        emitter.onCompletion( () -> remove( key, emitter ) );
+        emitter.onTimeout( () -> remove( key, emitter ) );
+        emitter.onError( e -> remove( key, emitter ) );
+        channels.computeIfAbsent( key, k -> ConcurrentHashMap.newKeySet() ).add( emitter );
+        return emitter;
+    }
+
+    /**
+     * Opens a subscription to a channel and sends the new subscriber a first
+     * event. The payload is built when the event is written, behind any
+     * events already queued for the channel, so it is never older than the
+     * events that follow it.
+     *
+     * @param key
+     *            the channel
+     * @param name
+     *            name of the first event
+     * @param initial
+     *            builds the payload of the first event
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe ( final K key, final String name, final Supplier<Object> initial ) {
+        final SseEmitter emitter = subscribe( key );
+        enqueue( key, () -> {
+            try {
+                emitter.send( SseEmitter.event().name( name ).data( initial.get() ) );
+            }
+            catch ( final IOException | IllegalStateException e ) {
+                remove( key, emitter );
+            }
+        } );
+        return emitter;
+    }
+
+    /**
+     * Sends an event to every subscriber of a channel. Does nothing if the
+     * channel has no subscribers.
+     *
+     * @param key
+     *            the channel
+     * @param name
+     *            event name
+     * @param data
+     *            event payload
+     */
+    public void send ( final K key, final String name, final Object data ) {
+        if ( !channels.containsKey( key ) ) {
+            return;
+        }
+        enqueue( key, () -> write( key, () -> SseEmitter.event().name( name ).data( data ) ) );
+    }
+
+    /**
+     * Sends a comment to every subscriber so dead connections are noticed and
+     * proxies do not close idle ones.
+     */
+    public void heartbeat () {
+        for ( final K key : channels.keySet() ) {
+            enqueue( key, () -> write( key, () -> SseEmitter.event().comment( "ping" ) ) );
+        }
+    }
+
+    /**
+     * Returns the number of open subscriptions across all channels.
+     *
+     * @return number of subscribers
+     */
+    public int subscriberCount () {
+        return channels.values().stream().mapToInt( Set::size ).sum();
+    }
+
+    /**
+     * Completes every subscription and stops the sender.
+     */
+    public void close () {
+        channels.values().forEach( emitters -> emitters.forEach( SseEmitter::complete ) );
+        channels.clear();
+        sender.shutdown();
+    }
+
+    /**
+     * Queues a write behind earlier writes to the same channel.
+     *
+     * @param key
+     *            the channel
+     * @param task
+     *            the write
+     */
+    private void enqueue ( final K key, final Runnable task ) {
+        final CompletableFuture<Void> future = tails.compute( key,
+                ( k, previous ) -> ( previous == null ? CompletableFuture.<Void> completedFuture( null ) : previous )
+                        .thenRunAsync( task, sender ) );
+        future.whenComplete( ( result, error ) -> tails.remove( key, future ) );
+    }
+
+    /**
+     * Writes an event to every subscriber of a channel, dropping the ones
+     * whose connection is gone.
+     *
+     * @param key
+     *            the channel
+     * @param event
+     *            builds the event; a builder cannot be sent twice
+     */
+    private void write ( final K key, final Supplier<SseEmitter.SseEventBuilder> event ) {
+        final Set<SseEmitter> emitters = channels.get( key );
+        if ( emitters == null ) {
+            return;
+        }
+        for ( final SseEmitter emitter : emitters ) {
+            try {
+                emitter.send( event.get() );
+            }
+            catch ( final IOException | IllegalStateException e ) {
+                remove( key, emitter );
+            }
+        }
+    }
+
+    /**
+     * Removes a subscriber, and its channel once it is empty.
+     *
+     * @param key
+     *            the channel
+     * @param emitter
+     *            the subscriber
+     */
+    private void remove ( final K key, final SseEmitter emitter ) {
+        channels.computeIfPresent( key, ( k, emitters ) -> {
+            emitters.remove( emitter );
+            return emitters.isEmpty() ? null : emitters;
+        } );
+    }
+}
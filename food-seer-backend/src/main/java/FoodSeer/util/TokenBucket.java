@@ -0,0 +1,94 @@
+package FoodSeer.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. The bucket holds up to a fixed number of tokens and
+ * refills at a steady rate; each permitted call takes one token. State is a
+ * single immutable snapshot swapped with compare-and-set, so callers never
+ * block each other.
+ */
+public class TokenBucket {
+
+    /** Most tokens the bucket holds */
+    private final double capacity;
+
+    /** Tokens added per nanosecond */
+    private final double refillPerNano;
+
+    /** Tokens left and the time they were counted */
+    private final AtomicReference<State> state;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param capacity
+     *            most tokens the bucket holds, which is the largest burst
+     * @param refillPerSecond
+     *            tokens added per second
+     */
+    public TokenBucket ( final long capacity, final double refillPerSecond ) {
+        this( capacity, refillPerSecond, System.nanoTime() );
+    }
+
+    /**
+     * Creates a full bucket at a given time.
+     *
+     * @param capacity
+     *            most tokens the bucket holds, which is the largest burst
+     * @param refillPerSecond
+     *            tokens added per second
+     * @param nowNanos
+     *            current time from System.nanoTime()
+     */
+    public TokenBucket ( final long capacity, final double refillPerSecond, final long nowNanos ) {
+        if ( capacity <= 0 || refillPerSecond <= 0 ) {
+            throw new IllegalArgumentException( "Capacity and refill rate must be positive" );
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos( 1 );
+        this.state = new AtomicReference<>( new State( capacity, nowNanos ) );
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if a token was taken, otherwise nanoseconds until one is
+     */
+    public long tryConsume () {
+        return tryConsume( System.nanoTime() );
+    }
+
+    /**
+     * Takes a token if one is available at a given time.
+     *
+     * @param nowNanos
+     *            current time from System.nanoTime()
+     * @return 0 if a token was taken, otherwise nanoseconds until one is
+     */
+    public long tryConsume ( final long nowNanos ) {
+        while ( true ) {
+            final State current = state.get();
+            final long elapsed = Math.max( 0, nowNanos - current.updatedAt() );
+            final double tokens = Math.min( capacity, current.tokens() + elapsed * refillPerNano );
+            if ( tokens < 1 ) {
+                return (long) Math.ceil( ( 1 - tokens ) / refillPerNano );
+            }
+            if ( state.compareAndSet( current, new State( tokens - 1, Math.max( nowNanos, current.updatedAt() ) ) ) ) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Tokens left and the time they were counted.
+     *
+     * @param tokens
+     *            tokens left, possibly fractional
+     * @param updatedAt
+     *            time from System.nanoTime()
+     */
+    private record State ( double tokens, long updatedAt ) {
+    }
+}
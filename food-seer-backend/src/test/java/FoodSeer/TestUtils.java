@@ -7,7 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  */
 public class TestUtils {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
 
     /**
      * Converts an object to its JSON representation.
@@ -1,5 +1,10 @@
 package FoodSeer.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -8,13 +13,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import FoodSeer.dto.LoginRequestDto;
+import FoodSeer.dto.RefreshRequestDto;
 import FoodSeer.dto.RegisterRequestDto;
+import FoodSeer.entity.User;
+import FoodSeer.repositories.UserRepository;
+import FoodSeer.security.JwtTokenProvider;
 import jakarta.transaction.Transactional;
 
 @SpringBootTest
@@ -28,6 +39,12 @@ class AuthControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
     private LoginRequestDto loginRequest;
     private RegisterRequestDto registerRequest;
 
@@ -72,6 +89,102 @@ class AuthControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void shouldRejectTokenAfterLogout() throws Exception {
+        mockMvc.perform(post("/auth/register")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(registerRequest)));
+
+        final String body = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andReturn().getResponse().getContentAsString();
+        final String bearer = "Bearer " + objectMapper.readTree(body).get("accessToken").asText();
+
+        mockMvc.perform(get("/api/users/me").header("Authorization", bearer))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/logout").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Logged out"));
+
+        mockMvc.perform(get("/api/users/me").header("Authorization", bearer))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRehashPasswordWithOldCostOnLogin() throws Exception {
+        userRepository.save(User.builder()
+                .username("testuser")
+                .email("test@example.com")
+                .password(new BCryptPasswordEncoder(4).encode("password123"))
+                .role("ROLE_CUSTOMER")
+                .build());
+
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk());
+
+        final String hash = userRepository.findByUsername("testuser").get().getPassword();
+        assertFalse(hash.startsWith("$2a$04$"));
+        assertTrue(new BCryptPasswordEncoder().matches("password123", hash));
+    }
+
+    @Test
+    void shouldRotateRefreshTokenWithCurrentRole() throws Exception {
+        mockMvc.perform(post("/auth/register")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(registerRequest)));
+
+        final JsonNode login = objectMapper.readTree(mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andExpect(jsonPath("$.expiresIn").value(900))
+                .andReturn().getResponse().getContentAsString());
+        final String refreshToken = login.get("refreshToken").asText();
+
+        // Promote the user; the next access token carries the new role
+        final User user = userRepository.findByUsername("testuser").get();
+        user.setRole("ROLE_STAFF");
+        userRepository.save(user);
+
+        final JsonNode refreshed = objectMapper.readTree(mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequestDto(refreshToken))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        final String newRefreshToken = refreshed.get("refreshToken").asText();
+        assertNotEquals(refreshToken, newRefreshToken);
+        assertEquals("ROLE_STAFF", jwtTokenProvider.parseAndValidate(refreshed.get("accessToken").asText())
+                .get(JwtTokenProvider.ROLE_CLAIM, String.class));
+
+        // Reusing a rotated token revokes the whole session
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequestDto(refreshToken))))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequestDto(newRefreshToken))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldFailRefreshWithUnknownToken() throws Exception {
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequestDto("not-a-token"))))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldFailLogoutWithoutToken() throws Exception {
+        mockMvc.perform(post("/auth/logout"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldFailRegisterWithExistingUsername() throws Exception {
 
@@ -5,7 +5,10 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,8 +22,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import FoodSeer.TestUtils;
 import FoodSeer.dto.FoodDto;
+import FoodSeer.entity.Food;
+import FoodSeer.entity.Order;
+import FoodSeer.entity.User;
 import FoodSeer.repositories.FoodRepository;
 import FoodSeer.repositories.InventoryRepository;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.UserRepository;
 import FoodSeer.service.FoodService;
 
 /**
@@ -42,6 +50,14 @@ public class FoodControllerTest {
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    /** Reference to order repository */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** Reference to user repository */
+    @Autowired
+    private UserRepository userRepository;
+
     /** Reference to food service */
     @Autowired
     private FoodService foodService;
@@ -220,4 +236,70 @@ public class FoodControllerTest {
                 .content(TestUtils.asJsonString(update)))
             .andExpect(status().isBadRequest());
     }
+
+    /**
+     * Tests POST /api/foods/orders/{orderId}/rate rates several foods at once
+     *
+     * @throws Exception
+     *             if error
+     */
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testRateOrder() throws Exception {
+        final Food coffee = foodRepository.save(new Food("COFFEE", 5, 3, Arrays.asList("MILK")));
+        final Food tea = foodRepository.save(new Food("TEA", 5, 2, Arrays.asList("NONE")));
+        final Order order = new Order(null, "Order");
+        order.setUser(userRepository.save(User.builder()
+                .username("customer")
+                .email("customer@test.com")
+                .password("password")
+                .role("ROLE_CUSTOMER")
+                .build()));
+        order.setFoods(new ArrayList<>(List.of(coffee, tea)));
+        order.setIsFulfilled(true);
+        final Long orderId = orderRepository.save(order).getId();
+
+        final Map<Long, Double> ratings = Map.of(coffee.getId(), 5.0, tea.getId(), 3.0);
+        mvc.perform(post("/api/foods/orders/" + orderId + "/rate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(ratings)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].rating").value(5.0))
+            .andExpect(jsonPath("$[1].rating").value(3.0));
+
+        mvc.perform(post("/api/foods/orders/" + orderId + "/rate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(Map.of(tea.getId(), 4.0))))
+            .andExpect(status().isConflict());
+
+        mvc.perform(post("/api/foods/orders/" + orderId + "/rate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(Map.of(coffee.getId(), 6.0))))
+            .andExpect(status().isBadRequest());
+
+        mvc.perform(post("/api/foods/orders/999999/rate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(ratings)))
+            .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests GET /api/foods/top returns ranked foods and checks the limit
+     *
+     * @throws Exception
+     *             if error
+     */
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testGetTopFoods() throws Exception {
+        mvc.perform(get("/api/foods/top").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isArray());
+
+        mvc.perform(get("/api/foods/top").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
 }
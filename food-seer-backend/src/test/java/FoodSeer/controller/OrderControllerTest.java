@@ -2,7 +2,13 @@ package FoodSeer.controller;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,18 +21,23 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import FoodSeer.TestUtils;
 import FoodSeer.dto.InventoryDto;
 import FoodSeer.dto.OrderDto;
 import FoodSeer.entity.Food;
+import FoodSeer.entity.RatedItem;
 import FoodSeer.entity.User;
+import FoodSeer.event.OrderEvent;
 import FoodSeer.repositories.FoodRepository;
 import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.RatedItemRepository;
 import FoodSeer.repositories.UserRepository;
 import FoodSeer.service.InventoryService;
 import FoodSeer.service.OrderService;
+import FoodSeer.service.impl.OrderNotificationServiceImpl;
 
 /**
  * Tests Controller for API endpoints for an Order.
@@ -43,6 +54,10 @@ class OrderControllerTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    /** Repository for rated items */
+    @Autowired
+    private RatedItemRepository ratedItemRepository;
+
     /** Repository for food items */
     @Autowired
     private FoodRepository foodRepository;
@@ -59,6 +74,9 @@ class OrderControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private OrderNotificationServiceImpl orderNotificationService;
+
     /**
      * Sets up test case by clearing repositories and creating sample data.
      */
@@ -201,7 +219,29 @@ class OrderControllerTest {
             .andExpect(status().isGone()); // 410
     }
 
-    
+    @Test
+    @Transactional
+    @WithMockUser(username = "staff", roles = "STAFF")
+    void testFulfillOrder_TwoPathsTakeStockOnce() throws Exception {
+        final Food food = foodRepository.findAll().get(0);
+        final int stock = food.getAmount();
+
+        final OrderDto o = new OrderDto(0L, "TwoPaths");
+        o.setFoods(List.of(food));
+        final OrderDto saved = orderService.createOrder(o);
+
+        // The kitchen and async paths call the service directly
+        orderService.fulfillOrder(saved.getId());
+        assertThrows(IllegalStateException.class, () -> orderService.fulfillOrder(saved.getId()));
+
+        mvc.perform(post("/api/orders/fulfillOrder")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(saved)))
+            .andExpect(status().isGone()); // 410
+
+        assertEquals(stock - 1, foodRepository.findById(food.getId()).get().getAmount());
+    }
+
     @Test
     @Transactional
     @WithMockUser(username = "staff", roles = "STAFF")
@@ -300,4 +340,146 @@ class OrderControllerTest {
         mvc.perform(get("/api/orders/my-orders/unfulfilled"))
             .andExpect(status().isOk());
     }
-}
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testGetMyOrders_ProjectionShape() throws Exception {
+        Food food = foodRepository.save(new Food("PEANUT BAR", 5, 4, new ArrayList<>(List.of("peanut"))));
+
+        OrderDto orderDto = new OrderDto(0L, "ProjectionOrder");
+        orderDto.setFoods(new ArrayList<>(List.of(food, food)));
+        OrderDto savedOrder = orderService.createOrder(orderDto);
+
+        ratedItemRepository.save(new RatedItem(savedOrder.getId(), food.getId(), 5.0));
+
+        mvc.perform(get("/api/orders/my-orders"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(savedOrder.getId()))
+            .andExpect(jsonPath("$[0].name").value("ProjectionOrder"))
+            .andExpect(jsonPath("$[0].isFulfilled").value(false))
+            .andExpect(jsonPath("$[0].foods.length()").value(2))
+            .andExpect(jsonPath("$[0].foods[0].id").value(food.getId()))
+            .andExpect(jsonPath("$[0].foods[0].foodName").value("PEANUT BAR"))
+            .andExpect(jsonPath("$[0].foods[0].price").value(4))
+            .andExpect(jsonPath("$[0].foods[0].allergies[0]").value("PEANUT"))
+            .andExpect(jsonPath("$[0].ratedFoodIds[0]").value(food.getId()));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "staff", roles = "STAFF")
+    void testFulfillOrderAsync_UnknownOrderAndJob() throws Exception {
+        OrderDto missing = new OrderDto(Long.MAX_VALUE, "Missing");
+
+        mvc.perform(post("/api/orders/fulfillOrder/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(missing)))
+            .andExpect(status().isPreconditionFailed());
+
+        mvc.perform(get("/api/orders/fulfillOrder/jobs/missing"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testStreamMyOrders_ReceivesOwnEvents() throws Exception {
+        User customer = userRepository.findByUsername("customer").get();
+        Food food = foodRepository.findAll().get(0);
+        OrderDto orderDto = new OrderDto(0L, "StreamedOrder");
+        orderDto.setFoods(new ArrayList<>(List.of(food)));
+        OrderDto savedOrder = orderService.createOrder(orderDto);
+
+        MvcResult result = mvc.perform(get("/api/orders/my-orders/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        // Events for other users must not reach this stream
+        orderNotificationService.onOrderEvent(new OrderEvent(OrderEvent.Type.CREATED, customer.getId() + 1, savedOrder));
+        orderNotificationService.onOrderEvent(new OrderEvent(OrderEvent.Type.FULFILLED, customer.getId(), savedOrder));
+
+        String body = "";
+        for (int i = 0; i < 100 && !body.contains("StreamedOrder"); i++) {
+            Thread.sleep(20);
+            body = result.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains("event:FULFILLED"));
+        assertTrue(body.contains("StreamedOrder"));
+        assertTrue(!body.contains("event:CREATED"));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testGetMyOrderSummaries() throws Exception {
+        Food food = foodRepository.findAll().get(0);
+        OrderDto orderDto = new OrderDto(0L, "SummaryOrder");
+        orderDto.setFoods(new ArrayList<>(List.of(food, food)));
+        orderService.createOrder(orderDto);
+
+        mvc.perform(get("/api/orders/my-orders/summary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name").value("SummaryOrder"))
+            .andExpect(jsonPath("$[0].itemCount").value(2))
+            .andExpect(jsonPath("$[0].totalPrice").value(2 * food.getPrice()))
+            .andExpect(jsonPath("$[0].foods").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testCreateOrder_IdempotencyKeyReplaysResponse() throws Exception {
+        final OrderDto orderDto = new OrderDto(0L, "RetriedOrder");
+        orderDto.setFoods(foodRepository.findAll().subList(0, 1));
+
+        final String first = mvc.perform(post("/api/orders")
+                .header("Idempotency-Key", "create-retry-test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(orderDto)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        final String replayed = mvc.perform(post("/api/orders")
+                .header("Idempotency-Key", "create-retry-test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(orderDto)))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, replayed);
+        assertEquals(1, orderRepository.count());
+
+        // Reusing the key for a different request is rejected
+        orderDto.setName("DifferentOrder");
+        mvc.perform(post("/api/orders")
+                .header("Idempotency-Key", "create-retry-test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtils.asJsonString(orderDto)))
+            .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "staff", roles = "STAFF")
+    void testFulfillOrder_IdempotencyKeyDeductsStockOnce() throws Exception {
+        final Food food = foodRepository.findAll().get(0);
+        final int startingAmount = food.getAmount();
+
+        final OrderDto orderDto = new OrderDto(0L, "RetriedFulfill");
+        orderDto.setFoods(new ArrayList<>(List.of(food)));
+        final OrderDto savedOrder = orderService.createOrder(orderDto);
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(post("/api/orders/fulfillOrder")
+                    .header("Idempotency-Key", "fulfill-retry-test")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtils.asJsonString(savedOrder)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isFulfilled").value(true));
+        }
+
+        assertEquals(startingAmount - 1, foodRepository.findById(food.getId()).get().getAmount());
+    }
+}
\ No newline at end of file
@@ -9,9 +9,18 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 // ...existing code...
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,11 +41,22 @@ import FoodSeer.config.Roles;
 import FoodSeer.config.Roles.UserRoles;
 import FoodSeer.dto.RegisterRequestDto;
 import FoodSeer.dto.UpdateRoleDto;
+import FoodSeer.dto.UserDeletionJobDto;
 import FoodSeer.dto.UserDto;
 import FoodSeer.dto.UserPreferencesDto;
+import FoodSeer.entity.ArchivedOrder;
+import FoodSeer.entity.Food;
+import FoodSeer.entity.Order;
+import FoodSeer.entity.RatedItem;
 import FoodSeer.entity.User;
+import FoodSeer.repositories.ArchivedOrderRepository;
+import FoodSeer.repositories.FoodRepository;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.RatedItemRepository;
 import FoodSeer.repositories.UserRepository;
 import FoodSeer.service.AuthService;
+import FoodSeer.service.TokenRevocationService;
+import FoodSeer.service.UserDeletionService;
 import FoodSeer.service.UserService;
 import jakarta.transaction.Transactional;
 
@@ -59,6 +79,24 @@ class UserControllerTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDeletionService userDeletionService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private RatedItemRepository ratedItemRepository;
+
     private User testUser;
     private User adminUser;
 
@@ -89,6 +127,64 @@ class UserControllerTest {
             .andExpect(jsonPath("$", hasSize(2)));
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldListUserPagesWithSearchAndRoleFilter() throws Exception {
+        authService.register(new RegisterRequestDto("test_b", "b@example.com", "password123"));
+
+        // The underscore is matched literally, not as a wildcard
+        mockMvc.perform(get("/api/users/page").param("search", "test_"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.users", hasSize(1)))
+            .andExpect(jsonPath("$.users[0].username").value("test_b"))
+            .andExpect(jsonPath("$.nextAfter").doesNotExist());
+
+        mockMvc.perform(get("/api/users/page").param("role", "ADMIN").param("orderCounts", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.users", hasSize(1)))
+            .andExpect(jsonPath("$.users[0].username").value("admin"))
+            .andExpect(jsonPath("$.users[0].orderCount").value(0))
+            .andExpect(jsonPath("$.roleCounts.ROLE_ADMIN").value(1))
+            .andExpect(jsonPath("$.roleCounts.ROLE_CUSTOMER").value(2));
+
+        final String first = mockMvc.perform(get("/api/users/page").param("limit", "2"))
+            .andExpect(jsonPath("$.users", hasSize(2)))
+            .andExpect(jsonPath("$.nextAfter").exists())
+            .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/users/page").param("limit", "2")
+                .param("after", objectMapper.readTree(first).get("nextAfter").asText()))
+            .andExpect(jsonPath("$.users", hasSize(1)))
+            .andExpect(jsonPath("$.nextAfter").doesNotExist())
+            .andExpect(jsonPath("$.roleCounts").doesNotExist());
+
+        mockMvc.perform(get("/api/users/page").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldPageSearchAcrossUsernameAndEmailMatches() throws Exception {
+        authService.register(new RegisterRequestDto("test_b", "b@example.com", "password123"));
+        authService.register(new RegisterRequestDto("zed", "tester@example.com", "password123"));
+
+        // Username and email matches are merged; testuser matches both but is listed once
+        final String first = mockMvc.perform(get("/api/users/page").param("search", "test").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.users[*].username", contains("test_b", "zed")))
+            .andExpect(jsonPath("$.nextAfter").doesNotExist())
+            .andExpect(jsonPath("$.nextAfterUsername").value("test_b"))
+            .andExpect(jsonPath("$.nextAfterEmail").value("tester@example.com"))
+            .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/users/page").param("search", "test").param("limit", "2")
+                .param("afterUsername", objectMapper.readTree(first).get("nextAfterUsername").asText())
+                .param("afterEmail", objectMapper.readTree(first).get("nextAfterEmail").asText()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.users[*].username", contains("testuser")))
+            .andExpect(jsonPath("$.nextAfterUsername").doesNotExist())
+            .andExpect(jsonPath("$.roleCounts").doesNotExist());
+    }
+
     @Test
     @WithMockUser(roles = "STANDARD")
     void shouldNotAllowNonAdminToListUsers() throws Exception {
@@ -150,8 +246,65 @@ class UserControllerTest {
         // Ensure user is removed
         mockMvc.perform(get("/api/users/" + testUser.getId()))
                 .andExpect(status().isNotFound());
+
+        // Access tokens issued before the deletion no longer authenticate
+        assertTrue(tokenRevocationService.isUserRevoked(testUser.getId()));
     }
     
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldDeleteUserWithOrderHistoryInBackground() throws Exception {
+        final Food food = foodRepository.save(new Food("DELETION SOUP", 5, 3, new ArrayList<>()));
+        final List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Order order = new Order();
+            order.setName("DeletionOrder" + i);
+            order.setUser(testUser);
+            order.setFoods(new ArrayList<>(List.of(food, food)));
+            order.capturePrices();
+            orders.add(orderRepository.save(order));
+        }
+        final Order archived = orders.remove(2);
+        final List<Long> orderIds = orders.stream().map(Order::getId).toList();
+        archivedOrderRepository.save(new ArchivedOrder(archived, LocalDateTime.now()));
+        orderRepository.delete(archived);
+        ratedItemRepository.save(new RatedItem(orderIds.get(0), food.getId(), 4.0));
+        ratedItemRepository.save(new RatedItem(archived.getId(), food.getId(), 5.0));
+
+        final String body = mockMvc.perform(delete("/api/users/" + testUser.getId() + "/async"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.userId").value(testUser.getId()))
+                .andReturn().getResponse().getContentAsString();
+        final String jobId = objectMapper.readTree(body).get("jobId").asText();
+
+        UserDeletionJobDto job = userDeletionService.getJob(jobId);
+        for (int i = 0; i < 100 && !job.isDone(); i++) {
+            Thread.sleep(50);
+            job = userDeletionService.getJob(jobId);
+        }
+
+        mockMvc.perform(get("/api/users/deletions/" + jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.ordersTotal").value(3))
+                .andExpect(jsonPath("$.ordersDeleted").value(3));
+        assertFalse(userRepository.existsById(testUser.getId()));
+        assertEquals(0, orderRepository.countByUserId(testUser.getId()));
+        assertEquals(0, archivedOrderRepository.countByUserId(testUser.getId()));
+        assertTrue(ratedItemRepository.findAll().stream()
+                .noneMatch(r -> orderIds.contains(r.getOrderId()) || archived.getId().equals(r.getOrderId())));
+        foodRepository.delete(food);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldNotFindDeletionOfUnknownUser() throws Exception {
+        mockMvc.perform(delete("/api/users/999999/async"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/deletions/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser(roles = "STANDARD")
     void shouldNotAllowNonAdminToDeleteUser() throws Exception {
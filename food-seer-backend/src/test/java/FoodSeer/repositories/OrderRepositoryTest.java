@@ -16,6 +16,7 @@ import FoodSeer.dto.FoodDto;
 import FoodSeer.dto.InventoryDto;
 import FoodSeer.dto.OrderDto;
 import FoodSeer.entity.Food;
+import FoodSeer.entity.Order;
 import FoodSeer.entity.User;
 import FoodSeer.service.FoodService;
 import FoodSeer.service.InventoryService;
@@ -106,4 +107,35 @@ class OrderRepositoryTest {
                 orderRepository.getReferenceById(savedOrder.getId()).getId(),
                 "The saved and retrieved order IDs should match");
     }
+
+    /**
+     * Tests that orders placed before totals were stored get them filled in
+     * from their foods, and that orders with totals are left alone.
+     */
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testBackfillTotals() {
+        final List<Food> foods = foodRepository.findAll();
+        final User customer = userRepository.findByUsername("customer").get();
+
+        // An order as stored by older versions: foods but no totals
+        final Order legacy = new Order();
+        legacy.setName("Legacy");
+        legacy.setUser(customer);
+        legacy.setFoods(new ArrayList<>(List.of(foods.get(0), foods.get(0), foods.get(1))));
+        final Long legacyId = orderRepository.saveAndFlush(legacy).getId();
+
+        final OrderDto current = new OrderDto(0L, "Current");
+        current.setFoods(foods.subList(2, 3));
+        final Long currentId = orderService.createOrder(current).getId();
+
+        assertEquals(1, orderRepository.backfillTotals());
+
+        final Order backfilled = orderRepository.findById(legacyId).get();
+        assertEquals(3, backfilled.getItemCount());
+        assertEquals(2 * foods.get(0).getPrice() + foods.get(1).getPrice(), backfilled.getTotalPrice());
+        assertEquals(foods.get(2).getPrice(), orderRepository.findById(currentId).get().getTotalPrice());
+        assertEquals(0, orderRepository.backfillTotals());
+    }
 }
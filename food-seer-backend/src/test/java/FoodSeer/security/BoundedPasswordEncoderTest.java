@@ -0,0 +1,66 @@
+package FoodSeer.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import FoodSeer.dto.PasswordHashStatsDto;
+import FoodSeer.exception.FoodSeerAPIException;
+
+/**
+ * Tests BoundedPasswordEncoder.
+ */
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void testEncodeAndMatchRecordStats() {
+        final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 2, 4, 10_000);
+        try {
+            final String hash = encoder.encode("secret");
+            assertTrue(hash.startsWith("$2a$04$"));
+            assertTrue(encoder.matches("secret", hash));
+            assertFalse(encoder.matches("wrong", hash));
+
+            final PasswordHashStatsDto stats = encoder.getStats();
+            assertEquals(4, stats.cost());
+            assertEquals(1, stats.encodes());
+            assertEquals(2, stats.matches());
+            assertEquals(0, stats.rejected());
+            assertTrue(stats.maxHashMillis() > 0);
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testUpgradeEncodingWhenCostChanges() {
+        final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 1, 10_000);
+        try {
+            assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+            assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+            assertEquals(2, encoder.getStats().upgrades());
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testSlowHashIsRejected() {
+        // A cost 12 hash takes far longer than the 1ms budget
+        final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(12, 1, 1, 1);
+        try {
+            final FoodSeerAPIException e = assertThrows(FoodSeerAPIException.class, () -> encoder.encode("secret"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+            assertEquals(1, encoder.getStats().rejected());
+        } finally {
+            encoder.shutdown();
+        }
+    }
+}
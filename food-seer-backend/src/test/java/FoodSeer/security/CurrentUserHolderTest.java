@@ -0,0 +1,118 @@
+package FoodSeer.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import FoodSeer.entity.User;
+import FoodSeer.repositories.UserRepository;
+import FoodSeer.service.UserService;
+
+/**
+ * Tests CurrentUserHolder.
+ */
+@SpringBootTest
+class CurrentUserHolderTest {
+
+    /** Holder under test */
+    @Autowired
+    private CurrentUserHolder currentUserHolder;
+
+    /** Reference to User service */
+    @Autowired
+    private UserService userService;
+
+    /** Reference to User repository */
+    @Autowired
+    private UserRepository userRepository;
+
+    /** User authenticated in each test */
+    private User customer;
+
+    /**
+     * Saves a user and authenticates as them with a claims-based principal.
+     */
+    @BeforeEach
+    void setUp() {
+        customer = userRepository.save(User.builder()
+                .username("holder-customer")
+                .email("holder@test.com")
+                .password("password")
+                .role("ROLE_CUSTOMER")
+                .build());
+        final AuthenticatedUser principal = new AuthenticatedUser(customer.getId(), customer.getUsername(),
+                customer.getRole());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(principal,
+                null, List.of(new SimpleGrantedAuthority(customer.getRole()))));
+    }
+
+    /**
+     * Clears the authentication and request and deletes the user.
+     */
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+        currentUserHolder.evict(customer.getId());
+        userRepository.deleteById(customer.getId());
+    }
+
+    /**
+     * Tests the user is resolved once and shared for the rest of the request.
+     */
+    @Test
+    void testUserIsHeldForTheRequest() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        final User first = userService.getCurrentUser();
+        assertNotNull(first);
+        assertEquals(customer.getId(), first.getId());
+        assertSame(first, userService.getCurrentUser());
+        assertNotNull(request.getAttribute(CurrentUserHolder.class.getName() + ".user"));
+    }
+
+    /**
+     * Tests later requests are answered from the cache by id until the user
+     * changes.
+     */
+    @Test
+    void testUserIsCachedAcrossRequestsUntilEvicted() {
+        // Outside a request only the cache by id applies
+        RequestContextHolder.resetRequestAttributes();
+
+        final User first = userService.getCurrentUser();
+        assertSame(first, userService.getCurrentUser());
+
+        final User updated = userService.updateUserPreferences(customer.getUsername(), "$$", "VEGAN");
+        final User reloaded = userService.getCurrentUser();
+        assertNotSame(first, reloaded);
+        assertEquals("VEGAN", reloaded.getDietaryRestrictions());
+        assertEquals(updated.getId(), reloaded.getId());
+    }
+
+    /**
+     * Tests unauthenticated requests have no current user.
+     */
+    @Test
+    void testNoUserWithoutAuthentication() {
+        SecurityContextHolder.clearContext();
+        assertNull(userService.getCurrentUser());
+    }
+}
@@ -6,12 +6,15 @@ import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.mock.web.MockFilterChain;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.test.util.ReflectionTestUtils;
+
+import FoodSeer.service.TokenRevocationService;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class JwtAuthenticationFilterTest {
@@ -22,10 +25,8 @@ class JwtAuthenticationFilterTest {
 
     @BeforeEach
     void setup() {
-        tokenProvider = new JwtTokenProvider();
-        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
-                "SuperSecretKeySuperSecretKey123456"); // 32+ chars for HS256
-        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationDate", 3600000L);
+        tokenProvider = new JwtTokenProvider(
+                "SuperSecretKeySuperSecretKey123456", 3600000L, 0); // 32+ chars for HS256
 
         userDetailsService = mock(UserDetailsService.class);
         filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService);
@@ -64,4 +65,61 @@ class JwtAuthenticationFilterTest {
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
+
+    @Test
+    void testFilterUsesClaimsWithoutLookup() throws Exception {
+        FoodSeer.entity.User user = FoodSeer.entity.User.builder()
+                .id(42L)
+                .username("staffuser")
+                .email("staff@test.com")
+                .password("password")
+                .role("ROLE_STAFF")
+                .build();
+        String token = tokenProvider.generateToken(user);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("staffuser", authentication.getName());
+        assertEquals("ROLE_STAFF", authentication.getAuthorities().iterator().next().getAuthority());
+        assertEquals(42L, ((AuthenticatedUser) authentication.getPrincipal()).id());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void testTokenOfRevokedUserIsRejected() throws Exception {
+        FoodSeer.entity.User user = FoodSeer.entity.User.builder()
+                .id(42L)
+                .username("leaving")
+                .email("leaving@test.com")
+                .password("password")
+                .role("ROLE_CUSTOMER")
+                .build();
+        String token = tokenProvider.generateToken(user);
+        TokenRevocationService revocations = mock(TokenRevocationService.class);
+        when(revocations.isUserRevoked(42L)).thenReturn(true);
+        filter = new JwtAuthenticationFilter(tokenProvider, userDetailsService, null, revocations);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        filter.doFilterInternal(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testInvalidTokenLeavesRequestUnauthenticated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer invalid.token");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilterInternal(request, new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
 }
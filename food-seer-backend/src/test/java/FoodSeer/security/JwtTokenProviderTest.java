@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.security.Keys;
 
 import javax.crypto.SecretKey;
@@ -17,11 +18,8 @@ class JwtTokenProviderTest {
 
     @BeforeEach
     void setup() {
-        jwtTokenProvider = new JwtTokenProvider();
-
-        // Set secret and expiration manually since @Value isn't used in test context
-        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "testsecret12345678901234567890123"); // 32+ chars
-        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationDate", 3600000L);
+        // Pass secret and expiration directly since @Value isn't used in test context
+        jwtTokenProvider = new JwtTokenProvider("testsecret12345678901234567890123", 3600000L, 0); // 32+ chars
     }
 
     @Test
@@ -40,7 +38,7 @@ class JwtTokenProviderTest {
 
     @Test
     void testKeyHandlesPlainTextSecret() {
-        SecretKey key = (SecretKey) ReflectionTestUtils.invokeMethod(jwtTokenProvider, "key");
+        SecretKey key = key("testsecret12345678901234567890123");
         assertNotNull(key);
     }
 
@@ -49,18 +47,14 @@ class JwtTokenProviderTest {
         // 64 hex chars = 32 bytes = 256 bits ✅
         String validHexSecret = "abcdef0123456789abcdef0123456789abcdef0123456789abcdef0123456789";
 
-        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", validHexSecret);
-
-        SecretKey key = (SecretKey) ReflectionTestUtils.invokeMethod(jwtTokenProvider, "key");
+        SecretKey key = key(validHexSecret);
         assertNotNull(key);
     }
 
     @Test
     void testKeyHandlesBase64Secret() {
         String base64Key = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0MTIz"; // base64("secretsecretsecret123")
-        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", base64Key);
-
-        SecretKey key = (SecretKey) ReflectionTestUtils.invokeMethod(jwtTokenProvider, "key");
+        SecretKey key = key(base64Key);
         assertNotNull(key);
     }
 
@@ -73,10 +67,8 @@ class JwtTokenProviderTest {
     void testHexBranchIsExecuted() {
         // Even-length valid hex — triggers if-block
         String hexSecret = "abcdef0123456789"; // 16 hex chars (8 bytes)
-        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", hexSecret);
-
         try {
-            SecretKey key = (SecretKey) ReflectionTestUtils.invokeMethod(jwtTokenProvider, "key");
+            SecretKey key = key(hexSecret);
             assertNotNull(key);
         } catch (Exception e) {
             // We EXPECT a WeakKeyException here due to small size, and that's OK.
@@ -85,4 +77,46 @@ class JwtTokenProviderTest {
         }
     }
 
+    @Test
+    void testTokenCarriesRoleAndUserId() {
+        FoodSeer.entity.User user = FoodSeer.entity.User.builder()
+                .id(7L)
+                .username("customer")
+                .email("customer@test.com")
+                .password("password")
+                .role("ROLE_CUSTOMER")
+                .build();
+
+        Claims claims = jwtTokenProvider.parseAndValidate(jwtTokenProvider.generateToken(user));
+
+        assertEquals("customer", claims.getSubject());
+        assertEquals("ROLE_CUSTOMER", claims.get(JwtTokenProvider.ROLE_CLAIM, String.class));
+        assertEquals(7L, claims.get(JwtTokenProvider.USER_ID_CLAIM, Number.class).longValue());
+    }
+
+    @Test
+    void testVerifiedTokensAreCached() {
+        jwtTokenProvider = new JwtTokenProvider("testsecret12345678901234567890123", 3600000L, 10);
+        String token = jwtTokenProvider.generateToken(new UsernamePasswordAuthenticationToken("testuser", null));
+
+        Claims first = jwtTokenProvider.parseAndValidate(token);
+        Claims second = jwtTokenProvider.parseAndValidate(token);
+
+        assertSame(first, second);
+        assertEquals("testuser", second.getSubject());
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThrows(Exception.class, () -> jwtTokenProvider.parseAndValidate(tampered));
+    }
+
+    @Test
+    void testSecretIsCheckedAtStartup() {
+        // A key too short for HS256 fails when the bean is built, not on the first request
+        assertThrows(Exception.class, () -> new JwtTokenProvider("abcdef0123456789", 3600000L, 0));
+    }
+
+    private static SecretKey key(String secret) {
+        return (SecretKey) ReflectionTestUtils.invokeMethod(JwtTokenProvider.class, "key", secret);
+    }
+
 }
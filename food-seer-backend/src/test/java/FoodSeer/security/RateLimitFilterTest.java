@@ -0,0 +1,100 @@
+package FoodSeer.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setup() {
+        final MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.rate-limit.chat.customer.requests-per-minute", "2")
+                .withProperty("app.rate-limit.chat.admin.requests-per-minute", "0");
+        filter = new RateLimitFilter(environment, true, 1000, 600000);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRejectsUserOverLimitWithRetryAfter() throws Exception {
+        authenticate(new AuthenticatedUser(7L, "customer", "ROLE_CUSTOMER"), "ROLE_CUSTOMER");
+
+        assertEquals(200, perform("/api/chat").getStatus());
+        assertEquals(200, perform("/api/chat").getStatus());
+
+        final MockHttpServletResponse rejected = perform("/api/chat");
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+
+        // Other groups and other users have their own buckets
+        assertEquals(200, perform("/api/orders/my-orders").getStatus());
+        authenticate(new AuthenticatedUser(8L, "other", "ROLE_CUSTOMER"), "ROLE_CUSTOMER");
+        assertEquals(200, perform("/api/chat").getStatus());
+    }
+
+    @Test
+    void testLimitsAreConfiguredPerRole() throws Exception {
+        authenticate("admin", "ROLE_ADMIN");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("/api/chat").getStatus());
+        }
+    }
+
+    @Test
+    void testSkipsUnlimitedPathsAndAnonymousRequests() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform("/api/chat").getStatus());
+        }
+        authenticate("customer", "ROLE_CUSTOMER");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform("/api/foods").getStatus());
+        }
+    }
+
+    @Test
+    void testDisabledFilterLetsEverythingThrough() throws Exception {
+        filter = new RateLimitFilter(new MockEnvironment()
+                .withProperty("app.rate-limit.chat.customer.requests-per-minute", "1"), false, 1000, 600000);
+        authenticate("customer", "ROLE_CUSTOMER");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform("/api/chat").getStatus());
+        }
+    }
+
+    private void authenticate(final Object principal, final String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private MockHttpServletResponse perform(final String path) throws Exception {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() == 200) {
+            assertNotNull(chain.getRequest());
+        } else {
+            assertNull(chain.getRequest());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,125 @@
+package FoodSeer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import FoodSeer.dto.AnalyticsDto;
+import FoodSeer.dto.OrderDto;
+import FoodSeer.entity.Food;
+import FoodSeer.event.OrderEvent;
+import FoodSeer.repositories.AnalyticsCheckpointRepository;
+import FoodSeer.service.impl.AnalyticsServiceImpl;
+
+/**
+ * Tests AnalyticsService and AnalyticsServiceImpl. The service is shared with
+ * other tests, so assertions compare before and after values.
+ */
+@SpringBootTest
+class AnalyticsServiceImplTest {
+
+    /** Reference to Analytics service */
+    @Autowired
+    private AnalyticsServiceImpl analyticsService;
+
+    /** Reference to Analytics checkpoint repository */
+    @Autowired
+    private AnalyticsCheckpointRepository analyticsCheckpointRepository;
+
+    /**
+     * Removes saved checkpoints after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        analyticsCheckpointRepository.deleteAll();
+    }
+
+    /**
+     * Builds an order containing the given food ids.
+     *
+     * @param totalPrice the order total
+     * @param foodIds    ids of the foods in the order
+     * @return the order
+     */
+    private static OrderDto order(final int totalPrice, final long... foodIds) {
+        final OrderDto order = new OrderDto(0L, "Order");
+        final List<Food> foods = new ArrayList<>();
+        for (final long foodId : foodIds) {
+            final Food food = new Food("FOOD" + foodId, 1, 5, new ArrayList<>());
+            food.setId(foodId);
+            foods.add(food);
+        }
+        order.setFoods(foods);
+        order.setTotalPrice(totalPrice);
+        return order;
+    }
+
+    /**
+     * Tests that created and fulfilled events update the counters.
+     */
+    @Test
+    void testCountersFollowOrderEvents() {
+        final long foodId = 900_001L;
+        final long userId = 900_002L;
+        final AnalyticsDto before = analyticsService.getAnalytics(1, 1000);
+
+        analyticsService.onOrderEvent(new OrderEvent(OrderEvent.Type.CREATED, userId, order(0, foodId)));
+        analyticsService.onOrderEvent(new OrderEvent(OrderEvent.Type.CREATED, userId, order(0, foodId)));
+        analyticsService.onOrderEvent(new OrderEvent(OrderEvent.Type.FULFILLED, userId, order(25, foodId, foodId)));
+
+        final AnalyticsDto after = analyticsService.getAnalytics(1, 1000);
+        assertEquals(before.ordersCreated() + 2, after.ordersCreated());
+        assertEquals(before.ordersFulfilled() + 1, after.ordersFulfilled());
+        assertEquals(before.totalRevenue() + 25, after.totalRevenue());
+        assertEquals(2L, after.unitsSoldByFood().get(foodId));
+        assertEquals(2L, after.topCustomers().get(userId));
+        assertEquals(1, after.revenueByHour().size());
+        assertEquals(before.revenueByHour().get(0).revenue() + 25, after.revenueByHour().get(0).revenue());
+    }
+
+    /**
+     * Tests that top customers are limited and ordered by order count.
+     */
+    @Test
+    void testTopCustomersAreOrdered() {
+        for (int i = 0; i < 50; i++) {
+            analyticsService.onOrderEvent(new OrderEvent(OrderEvent.Type.CREATED, 900_010L, order(0)));
+        }
+        for (int i = 0; i < 40; i++) {
+            analyticsService.onOrderEvent(new OrderEvent(OrderEvent.Type.CREATED, 900_011L, order(0)));
+        }
+
+        final List<Long> top = new ArrayList<>(analyticsService.getAnalytics(0, 2).topCustomers().values());
+        assertEquals(2, top.size());
+        assertTrue(top.get(0) >= top.get(1));
+        assertTrue(analyticsService.getAnalytics(0, 0).topCustomers().isEmpty());
+    }
+
+    /**
+     * Tests that restoring a checkpoint discards later changes.
+     */
+    @Test
+    void testCheckpointAndRestore() {
+        final long foodId = 900_020L;
+        analyticsService.onOrderEvent(new OrderEvent(OrderEvent.Type.FULFILLED, null, order(10, foodId)));
+        analyticsService.checkpoint();
+        final AnalyticsDto saved = analyticsService.getAnalytics(24, 10);
+
+        analyticsService.onOrderEvent(new OrderEvent(OrderEvent.Type.FULFILLED, null, order(10, foodId)));
+        assertEquals(2L, analyticsService.getAnalytics(24, 10).unitsSoldByFood().get(foodId));
+
+        analyticsService.restore();
+        final AnalyticsDto restored = analyticsService.getAnalytics(24, 10);
+        assertEquals(saved.ordersFulfilled(), restored.ordersFulfilled());
+        assertEquals(saved.totalRevenue(), restored.totalRevenue());
+        assertEquals(1L, restored.unitsSoldByFood().get(foodId));
+        assertEquals(saved.revenueByHour(), restored.revenueByHour());
+    }
+}
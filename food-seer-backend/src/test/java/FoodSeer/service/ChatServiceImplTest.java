@@ -0,0 +1,210 @@
+package FoodSeer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import FoodSeer.controller.ChatController;
+import FoodSeer.dto.ChatCacheStatsDto;
+import FoodSeer.dto.ChatRequestDto;
+import FoodSeer.entity.User;
+import FoodSeer.event.MenuChangedEvent;
+import FoodSeer.security.CurrentUserHolder;
+import FoodSeer.service.impl.ChatServiceImpl;
+import FoodSeer.util.CircuitBreaker;
+
+/**
+ * Tests ChatServiceImpl against a local stand-in for Ollama.
+ */
+class ChatServiceImplTest {
+
+    /** Stand-in Ollama server */
+    private HttpServer server;
+
+    /** Status the stand-in answers with */
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    /** Requests the stand-in has received */
+    private final AtomicInteger hits = new AtomicInteger();
+
+    /** Body of the last request the stand-in received */
+    private final AtomicReference<String> lastRequest = new AtomicReference<>();
+
+    /** Service under test */
+    private ChatServiceImpl chatService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/chat", this::answer);
+        server.start();
+        chatService = new ChatServiceImpl("http://127.0.0.1:" + server.getAddress().getPort() + "/api/chat",
+                "test-model", 1000, 2000, 5000, 5000, 2, 60000, 1 << 20, 60000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chatService.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void testSendMessageUsesConfiguredModel() {
+        assertEquals("Hello from test-model", chatService.sendMessage(new ChatRequestDto("hi")).getMessage());
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void testBreakerOpensAfterFailuresAndFailsFast() {
+        status.set(500);
+        assertTrue(chatService.sendMessage(new ChatRequestDto("hi")).getMessage().startsWith("Error"));
+        assertTrue(chatService.sendMessage(new ChatRequestDto("hi")).getMessage().startsWith("Error"));
+        assertEquals(CircuitBreaker.State.OPEN, chatService.getCircuitState());
+
+        // Ollama has recovered, but the breaker stays open for its open period
+        status.set(200);
+        assertTrue(chatService.sendMessage(new ChatRequestDto("hi")).getMessage().contains("unavailable"));
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void testRepeatedQuestionsAreAnsweredFromCache() {
+        assertEquals("Hello from test-model", chatService.sendMessage(new ChatRequestDto("Hi there!")).getMessage());
+        assertEquals("Hello from test-model", chatService.sendMessage(new ChatRequestDto("hi   THERE")).getMessage());
+        assertEquals(1, hits.get());
+
+        final ChatCacheStatsDto stats = chatService.getCacheStats();
+        assertEquals(1, stats.entries());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+        assertTrue(stats.bytes() > 0);
+    }
+
+    @Test
+    void testMenuChangeEmptiesCache() {
+        chatService.sendMessage(new ChatRequestDto("hi"));
+        chatService.onMenuChanged(new MenuChangedEvent(1L));
+        assertEquals(0, chatService.getCacheStats().entries());
+
+        chatService.sendMessage(new ChatRequestDto("hi"));
+        assertEquals(2, hits.get());
+        assertEquals(1, chatService.getCacheStats().catalogVersion());
+    }
+
+    @Test
+    void testDietaryRestrictionsAreSentAndKeyTheCache() {
+        final User user = User.builder().username("diner").email("diner@test.com").password("password")
+                .dietaryRestrictions(" Vegan,NUTS ").build();
+        final CurrentUserHolder currentUserHolder = mock(CurrentUserHolder.class);
+        when(currentUserHolder.get()).thenReturn(user);
+        ReflectionTestUtils.setField(chatService, "currentUserHolder", currentUserHolder);
+
+        chatService.sendMessage(new ChatRequestDto("hi"));
+        assertTrue(lastRequest.get().contains("The user's dietary restrictions: nuts, vegan."), lastRequest.get());
+
+        // Another profile is a different prompt, so it is not answered from the cache
+        user.setDietaryRestrictions("halal");
+        chatService.sendMessage(new ChatRequestDto("hi"));
+        assertTrue(lastRequest.get().contains("The user's dietary restrictions: halal."), lastRequest.get());
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void testErrorsAreNotCached() {
+        status.set(500);
+        chatService.sendMessage(new ChatRequestDto("hi"));
+        status.set(200);
+        assertEquals("Hello from test-model", chatService.sendMessage(new ChatRequestDto("hi")).getMessage());
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    void testNormalizeMessage() {
+        assertEquals("what should i eat", ChatServiceImpl.normalizeMessage("  What should I EAT?? "));
+        assertEquals("recommend food", ChatServiceImpl.normalizeMessage("recommend, food!"));
+        assertEquals("", ChatServiceImpl.normalizeMessage("?!"));
+    }
+
+    @Test
+    void testStreamRelaysTokens() throws Exception {
+        final ChatController controller = new ChatController();
+        ReflectionTestUtils.setField(controller, "chatService", chatService);
+        final MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        final MvcResult result = mvc.perform(post("/api/chat/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"hi\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        final MockHttpServletResponse response = result.getResponse();
+        for (int i = 0; i < 100 && !response.getContentAsString().contains("event:done"); i++) {
+            Thread.sleep(20);
+        }
+        final String events = response.getContentAsString();
+        assertTrue(events.contains("event:token\ndata:{\"message\":\"Hello\"}"), events);
+        assertTrue(events.contains("event:token\ndata:{\"message\":\" there\"}"), events);
+        assertTrue(events.contains("event:done\ndata:{\"message\":\"Hello there\"}"), events);
+
+        // The same question again is answered from the cache in one event
+        final MvcResult cached = mvc.perform(post("/api/chat/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"Hi\"}"))
+                .andReturn();
+        assertTrue(cached.getResponse().getContentAsString()
+                .contains("event:done\ndata:{\"message\":\"Hello there\"}"));
+        assertEquals(1, hits.get());
+    }
+
+    /**
+     * Answers like Ollama: one JSON object, or one per line when streaming.
+     *
+     * @param exchange the request
+     * @throws IOException if the answer cannot be written
+     */
+    private void answer(final HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        final String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        lastRequest.set(request);
+        final String body;
+        if (status.get() != 200) {
+            body = "{\"error\":\"model crashed\"}";
+        } else if (request.contains("\"stream\":true")) {
+            body = "{\"message\":{\"content\":\"Hello\"},\"done\":false}\n"
+                    + "{\"message\":{\"content\":\" there\"},\"done\":false}\n"
+                    + "{\"message\":{\"content\":\"\"},\"done\":true}\n";
+        } else {
+            final String model = request.replaceAll(".*\"model\":\"([^\"]*)\".*", "$1");
+            body = "{\"message\":{\"content\":\"Hello from " + model + "\"},\"done\":true}";
+        }
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status.get(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
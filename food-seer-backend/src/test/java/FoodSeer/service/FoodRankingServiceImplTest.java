@@ -0,0 +1,144 @@
+package FoodSeer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import FoodSeer.dto.RankedFoodDto;
+import FoodSeer.entity.Food;
+import FoodSeer.event.MenuChangedEvent;
+import FoodSeer.repositories.FoodRepository;
+import FoodSeer.service.impl.FoodRankingServiceImpl;
+
+/**
+ * Tests FoodRankingService and FoodRankingServiceImpl.
+ */
+@SpringBootTest
+@Transactional
+class FoodRankingServiceImplTest {
+
+    /** Reference to Food ranking service */
+    @Autowired
+    private FoodRankingService foodRankingService;
+
+    /** Reference to Food repository */
+    @Autowired
+    private FoodRepository foodRepository;
+
+    /**
+     * Saves a food with the given ratings.
+     *
+     * @param name   food name
+     * @param count  number of ratings
+     * @param rating average rating
+     * @return the saved food
+     */
+    private Food ratedFood(final String name, final int count, final double rating) {
+        final Food food = new Food(name, 5, 3, new ArrayList<>());
+        food.setNumberOfRatings(count);
+        food.setRatingSum(count * rating);
+        return foodRepository.save(food);
+    }
+
+    /**
+     * Tests that many good ratings outrank a single perfect one.
+     */
+    @Test
+    void testManyRatingsOutrankOnePerfectRating() {
+        final Food once = ratedFood("ONCE", 1, 5.0);
+        final Food popular = ratedFood("POPULAR", 500, 4.8);
+        final Food poor = ratedFood("POOR", 20, 2.0);
+        final List<Long> ids = List.of(once.getId(), popular.getId(), poor.getId());
+        try {
+            foodRankingService.refresh(ids);
+
+            final List<Long> ranked = foodRankingService.getTopFoods(1000).stream()
+                    .map(RankedFoodDto::id)
+                    .filter(ids::contains)
+                    .toList();
+            assertEquals(List.of(popular.getId(), once.getId(), poor.getId()), ranked);
+
+            final RankedFoodDto top = foodRankingService.getTopFoods(1000).stream()
+                    .filter(entry -> entry.id().equals(popular.getId()))
+                    .findFirst().get();
+            assertEquals(4.8, top.rating(), 1e-9);
+            assertEquals(500, top.numberOfRatings());
+            assertTrue(top.score() < 4.8);
+        } finally {
+            ids.forEach(foodRankingService::remove);
+        }
+    }
+
+    /**
+     * Tests that a new rating moves a food and that limits are respected.
+     */
+    @Test
+    void testRefreshMovesFood() {
+        final Food first = ratedFood("FIRST", 10, 4.0);
+        final Food second = ratedFood("SECOND", 10, 3.5);
+        final List<Long> ids = List.of(first.getId(), second.getId());
+        try {
+            foodRankingService.refresh(ids);
+            assertEquals(1, foodRankingService.getTopFoods(1).size());
+
+            second.setNumberOfRatings(20);
+            second.setRatingSum(20 * 5.0);
+            foodRepository.save(second);
+            foodRankingService.refresh(List.of(second.getId()));
+
+            final List<Long> ranked = foodRankingService.getTopFoods(1000).stream()
+                    .map(RankedFoodDto::id)
+                    .filter(ids::contains)
+                    .toList();
+            assertEquals(List.of(second.getId(), first.getId()), ranked);
+
+            foodRankingService.remove(second.getId());
+            assertTrue(foodRankingService.getTopFoods(1000).stream()
+                    .noneMatch(entry -> entry.id().equals(second.getId())));
+        } finally {
+            ids.forEach(foodRankingService::remove);
+        }
+    }
+
+    /**
+     * Tests that menu changes reload edited foods and drop deleted ones.
+     */
+    @Test
+    void testMenuChangesUpdateRanking() {
+        final Food food = ratedFood("EDITED", 10, 4.0);
+        try {
+            foodRankingService.refresh(List.of(food.getId()));
+
+            food.setRatingSum(10 * 2.0);
+            foodRepository.save(food);
+            ((FoodRankingServiceImpl) foodRankingService).onMenuChanged(new MenuChangedEvent(food.getId()));
+            assertEquals(2.0, rankedEntry(food.getId()).rating(), 1e-9);
+
+            foodRepository.delete(food);
+            ((FoodRankingServiceImpl) foodRankingService).onMenuChanged(new MenuChangedEvent(food.getId()));
+            assertNull(rankedEntry(food.getId()));
+        } finally {
+            foodRankingService.remove(food.getId());
+        }
+    }
+
+    /**
+     * Finds the ranking entry of a food.
+     *
+     * @param foodId id of the food
+     * @return the entry, or null if the food is not ranked
+     */
+    private RankedFoodDto rankedEntry(final Long foodId) {
+        return foodRankingService.getTopFoods(1000).stream()
+                .filter(entry -> entry.id().equals(foodId))
+                .findFirst().orElse(null);
+    }
+}
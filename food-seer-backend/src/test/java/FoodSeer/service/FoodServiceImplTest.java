@@ -1,16 +1,33 @@
 package FoodSeer.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import FoodSeer.dto.FoodDto;
 import FoodSeer.dto.InventoryDto;
+import FoodSeer.entity.Food;
+import FoodSeer.entity.Order;
+import FoodSeer.entity.User;
 import FoodSeer.exception.ResourceNotFoundException;
+import FoodSeer.repositories.FoodRepository;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.RatedItemRepository;
+import FoodSeer.repositories.UserRepository;
 
 @SpringBootTest
 @Transactional
@@ -22,6 +39,18 @@ public class FoodServiceImplTest {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RatedItemRepository ratedItemRepository;
+
     @BeforeEach
     public void setUp() throws Exception {
         foodService.deleteAllFoods();
@@ -235,5 +264,119 @@ public class FoodServiceImplTest {
         assertTrue(containsTea);
     }
 
+    // --- Rating Tests ------------------------------------------------
+
+    private User rater() {
+        return userRepository.save(User.builder()
+                .username("rater")
+                .email("rater@test.com")
+                .password("password")
+                .role("ROLE_CUSTOMER")
+                .build());
+    }
+
+    private Long fulfilledOrder(User user, Long foodId) {
+        Order order = new Order(null, "Rated");
+        order.setUser(user);
+        order.setFoods(new ArrayList<>(List.of(foodRepository.findById(foodId).get())));
+        order.setIsFulfilled(true);
+        return orderRepository.saveAndFlush(order).getId();
+    }
+
+    @Test
+    public void testRateFoodKeepsExactAverage() {
+        User user = rater();
+        FoodDto food = foodService.createFood(new FoodDto("COFFEE", 5, 3, Arrays.asList("MILK")));
+
+        foodService.rateFoodInOrder(fulfilledOrder(user, food.getId()), food.getId(), 5.0);
+        foodService.rateFoodInOrder(fulfilledOrder(user, food.getId()), food.getId(), 4.0);
+        FoodDto rated = foodService.rateFoodInOrder(fulfilledOrder(user, food.getId()), food.getId(), 1.0);
+
+        assertEquals(3, rated.getNumberOfRatings());
+        assertEquals(10.0 / 3, rated.getRating());
+    }
+
+    @Test
+    public void testUpdateFoodKeepsRatings() {
+        User user = rater();
+        FoodDto food = foodService.createFood(new FoodDto("COFFEE", 5, 3, Arrays.asList("MILK")));
+        foodService.rateFoodInOrder(fulfilledOrder(user, food.getId()), food.getId(), 5.0);
+        foodService.rateFoodInOrder(fulfilledOrder(user, food.getId()), food.getId(), 2.0);
+
+        FoodDto updated = foodService.updateFood("COFFEE", 20, 4, Arrays.asList("MILK", "SUGAR"));
+        assertFood(updated, "COFFEE", 20, 4, Arrays.asList("MILK", "SUGAR"));
+        assertEquals(2, updated.getNumberOfRatings());
+        assertEquals(3.5, updated.getRating());
+        assertEquals(3.5, foodService.getFoodById(food.getId()).getRating());
+    }
+
+    @Test
+    public void testRateFoodTwiceInOrderFails() {
+        FoodDto food = foodService.createFood(new FoodDto("COFFEE", 5, 3, Arrays.asList("MILK")));
+        Long orderId = fulfilledOrder(rater(), food.getId());
 
+        foodService.rateFoodInOrder(orderId, food.getId(), 5.0);
+        assertThrows(IllegalStateException.class, () -> foodService.rateFoodInOrder(orderId, food.getId(), 1.0));
+        assertEquals(1, foodService.getFoodById(food.getId()).getNumberOfRatings());
+    }
+
+    @Test
+    public void testRateOrderValidatesBeforeWriting() {
+        User user = rater();
+        FoodDto coffee = foodService.createFood(new FoodDto("COFFEE", 5, 3, Arrays.asList("MILK")));
+        FoodDto tea = foodService.createFood(new FoodDto("TEA", 5, 2, Arrays.asList("NONE")));
+        Long orderId = fulfilledOrder(user, coffee.getId());
+
+        Map<Long, Double> ratings = new HashMap<>();
+        ratings.put(coffee.getId(), 5.0);
+        ratings.put(tea.getId(), 4.0);
+        assertThrows(IllegalArgumentException.class, () -> foodService.rateOrder(orderId, ratings));
+        assertEquals(0, foodService.getFoodById(coffee.getId()).getNumberOfRatings());
+
+        ratings.remove(tea.getId());
+        List<FoodDto> rated = foodService.rateOrder(orderId, ratings);
+        assertEquals(1, rated.size());
+        assertEquals(5.0, rated.get(0).getRating());
+        assertEquals(List.of(coffee.getId()), ratedItemRepository.findFoodIdsByOrderId(orderId));
+        assertEquals(5.0, ratedItemRepository.findAll().stream()
+                .filter(item -> item.getOrderId().equals(orderId))
+                .findFirst().get().getRating());
+        assertThrows(IllegalArgumentException.class, () -> foodService.rateOrder(orderId, new HashMap<>()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testConcurrentRatingsAreNotLost() throws Exception {
+        // Ratings run on other threads, so this test commits its data
+        User user = rater();
+        Food food = foodRepository.save(new Food("COFFEE", 5, 3, Arrays.asList("MILK")));
+        int ratings = 40;
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ratings; i++) {
+            orderIds.add(fulfilledOrder(user, food.getId()));
+        }
+
+        try {
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            CountDownLatch start = new CountDownLatch(1);
+            for (Long orderId : orderIds) {
+                pool.submit(() -> {
+                    start.await();
+                    return foodService.rateFoodInOrder(orderId, food.getId(), 4.0);
+                });
+            }
+            start.countDown();
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+            FoodDto rated = foodService.getFoodById(food.getId());
+            assertEquals(ratings, rated.getNumberOfRatings());
+            assertEquals(4.0, rated.getRating());
+        } finally {
+            ratedItemRepository.deleteAll();
+            orderRepository.deleteAll();
+            foodRepository.delete(food);
+            userRepository.delete(user);
+        }
+    }
 }
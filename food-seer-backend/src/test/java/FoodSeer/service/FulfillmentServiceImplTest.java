@@ -0,0 +1,214 @@
+package FoodSeer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import FoodSeer.dto.FulfillmentJobDto;
+import FoodSeer.dto.OrderDto;
+import FoodSeer.entity.Food;
+import FoodSeer.entity.User;
+import FoodSeer.exception.ResourceNotFoundException;
+import FoodSeer.repositories.FoodRepository;
+import FoodSeer.repositories.InventoryRepository;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.UserRepository;
+import FoodSeer.service.impl.FulfillmentServiceImpl;
+
+/**
+ * Tests FulfillmentService and FulfillmentServiceImpl. Jobs run on other
+ * threads, so these tests commit their data instead of running in a
+ * rolled-back transaction.
+ */
+@SpringBootTest
+class FulfillmentServiceImplTest {
+
+    /** Reference to Fulfillment service */
+    @Autowired
+    private FulfillmentService fulfillmentService;
+
+    /** Reference to Order service */
+    @Autowired
+    private OrderService orderService;
+
+    /** Reference to Order repository */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** Reference to Food repository */
+    @Autowired
+    private FoodRepository foodRepository;
+
+    /** Reference to Inventory repository */
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /** Reference to User repository */
+    @Autowired
+    private UserRepository userRepository;
+
+    /** Commits test data so job threads can see it */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Clears the database before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        tearDown();
+        userRepository.save(User.builder()
+                .username("customer")
+                .email("customer@test.com")
+                .password("password")
+                .role("ROLE_CUSTOMER")
+                .build());
+    }
+
+    /**
+     * Removes committed data after each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        orderRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        foodRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Places an order for the given foods as the current user.
+     *
+     * @param name  the order name
+     * @param foods the foods to order
+     * @return the saved order
+     */
+    private OrderDto placeOrder(final String name, final Food... foods) {
+        final OrderDto orderDto = new OrderDto(0L, name);
+        orderDto.setFoods(new ArrayList<>(List.of(foods)));
+        return transactionTemplate.execute(status -> orderService.createOrder(orderDto));
+    }
+
+    /**
+     * Polls a job until it finishes.
+     *
+     * @param jobId the job id
+     * @return the finished job
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private FulfillmentJobDto await(final String jobId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            final FulfillmentJobDto job = fulfillmentService.getJob(jobId);
+            if (job.isDone()) {
+                return job;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+
+    /**
+     * Tests that an accepted job fulfills the order and deducts stock.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Test
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testSubmitFulfillsOrder() throws InterruptedException {
+        final Food coffee = foodRepository.save(new Food("COFFEE", 3, 5, new ArrayList<>()));
+        final OrderDto order = placeOrder("Coffee", coffee, coffee);
+
+        final FulfillmentJobDto accepted = fulfillmentService.submit(order.getId());
+        assertEquals(order.getId(), accepted.orderId());
+
+        final FulfillmentJobDto done = await(accepted.jobId());
+        assertEquals(FulfillmentJobDto.Status.SUCCEEDED, done.status());
+        assertTrue(done.order().getIsFulfilled());
+        assertEquals(1, foodRepository.findById(coffee.getId()).get().getAmount());
+
+        assertThrows(IllegalStateException.class, () -> fulfillmentService.submit(order.getId()));
+    }
+
+    /**
+     * Tests that jobs on the same food run in the order they were accepted.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Test
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testJobsOnSameFoodRunInOrder() throws InterruptedException {
+        final Food cake = foodRepository.save(new Food("CAKE", 1, 5, new ArrayList<>()));
+        final OrderDto first = placeOrder("First", cake);
+        final OrderDto second = placeOrder("Second", cake);
+
+        final FulfillmentJobDto firstJob = fulfillmentService.submit(first.getId());
+        final FulfillmentJobDto secondJob = fulfillmentService.submit(second.getId());
+
+        assertEquals(FulfillmentJobDto.Status.SUCCEEDED, await(firstJob.jobId()).status());
+        final FulfillmentJobDto failed = await(secondJob.jobId());
+        assertEquals(FulfillmentJobDto.Status.FAILED, failed.status());
+        assertTrue(failed.message().startsWith("Not enough stock"));
+    }
+
+    /**
+     * Tests that a job racing a direct fulfilment of the same order takes
+     * stock once, and the loser fails.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Test
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testJobRacingDirectFulfilmentTakesStockOnce() throws InterruptedException {
+        final Food tea = foodRepository.save(new Food("TEA", 2, 5, new ArrayList<>()));
+        final OrderDto order = placeOrder("Tea", tea);
+
+        final FulfillmentJobDto accepted = fulfillmentService.submit(order.getId());
+        boolean direct;
+        try {
+            orderService.fulfillOrder(order.getId());
+            direct = true;
+        } catch (final IllegalStateException e) {
+            direct = false;
+        }
+
+        final FulfillmentJobDto done = await(accepted.jobId());
+        if (direct) {
+            assertEquals(FulfillmentJobDto.Status.FAILED, done.status());
+            assertEquals("Order is already fulfilled", done.message());
+        } else {
+            assertEquals(FulfillmentJobDto.Status.SUCCEEDED, done.status());
+        }
+        assertEquals(1, foodRepository.findById(tea.getId()).get().getAmount());
+    }
+
+    /**
+     * Tests unknown orders and jobs.
+     */
+    @Test
+    void testUnknownOrderAndJob() {
+        assertThrows(ResourceNotFoundException.class, () -> fulfillmentService.submit(Long.MAX_VALUE));
+        assertThrows(ResourceNotFoundException.class, () -> fulfillmentService.getJob("missing"));
+    }
+
+    /**
+     * Tests that requests are rejected when no slots are free.
+     */
+    @Test
+    void testRejectsWhenFull() {
+        final FulfillmentServiceImpl full = new FulfillmentServiceImpl(0, 60, 100);
+        assertThrows(RejectedExecutionException.class, () -> full.submit(1L));
+        full.shutdown();
+    }
+}
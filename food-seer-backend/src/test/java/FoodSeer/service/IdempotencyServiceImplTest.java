@@ -0,0 +1,138 @@
+package FoodSeer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import FoodSeer.entity.IdempotencyRecord;
+import FoodSeer.repositories.IdempotencyRecordRepository;
+
+/**
+ * Tests IdempotencyService and IdempotencyServiceImpl. Each call commits its
+ * own rows, as it does behind a controller, so the tests clear the table
+ * themselves.
+ */
+@SpringBootTest
+class IdempotencyServiceImplTest {
+
+    /** Reference to Idempotency service */
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    /** Reference to Idempotency record repository */
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    /** Number of times the action under test ran */
+    private final AtomicInteger runs = new AtomicInteger();
+
+    /**
+     * Removes the stored keys.
+     */
+    @AfterEach
+    public void tearDown() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    /**
+     * Tests that a stored response keeps its key for the full time-to-live.
+     */
+    @Test
+    void testStoredResponseExtendsLease() {
+        idempotencyService.execute("lease-test", "test", "request", String.class, () -> run("done"));
+
+        final IdempotencyRecord record = idempotencyRecordRepository.findById(id("lease-test")).get();
+        assertEquals(200, record.getStatus());
+        assertTrue(record.getExpiresAt().isAfter(LocalDateTime.now().plusHours(1)));
+    }
+
+    /**
+     * Tests that a key is released when the response cannot be stored, so
+     * the client can retry.
+     */
+    @Test
+    void testKeyReleasedWhenResponseCannotBeStored() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("unstorable-test", "test",
+                "request", Unserializable.class, () -> ResponseEntity.ok(new Unserializable())));
+        assertTrue(idempotencyRecordRepository.findById(id("unstorable-test")).isEmpty());
+
+        final ResponseEntity<String> retry = idempotencyService.execute("unstorable-test", "test", "request",
+                String.class, () -> run("done"));
+        assertEquals("done", retry.getBody());
+        assertEquals(1, runs.get());
+    }
+
+    /**
+     * Tests that an in-progress key left by a dead node is taken over once
+     * its lease has expired.
+     */
+    @Test
+    void testExpiredLeaseIsTakenOver() {
+        final LocalDateTime past = LocalDateTime.now().minusMinutes(5);
+        idempotencyRecordRepository.save(
+                new IdempotencyRecord(id("abandoned-test"), "hash", past, past.plusMinutes(1)));
+
+        final ResponseEntity<String> response = idempotencyService.execute("abandoned-test", "test", "request",
+                String.class, () -> run("done"));
+        assertEquals("done", response.getBody());
+        assertNull(response.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals(1, runs.get());
+    }
+
+    /**
+     * Counts a run of the action and answers with the given body.
+     *
+     * @param body the response body
+     * @return the response
+     */
+    private ResponseEntity<String> run(final String body) {
+        runs.incrementAndGet();
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Returns the stored id of a key sent by an anonymous caller to the test
+     * scope.
+     *
+     * @param key the client's key
+     * @return the hashed id
+     * @throws IllegalStateException if SHA-256 is unavailable
+     */
+    private static String id(final String key) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(("anonymous\ntest\n" + key)
+                    .getBytes(StandardCharsets.UTF_8)));
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Response body that cannot be written as JSON.
+     */
+    static class Unserializable {
+
+        /**
+         * Fails whenever the body is serialized.
+         *
+         * @return never
+         */
+        public String getValue() {
+            throw new UnsupportedOperationException("not serializable");
+        }
+    }
+}
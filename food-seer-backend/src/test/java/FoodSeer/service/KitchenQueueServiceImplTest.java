@@ -0,0 +1,209 @@
+package FoodSeer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import FoodSeer.dto.KitchenTicketDto;
+import FoodSeer.dto.OrderDto;
+import FoodSeer.entity.Food;
+import FoodSeer.entity.User;
+import FoodSeer.repositories.FoodRepository;
+import FoodSeer.repositories.InventoryRepository;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.UserRepository;
+
+/**
+ * Tests KitchenQueueService and KitchenQueueServiceImpl. The queue follows
+ * committed orders only, so these tests run without a test transaction and
+ * clear the database themselves.
+ */
+@SpringBootTest
+class KitchenQueueServiceImplTest {
+
+    /** Reference to Kitchen queue service */
+    @Autowired
+    private KitchenQueueService kitchenQueueService;
+
+    /** Reference to Order service */
+    @Autowired
+    private OrderService orderService;
+
+    /** Reference to Order repository */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** Reference to Food repository */
+    @Autowired
+    private FoodRepository foodRepository;
+
+    /** Reference to Inventory repository */
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /** Reference to User repository */
+    @Autowired
+    private UserRepository userRepository;
+
+    /** Food used in test orders */
+    private Food coffee;
+
+    /**
+     * Clears the database and the queue before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        clearDatabase();
+
+        userRepository.save(User.builder()
+                .username("customer")
+                .email("customer@test.com")
+                .password("password")
+                .role("ROLE_CUSTOMER")
+                .build());
+
+        coffee = foodRepository.save(new Food("COFFEE", 10, 5, new ArrayList<>()));
+        kitchenQueueService.rebuild();
+    }
+
+    /**
+     * Removes the committed orders so later test classes start clean.
+     */
+    @AfterEach
+    public void tearDown() {
+        clearDatabase();
+        kitchenQueueService.rebuild();
+    }
+
+    /**
+     * Deletes orders, inventory, foods and users.
+     */
+    private void clearDatabase() {
+        orderRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        foodRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Places an order for one coffee as the current user.
+     *
+     * @param name the order name
+     * @return the saved order
+     */
+    private OrderDto placeOrder(final String name) {
+        final OrderDto orderDto = new OrderDto(0L, name);
+        orderDto.setFoods(new ArrayList<>(List.of(coffee)));
+        return orderService.createOrder(orderDto);
+    }
+
+    /**
+     * Tests that new orders are queued oldest first and that priority wins over age.
+     */
+    @Test
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testClaimOrderByPriorityThenAge() {
+        final OrderDto first = placeOrder("First");
+        final OrderDto second = placeOrder("Second");
+        final OrderDto urgent = placeOrder("Urgent");
+
+        assertEquals(3, kitchenQueueService.getQueue().size());
+
+        kitchenQueueService.reprioritize(urgent.getId(), 5);
+
+        assertEquals(urgent.getId(), kitchenQueueService.claimNext("staff").orderId());
+        assertEquals(first.getId(), kitchenQueueService.claimNext("staff").orderId());
+        assertEquals(second.getId(), kitchenQueueService.claimNext("staff").orderId());
+        assertNull(kitchenQueueService.claimNext("staff"));
+
+        // Claimed tickets stay visible until they are completed
+        assertEquals(3, kitchenQueueService.getQueue().size());
+    }
+
+    /**
+     * Tests releasing a claimed order puts it back at its original position.
+     */
+    @Test
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testReleaseOrder() {
+        final OrderDto first = placeOrder("First");
+        placeOrder("Second");
+
+        final KitchenTicketDto claimed = kitchenQueueService.claimNext("staff");
+        assertEquals(first.getId(), claimed.orderId());
+        assertEquals("staff", claimed.claimedBy());
+
+        assertThrows(IllegalStateException.class, () -> kitchenQueueService.release(first.getId(), "other"));
+
+        final KitchenTicketDto released = kitchenQueueService.release(first.getId(), "staff");
+        assertNull(released.claimedBy());
+        assertEquals(first.getId(), kitchenQueueService.claimNext("other").orderId());
+    }
+
+    /**
+     * Tests completing a claimed order fulfills it and removes it from the queue.
+     */
+    @Test
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testCompleteOrder() {
+        final OrderDto order = placeOrder("Order");
+
+        assertThrows(IllegalStateException.class, () -> kitchenQueueService.complete(order.getId(), "staff"));
+
+        kitchenQueueService.claimNext("staff");
+        final OrderDto fulfilled = kitchenQueueService.complete(order.getId(), "staff");
+
+        assertTrue(fulfilled.getIsFulfilled());
+        assertTrue(kitchenQueueService.getQueue().isEmpty());
+        assertEquals(9, foodRepository.findById(coffee.getId()).get().getAmount());
+    }
+
+    /**
+     * Tests that concurrent claims never hand out the same order twice.
+     */
+    @Test
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testConcurrentClaimsAreExclusive() throws InterruptedException {
+        final int orders = 50;
+        for (int i = 0; i < orders; i++) {
+            placeOrder("Order" + i);
+        }
+
+        final Set<Long> claimedIds = ConcurrentHashMap.newKeySet();
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        final CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            final String staff = "staff" + t;
+            pool.submit(() -> {
+                start.await();
+                KitchenTicketDto ticket;
+                while ((ticket = kitchenQueueService.claimNext(staff)) != null) {
+                    assertTrue(claimedIds.add(ticket.orderId()));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(orders, claimedIds.size());
+    }
+}
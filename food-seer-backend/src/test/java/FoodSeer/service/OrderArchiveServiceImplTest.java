@@ -0,0 +1,157 @@
+package FoodSeer.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.annotation.Transactional;
+
+import FoodSeer.dto.OrderDto;
+import FoodSeer.entity.Food;
+import FoodSeer.entity.Order;
+import FoodSeer.entity.User;
+import FoodSeer.repositories.ArchivedOrderRepository;
+import FoodSeer.repositories.FoodRepository;
+import FoodSeer.repositories.InventoryRepository;
+import FoodSeer.repositories.OrderRepository;
+import FoodSeer.repositories.UserRepository;
+
+/**
+ * Tests OrderArchiveService and OrderArchiveServiceImpl.
+ */
+@SpringBootTest
+class OrderArchiveServiceImplTest {
+
+    /** Reference to Order archive service */
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    /** Reference to Order service */
+    @Autowired
+    private OrderService orderService;
+
+    /** Reference to Order repository */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** Reference to Archived order repository */
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    /** Reference to Food repository */
+    @Autowired
+    private FoodRepository foodRepository;
+
+    /** Reference to Inventory repository */
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    /** Reference to User repository */
+    @Autowired
+    private UserRepository userRepository;
+
+    /** Food used in test orders */
+    private Food coffee;
+
+    /**
+     * Clears the database before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        archivedOrderRepository.deleteAll();
+        orderRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        foodRepository.deleteAll();
+        userRepository.deleteAll();
+
+        userRepository.save(User.builder()
+                .username("customer")
+                .email("customer@test.com")
+                .password("password")
+                .role("ROLE_CUSTOMER")
+                .build());
+
+        coffee = foodRepository.save(new Food("COFFEE", 10, 5, new ArrayList<>()));
+    }
+
+    /**
+     * Places and fulfills an order, then backdates its fulfillment time.
+     *
+     * @param name         the order name
+     * @param daysAgo      how many days ago the order was fulfilled
+     * @return the fulfilled order
+     */
+    private OrderDto fulfilledOrder(final String name, final int daysAgo) {
+        final OrderDto orderDto = new OrderDto(0L, name);
+        orderDto.setFoods(new ArrayList<>(List.of(coffee)));
+        final OrderDto created = orderService.createOrder(orderDto);
+        orderService.fulfillOrder(created.getId());
+
+        final Order order = orderRepository.findById(created.getId()).orElseThrow();
+        order.setFulfilledAt(LocalDateTime.now().minusDays(daysAgo));
+        orderRepository.save(order);
+        return created;
+    }
+
+    /**
+     * Tests that only old fulfilled orders are moved to the archive.
+     */
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testArchivesOnlyOldFulfilledOrders() {
+        final OrderDto old = fulfilledOrder("Old", 200);
+        final OrderDto recent = fulfilledOrder("Recent", 1);
+        final OrderDto pendingDto = new OrderDto(0L, "Pending");
+        pendingDto.setFoods(new ArrayList<>(List.of(coffee)));
+        orderService.createOrder(pendingDto);
+
+        assertEquals(1, orderArchiveService.archiveOrdersFulfilledBefore(LocalDateTime.now().minusDays(90)));
+
+        assertFalse(orderRepository.existsById(old.getId()));
+        assertTrue(archivedOrderRepository.existsById(old.getId()));
+        assertTrue(orderRepository.existsById(recent.getId()));
+        assertEquals(2, orderRepository.count());
+
+        // Running again finds nothing new
+        assertEquals(0, orderArchiveService.archiveOrdersFulfilledBefore(LocalDateTime.now().minusDays(90)));
+    }
+
+    /**
+     * Tests that history reads return archived orders along with hot ones.
+     */
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testHistoryReadsBothTiers() {
+        final OrderDto old = fulfilledOrder("Old", 200);
+        fulfilledOrder("Recent", 1);
+        orderArchiveService.archiveOrdersFulfilledBefore(LocalDateTime.now().minusDays(90));
+
+        assertEquals(2, orderService.getCurrentUserOrders().size());
+        assertEquals(2, orderService.getCurrentUserFulfilledOrders().size());
+        assertEquals(2, orderService.getAllFulfilledOrders().size());
+        assertEquals(0, orderService.getAllUnfulfilledOrders().size());
+        assertEquals(2, orderService.getCurrentUserOrderViews().size());
+        assertEquals(2, orderService.getOrderViews(true).size());
+        assertEquals(old.getId(), orderService.getCurrentUserOrderViews(true).get(0).id());
+        assertEquals("COFFEE", orderService.getAllOrderViews().get(0).foods().get(0).foodName());
+
+        final OrderDto archived = orderService.getOrderById(old.getId());
+        assertEquals("Old", archived.getName());
+        assertTrue(archived.getIsFulfilled());
+        assertEquals(1, archived.getFoods().size());
+        assertEquals(coffee.getId(), archived.getFoods().get(0).getId());
+        assertEquals("COFFEE", archived.getFoods().get(0).getFoodName());
+        assertEquals(5, archived.getFoods().get(0).getPrice());
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
@@ -374,4 +375,65 @@ class OrderServiceImplTest {
         assertNotSame(orderDto.getFoods().get(1), mappedOrder.getFoods().get(1));
     }
 
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testCreateOrderStoresTotalsAndPriceSnapshot() {
+        Food tea = foodRepository.save(new Food("TEA", 10, 3, new ArrayList<>()));
+        Food scone = foodRepository.save(new Food("SCONE", 10, 4, new ArrayList<>()));
+
+        OrderDto orderDto = new OrderDto(0L, "TeaTime");
+        orderDto.setFoods(new ArrayList<>(List.of(tea, tea, scone)));
+        OrderDto saved = orderService.createOrder(orderDto);
+
+        assertEquals(10, saved.getTotalPrice());
+        assertEquals(3, saved.getItemCount());
+
+        // A later price change must not alter the order
+        tea.setPrice(30);
+        foodRepository.save(tea);
+
+        OrderDto reloaded = orderService.getOrderById(saved.getId());
+        assertEquals(10, reloaded.getTotalPrice());
+        assertEquals(3, reloaded.getFoods().get(0).getPrice());
+
+        var view = orderService.getCurrentUserOrderViews().get(0);
+        assertEquals(10, view.totalPrice());
+        assertTrue(view.foods().stream().allMatch(line -> line.price() == (line.id().equals(tea.getId()) ? 3 : 4)));
+
+        var summary = orderService.getCurrentUserOrderSummaries().get(0);
+        assertEquals(saved.getId(), summary.id());
+        assertEquals(10, summary.totalPrice());
+        assertEquals(3, summary.itemCount());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(username = "customer", roles = "CUSTOMER")
+    void testGetCurrentUserOrderPage() {
+        Food bagel = foodRepository.save(new Food("BAGEL", 10, 2, new ArrayList<>()));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            OrderDto orderDto = new OrderDto(0L, "Page" + i);
+            orderDto.setFoods(new ArrayList<>(List.of(bagel)));
+            ids.add(orderService.createOrder(orderDto).getId());
+        }
+        orderService.fulfillOrder(ids.get(1));
+
+        var first = orderService.getCurrentUserOrderPage(null, null, null, 2);
+        assertEquals(List.of(ids.get(2), ids.get(1)), first.orders().stream().map(o -> o.id()).toList());
+        assertEquals(ids.get(1), first.nextBefore());
+
+        var second = orderService.getCurrentUserOrderPage(null, first.nextBefore(), null, 2);
+        assertEquals(List.of(ids.get(0)), second.orders().stream().map(o -> o.id()).toList());
+        assertEquals(null, second.nextBefore());
+
+        var newer = orderService.getCurrentUserOrderPage(null, null, ids.get(1), 20);
+        assertEquals(List.of(ids.get(2)), newer.orders().stream().map(o -> o.id()).toList());
+
+        var pending = orderService.getCurrentUserOrderPage(false, null, null, 20);
+        assertEquals(List.of(ids.get(2), ids.get(0)), pending.orders().stream().map(o -> o.id()).toList());
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.getCurrentUserOrderPage(null, null, null, 0));
+    }
 }
@@ -0,0 +1,112 @@
+package FoodSeer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests BoundedTtlCache.
+ */
+class BoundedTtlCacheTest {
+
+    @Test
+    void testGetAndPut() {
+        final BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 60_000);
+        cache.put("a", 1);
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+
+        cache.remove("a");
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        final BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(2, 60_000);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a"); // "b" is now the least recently used
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    void testEntriesExpire() throws InterruptedException {
+        final BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 60_000);
+        cache.put("short", 1, 20);
+        cache.put("long", 2);
+        Thread.sleep(50);
+
+        assertNull(cache.get("short"));
+        assertEquals(2, cache.get("long"));
+
+        cache.put("gone", 3, 0);
+        assertNull(cache.get("gone"));
+    }
+
+    @Test
+    void testGetOrCreateKeepsUsedEntries() throws InterruptedException {
+        final BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 100);
+        assertEquals(1, cache.getOrCreate("a", k -> 1));
+        assertEquals(1, cache.getOrCreate("a", k -> 2));
+
+        // Each use restarts the time-to-live
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(40);
+            assertEquals(1, cache.getOrCreate("a", k -> 3));
+        }
+        Thread.sleep(150);
+        assertEquals(4, cache.getOrCreate("a", k -> 4));
+    }
+
+    @Test
+    void testEvictsExpiredEntriesFirst() throws InterruptedException {
+        final BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(2, 60_000);
+        cache.put("a", 1);
+        cache.put("short", 2, 20);
+        Thread.sleep(50);
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    void testStaysBoundedUnderConcurrentWriters() throws InterruptedException {
+        final BoundedTtlCache<Integer, Integer> cache = new BoundedTtlCache<>(100, 60_000);
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            final int offset = t * 10_000;
+            pool.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    cache.getOrCreate(offset + i, k -> k);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // A writer that finds the cache over its bound trims it
+        cache.put(-1, -1);
+        assertTrue(cache.size() <= 100, "size " + cache.size());
+        assertEquals(-1, cache.get(-1));
+    }
+
+    @Test
+    void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedTtlCache<>(0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedTtlCache<>(10, 0));
+    }
+}
@@ -0,0 +1,54 @@
+package FoodSeer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests LongCounterMap.
+ */
+class LongCounterMapTest {
+
+    @Test
+    void testAddAndGet() {
+        final LongCounterMap map = new LongCounterMap();
+        assertEquals(0, map.get(7));
+
+        assertEquals(2, map.add(7, 2));
+        assertEquals(5, map.add(7, 3));
+        assertEquals(-1, map.add(-4, -1));
+
+        assertEquals(5, map.get(7));
+        assertEquals(-1, map.get(-4));
+        assertEquals(2, map.size());
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(0, map.get(7));
+    }
+
+    @Test
+    void testGrowsAndVisitsEveryEntry() {
+        final LongCounterMap map = new LongCounterMap(2);
+        for (long key = 1; key <= 1000; key++) {
+            map.add(key, key);
+        }
+        assertEquals(1000, map.size());
+
+        final Map<Long, Long> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(1000, seen.size());
+        assertEquals(500L, seen.get(500L));
+    }
+
+    @Test
+    void testRejectsReservedKey() {
+        final LongCounterMap map = new LongCounterMap();
+        assertThrows(IllegalArgumentException.class, () -> map.add(Long.MIN_VALUE, 1));
+        assertEquals(0, map.get(Long.MIN_VALUE));
+    }
+}
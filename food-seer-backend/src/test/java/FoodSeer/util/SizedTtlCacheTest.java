@@ -0,0 +1,75 @@
+package FoodSeer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests SizedTtlCache.
+ */
+class SizedTtlCacheTest {
+
+    /** Weighs an entry by the length of its value */
+    private static long weigh(final String key, final String value) {
+        return value.length();
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedToStayWithinBytes() {
+        final SizedTtlCache<String, String> cache = new SizedTtlCache<>(10, 60_000, SizedTtlCacheTest::weigh);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a"); // "b" is now the least recently used
+        cache.put("c", "cccc");
+
+        assertEquals("aaaa", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("cccc", cache.get("c"));
+
+        final SizedTtlCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.entries());
+        assertEquals(8, stats.bytes());
+        assertEquals(1, stats.evictions());
+    }
+
+    @Test
+    void testReplacingAnEntryUpdatesItsSize() {
+        final SizedTtlCache<String, String> cache = new SizedTtlCache<>(10, 60_000, SizedTtlCacheTest::weigh);
+        cache.put("a", "aaaaaaaa");
+        cache.put("a", "aa");
+        assertEquals(2, cache.getStats().bytes());
+
+        cache.put("big", "x".repeat(11)); // larger than the whole budget
+        assertNull(cache.get("big"));
+        assertEquals("aa", cache.get("a"));
+
+        cache.clear();
+        assertEquals(0, cache.getStats().bytes());
+    }
+
+    @Test
+    void testCountsHitsMissesAndExpiry() throws InterruptedException {
+        final SizedTtlCache<String, String> cache = new SizedTtlCache<>(100, 30, SizedTtlCacheTest::weigh);
+        cache.put("a", "value");
+        assertEquals("value", cache.get("a"));
+        assertNull(cache.get("b"));
+        Thread.sleep(50);
+        assertNull(cache.get("a"));
+
+        final SizedTtlCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1.0 / 3, stats.hitRate(), 1e-9);
+        assertEquals(0, stats.bytes());
+    }
+
+    @Test
+    void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new SizedTtlCache<String, String>(0, 1000,
+                SizedTtlCacheTest::weigh));
+        assertThrows(IllegalArgumentException.class, () -> new SizedTtlCache<String, String>(10, 0,
+                SizedTtlCacheTest::weigh));
+    }
+}
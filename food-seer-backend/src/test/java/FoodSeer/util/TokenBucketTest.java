@@ -0,0 +1,67 @@
+package FoodSeer.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests TokenBucket.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testAllowsBurstThenRefills() {
+        final TokenBucket bucket = new TokenBucket(3, 1.0, 0);
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+
+        final long wait = bucket.tryConsume(0);
+        assertTrue(Math.abs(SECOND - wait) < 1000, "wait was " + wait);
+
+        assertTrue(bucket.tryConsume(SECOND / 2) > 0);
+        assertEquals(0, bucket.tryConsume(wait + 1000));
+    }
+
+    @Test
+    void testDoesNotRefillPastCapacity() {
+        final TokenBucket bucket = new TokenBucket(2, 10.0, 0);
+        final long later = 60 * SECOND;
+        assertEquals(0, bucket.tryConsume(later));
+        assertEquals(0, bucket.tryConsume(later));
+        assertTrue(bucket.tryConsume(later) > 0);
+    }
+
+    @Test
+    void testConcurrentCallersShareTokens() throws InterruptedException {
+        final TokenBucket bucket = new TokenBucket(100, 0.001);
+        final AtomicInteger allowed = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 50; i++) {
+                    if (bucket.tryConsume() == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -1,10 +1,11 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { sendChatMessage, getCurrentUser, getAllFoods } from '../services/api';
+import { streamChatMessage, getCurrentUser, getAllFoods } from '../services/api';
 
 const Chatbot = () => {
   const navigate = useNavigate();
   const messagesEndRef = useRef(null);
+  const streamRef = useRef(null);
 
   const [currentUserId, setCurrentUserId] = useState(null);
   const [messages, setMessages] = useState([]);
@@ -59,10 +60,13 @@ const Chatbot = () => {
   // Save state
   useEffect(() => {
     if (!currentUserId || !stateLoaded) return;
-    const state = { messages, recommendedFoods };
+    const state = { messages: messages.filter((m) => !m.streaming), recommendedFoods };
     localStorage.setItem(`chatbotState_${currentUserId}`, JSON.stringify(state));
   }, [messages, recommendedFoods, currentUserId, stateLoaded]);
 
+  // Stop a streamed answer when leaving the page
+  useEffect(() => () => streamRef.current?.abort(), []);
+
   // Auto scroll
   useEffect(() => {
     messagesEndRef.current?.scrollIntoView({ behavior: 'smooth' });
@@ -77,8 +81,25 @@ const Chatbot = () => {
     setInputMessage('');
     setIsLoading(true);
 
+    // Show the answer as it arrives; the streamed message is settled at the end
+    const controller = new AbortController();
+    streamRef.current = controller;
+    let streamed = '';
+    const appendToken = (token) => {
+      const first = streamed === '';
+      streamed += token;
+      setMessages((prev) =>
+        first
+          ? [...prev, { role: 'assistant', content: streamed, streaming: true }]
+          : prev.map((m) => (m.streaming ? { ...m, content: streamed } : m))
+      );
+    };
+    const withoutPlaceholder = (prev) => prev.filter((m) => !m.streaming);
+    // Keeps the answer in place of the streamed message, no longer streaming
+    const settled = (prev, content) => [...withoutPlaceholder(prev), { role: 'assistant', content }];
+
     try {
-      const aiResponse = await sendChatMessage(inputMessage);
+      const aiResponse = await streamChatMessage(inputMessage, appendToken, controller.signal);
       const foods = await getAllFoods();
 
       const matchedFoods = foods.filter((f) =>
@@ -92,21 +113,17 @@ const Chatbot = () => {
           food: f
         }));
 
-        setMessages((prev) => [...prev, ...cards]);
+        setMessages((prev) => [...settled(prev, aiResponse.message), ...cards]);
         setRecommendedFoods(matchedFoods);
       } else {
-        setMessages((prev) => [
-          ...prev,
-          { role: 'assistant', content: aiResponse.message }
-        ]);
+        setMessages((prev) => settled(prev, aiResponse.message));
       }
     } catch (err) {
+      if (err.name === 'AbortError') return;
       console.error(err);
-      setMessages((prev) => [
-        ...prev,
-        { role: 'assistant', content: 'Sorry, something went wrong.' }
-      ]);
+      setMessages((prev) => settled(prev, 'Sorry, something went wrong.'));
     } finally {
+      streamRef.current = null;
       setIsLoading(false);
     }
   };
@@ -188,7 +205,7 @@ const Chatbot = () => {
           </div>
         ))}
 
-        {isLoading && (
+        {isLoading && !messages.some((m) => m.streaming) && (
           <div className="message assistant">
             <div className="message-avatar">🤖</div>
             <div className="message-content typing">
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { getAllFoods, getCurrentUser } from '../services/api';
+import { getAllFoods, getCurrentUser, getTopFoods } from '../services/api';
 
 const Inventory = () => {
   const [foods, setFoods] = useState([]);
@@ -9,6 +9,7 @@ const Inventory = () => {
   const [searchTerm, setSearchTerm] = useState('');
   const [sortBy, setSortBy] = useState('name'); // name, price, amount, rating
   const [filterInStock, setFilterInStock] = useState(false);
+  const [ratingRank, setRatingRank] = useState({}); // food id -> position in server ranking
   const navigate = useNavigate();
 
   useEffect(() => {
@@ -18,6 +19,14 @@ const Inventory = () => {
         const foodsData = await getAllFoods();
         setFoods(foodsData);
         setFilteredFoods(foodsData);
+        try {
+          const topFoods = await getTopFoods(Math.min(Math.max(foodsData.length, 1), 100));
+          const rank = {};
+          topFoods.forEach((food, index) => { rank[food.id] = index; });
+          setRatingRank(rank);
+        } catch (error) {
+          // Fall back to sorting by the raw average
+        }
       } catch (error) {
         console.error('Error fetching foods:', error);
         navigate('/');
@@ -54,6 +63,12 @@ const Inventory = () => {
         case 'amount':
           return b.amount - a.amount;
         case 'rating':
+          // Ranked foods first, in server order, then by raw average
+          const rankA = ratingRank[a.id] ?? Infinity;
+          const rankB = ratingRank[b.id] ?? Infinity;
+          if (rankA !== rankB) {
+            return rankA === Infinity ? 1 : rankB === Infinity ? -1 : rankA - rankB;
+          }
           const ratingA = a.rating || -1;
           const ratingB = b.rating || -1;
           return ratingB - ratingA;
@@ -63,7 +78,7 @@ const Inventory = () => {
     });
 
     setFilteredFoods(result);
-  }, [foods, searchTerm, sortBy, filterInStock]);
+  }, [foods, searchTerm, sortBy, filterInStock, ratingRank]);
 
   const handleBack = () => {
     navigate('/recommendations');
@@ -53,7 +53,7 @@ const OrderManagement = () => {
     }
   };
 
-  const getTotalPrice = (order) => order.foods.reduce((total, food) => total + food.price, 0);
+  const getTotalPrice = (order) => order.totalPrice ?? order.foods.reduce((total, food) => total + food.price, 0);
 
   if (loading) return <div className="staff-dashboard-container"><div className="loading">Loading orders...</div></div>;
 
@@ -136,7 +136,7 @@ const OrderManagement = () => {
               <div className="order-summary">
                 <div className="summary-item">
                   <span className="label">Total Items:</span>
-                  <span className="value">{order.foods.length}</span>
+                  <span className="value">{order.itemCount ?? order.foods.length}</span>
                 </div>
                 <div className="summary-item">
                   <span className="label">Total Price:</span>
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { getMyOrders, getCurrentUser, rateFoodItem } from '../services/api'; // Added rateFoodItem
+import { getMyOrders, getCurrentUser, rateFoodItem, subscribeToMyOrders } from '../services/api'; // Added rateFoodItem
 
 const Orders = () => {
   const [orders, setOrders] = useState([]);
@@ -16,6 +16,12 @@ const Orders = () => {
     fetchOrders();
   }, [navigate]);
 
+  // Refresh when the backend pushes a change to one of our orders
+  useEffect(() => {
+    const unsubscribe = subscribeToMyOrders(() => fetchOrders());
+    return unsubscribe;
+  }, []);
+
   const fetchOrders = async () => {
     try {
       await getCurrentUser(); // Verify authentication
@@ -49,7 +55,7 @@ const Orders = () => {
   };
 
   const getTotalPrice = (order) => {
-    return order.foods.reduce((total, food) => total + food.price, 0);
+    return order.totalPrice ?? order.foods.reduce((total, food) => total + food.price, 0);
   };
 
   // --- NEW RATING HANDLERS ---
@@ -147,7 +153,7 @@ const Orders = () => {
               <div className="order-details">
                 <div className="order-info">
                   <p><strong>Order ID:</strong> #{order.id}</p>
-                  <p><strong>Total Items:</strong> {order.foods.length}</p>
+                  <p><strong>Total Items:</strong> {order.itemCount ?? order.foods.length}</p>
                   <p><strong>Total Price:</strong> ${getTotalPrice(order)}</p>
                 </div>
 
@@ -1,15 +1,30 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import { getAllUsers, updateUserRole, deleteUser, getCurrentUser } from '../services/api';
+import { getUserPage, updateUserRole, deleteUser, getCurrentUser } from '../services/api';
+
+// Where the next page starts: an id for the plain listing, or the last
+// username and email for a search. Null on the last page.
+const nextCursor = (page) => {
+  if (page.nextAfter == null && page.nextAfterUsername == null) {
+    return null;
+  }
+  const { nextAfter, nextAfterUsername, nextAfterEmail } = page;
+  return { nextAfter, nextAfterUsername, nextAfterEmail };
+};
 
 const UserManagement = () => {
   const [users, setUsers] = useState([]);
+  const [cursor, setCursor] = useState(null);
+  const [roleCounts, setRoleCounts] = useState({});
+  const [search, setSearch] = useState('');
+  const [roleFilter, setRoleFilter] = useState('');
   const [loading, setLoading] = useState(true);
   const [editingUser, setEditingUser] = useState(null);
   const [newRole, setNewRole] = useState('');
   const [currentUserId, setCurrentUserId] = useState(null);
   const navigate = useNavigate();
 
+  // Loads the first page for the current search and role filter
   const fetchUsers = async () => {
     try {
       const user = await getCurrentUser();
@@ -22,8 +37,10 @@ const UserManagement = () => {
         return;
       }
 
-      const usersData = await getAllUsers();
-      setUsers(usersData);
+      const page = await getUserPage({ search, role: roleFilter });
+      setUsers(page.users);
+      setCursor(nextCursor(page));
+      setRoleCounts(page.roleCounts || {});
     } catch (error) {
       console.error('Error fetching users:', error);
       navigate('/');
@@ -32,9 +49,21 @@ const UserManagement = () => {
     }
   };
 
+  const handleLoadMore = async () => {
+    try {
+      const page = await getUserPage({ search, role: roleFilter, cursor });
+      setUsers((current) => [...current, ...page.users]);
+      setCursor(nextCursor(page));
+    } catch (error) {
+      console.error('Error fetching users:', error);
+    }
+  };
+
+  // Debounce typing so each keystroke does not start a request
   useEffect(() => {
-    fetchUsers();
-  }, []);
+    const timer = setTimeout(fetchUsers, 250);
+    return () => clearTimeout(timer);
+  }, [search, roleFilter]);
 
   const handleEditRole = (user) => {
     setEditingUser(user);
@@ -131,19 +160,19 @@ const UserManagement = () => {
       <div className="dashboard-stats">
         <div className="stat-card">
           <h3>Total Users</h3>
-          <p className="stat-number">{users.length}</p>
+          <p className="stat-number">{Object.values(roleCounts).reduce((sum, n) => sum + n, 0)}</p>
         </div>
         <div className="stat-card">
           <h3>Admins</h3>
-          <p className="stat-number">{users.filter(u => u.role === 'ROLE_ADMIN').length}</p>
+          <p className="stat-number">{roleCounts.ROLE_ADMIN || 0}</p>
         </div>
         <div className="stat-card">
           <h3>Staff</h3>
-          <p className="stat-number">{users.filter(u => u.role === 'ROLE_STAFF').length}</p>
+          <p className="stat-number">{roleCounts.ROLE_STAFF || 0}</p>
         </div>
         <div className="stat-card">
           <h3>Customers</h3>
-          <p className="stat-number">{users.filter(u => u.role === 'ROLE_CUSTOMER').length}</p>
+          <p className="stat-number">{roleCounts.ROLE_CUSTOMER || 0}</p>
         </div>
       </div>
 
@@ -186,6 +215,20 @@ const UserManagement = () => {
 
       <div className="users-table-container">
         <h2>All Users</h2>
+        <div className="users-filters">
+          <input
+            type="text"
+            placeholder="Search username or email"
+            value={search}
+            onChange={(e) => setSearch(e.target.value)}
+          />
+          <select value={roleFilter} onChange={(e) => setRoleFilter(e.target.value)} className="role-select">
+            <option value="">All roles</option>
+            <option value="ROLE_CUSTOMER">Customer</option>
+            <option value="ROLE_STAFF">Staff</option>
+            <option value="ROLE_ADMIN">Admin</option>
+          </select>
+        </div>
         {users.length === 0 ? (
           <p>No users found.</p>
         ) : (
@@ -198,6 +241,7 @@ const UserManagement = () => {
                 <th>Role</th>
                 <th>Cost Preference</th>
                 <th>Dietary Restrictions</th>
+                <th>Orders</th>
                 <th>Actions</th>
               </tr>
             </thead>
@@ -217,6 +261,7 @@ const UserManagement = () => {
                   </td>
                   <td>{user.costPreference || '-'}</td>
                   <td>{user.dietaryRestrictions || '-'}</td>
+                  <td>{user.orderCount ?? '-'}</td>
                   <td className="actions-cell">
                     <button
                       className="edit-button"
@@ -237,6 +282,11 @@ const UserManagement = () => {
             </tbody>
           </table>
         )}
+        {cursor != null && (
+          <button className="submit-button" onClick={handleLoadMore}>
+            Load more
+          </button>
+        )}
       </div>
     </div>
   );
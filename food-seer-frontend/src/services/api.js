@@ -21,6 +21,60 @@ const createHeaders = (includeAuth = true) => {
   return headers;
 };
 
+// Exchanges the stored refresh token for new tokens; concurrent callers
+// share one request because each refresh token can only be used once
+let refreshInFlight = null;
+const refreshSession = () => {
+  const refreshToken = localStorage.getItem('refreshToken');
+  if (!refreshToken) {
+    return Promise.resolve(false);
+  }
+  if (!refreshInFlight) {
+    refreshInFlight = fetch(`${API_BASE_URL}/auth/refresh`, {
+      method: 'POST',
+      headers: createHeaders(false),
+      body: JSON.stringify({ refreshToken }),
+    })
+      .then(async (response) => {
+        if (!response.ok) {
+          localStorage.removeItem('token');
+          localStorage.removeItem('refreshToken');
+          return false;
+        }
+        const data = await response.json();
+        localStorage.setItem('token', data.accessToken);
+        localStorage.setItem('refreshToken', data.refreshToken);
+        return true;
+      })
+      .catch(() => false)
+      .finally(() => {
+        refreshInFlight = null;
+      });
+  }
+  return refreshInFlight;
+};
+
+// fetch for authenticated calls: access tokens are short-lived, so on 401
+// the session is refreshed once and the request retried with the new token
+const apiFetch = async (url, options = {}) => {
+  const response = await fetch(url, options);
+  if (response.status !== 401 || !(await refreshSession())) {
+    return response;
+  }
+  return fetch(url, {
+    ...options,
+    headers: { ...options.headers, Authorization: `Bearer ${getAuthToken()}` },
+  });
+};
+
+// Key sent with non-idempotent requests so the backend can detect retries
+const createIdempotencyKey = () => {
+  if (window.crypto && window.crypto.randomUUID) {
+    return window.crypto.randomUUID();
+  }
+  return `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+};
+
 // Auth API calls
 export const login = async (username, password) => {
   try {
@@ -40,6 +94,9 @@ export const login = async (username, password) => {
     if (data.accessToken) {
       localStorage.setItem('token', data.accessToken);
       localStorage.setItem('username', username);
+      if (data.refreshToken) {
+        localStorage.setItem('refreshToken', data.refreshToken);
+      }
     }
     
     return data;
@@ -69,14 +126,24 @@ export const register = async (username, email, password) => {
 };
 
 export const logout = () => {
+  // Revoke the token on the server; local state is cleared either way
+  const refreshToken = localStorage.getItem('refreshToken');
+  if (localStorage.getItem('token') || refreshToken) {
+    fetch(`${API_BASE_URL}/auth/logout`, {
+      method: 'POST',
+      headers: createHeaders(true),
+      body: JSON.stringify({ refreshToken }),
+    }).catch((error) => console.error('Logout error:', error));
+  }
   localStorage.removeItem('token');
+  localStorage.removeItem('refreshToken');
   localStorage.removeItem('username');
 };
 
 // User API calls
 export const getCurrentUser = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/users/me`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/users/me`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -94,7 +161,7 @@ export const getCurrentUser = async () => {
 
 export const updateUserPreferences = async (costPreference, dietaryRestrictions) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/users/me/preferences`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/users/me/preferences`, {
       method: 'PUT',
       headers: createHeaders(true),
       body: JSON.stringify({ costPreference, dietaryRestrictions }),
@@ -119,7 +186,7 @@ export const isAuthenticated = () => {
 // Food API calls
 export const getAllFoods = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/foods`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/foods`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -137,7 +204,7 @@ export const getAllFoods = async () => {
 
 export const getFoodById = async (id) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/foods/${id}`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/foods/${id}`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -155,7 +222,7 @@ export const getFoodById = async (id) => {
 
 export const createFood = async (foodData) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/foods`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/foods`, {
       method: 'POST',
       headers: createHeaders(true),
       body: JSON.stringify(foodData),
@@ -174,7 +241,7 @@ export const createFood = async (foodData) => {
 
 export const updateFood = async (foodData) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/foods/updateFood`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/foods/updateFood`, {
       method: 'POST',
       headers: createHeaders(true),
       body: JSON.stringify(foodData),
@@ -193,7 +260,7 @@ export const updateFood = async (foodData) => {
 
 export const deleteFood = async (id) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/foods/${id}`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/foods/${id}`, {
       method: 'DELETE',
       headers: createHeaders(true),
     });
@@ -217,7 +284,7 @@ export const deleteFood = async (id) => {
 // Inventory API calls
 export const getInventory = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/inventory`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/inventory`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -235,7 +302,7 @@ export const getInventory = async () => {
 
 export const updateInventory = async (inventoryData) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/inventory`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/inventory`, {
       method: 'POST',
       headers: createHeaders(true),
       body: JSON.stringify(inventoryData),
@@ -255,7 +322,7 @@ export const updateInventory = async (inventoryData) => {
 // Order API calls
 export const getAllOrders = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/orders`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -273,7 +340,7 @@ export const getAllOrders = async () => {
 
 export const getMyOrders = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/orders/my-orders`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders/my-orders`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -289,9 +356,123 @@ export const getMyOrders = async () => {
   }
 };
 
+// Fetches one page of the current user's orders, newest first. Pass the
+// returned nextBefore as `before` for the next page, or the newest id already
+// shown as `since` to fetch only new orders.
+export const getMyOrdersPage = async ({ fulfilled, before, since, limit = 20 } = {}) => {
+  try {
+    const params = new URLSearchParams({ limit });
+    if (fulfilled !== undefined) params.append('fulfilled', fulfilled);
+    if (before !== undefined && before !== null) params.append('before', before);
+    if (since !== undefined && since !== null) params.append('since', since);
+
+    const response = await apiFetch(`${API_BASE_URL}/api/orders/my-orders/page?${params}`, {
+      method: 'GET',
+      headers: createHeaders(true),
+    });
+
+    if (!response.ok) {
+      throw new Error('Failed to fetch my orders');
+    }
+
+    return await response.json();
+  } catch (error) {
+    console.error('Get my orders page error:', error);
+    throw error;
+  }
+};
+
+// Streams changes to the current user's orders. EventSource cannot send the
+// Authorization header, so the stream is read with fetch. A dropped stream is
+// reopened with capped exponential backoff, and onEvent('reconnected', null)
+// is called once it is back so the caller can refetch anything it missed.
+// Returns a function that closes the stream.
+export const subscribeToMyOrders = (onEvent) => {
+  const controller = new AbortController();
+  const initialDelayMs = 1000;
+  const maxDelayMs = 30000;
+
+  const wait = (ms) => new Promise((resolve) => {
+    const onAbort = () => {
+      clearTimeout(timer);
+      resolve();
+    };
+    const timer = setTimeout(() => {
+      controller.signal.removeEventListener('abort', onAbort);
+      resolve();
+    }, ms);
+    controller.signal.addEventListener('abort', onAbort, { once: true });
+  });
+
+  const open = async () => {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders/my-orders/stream`, {
+      method: 'GET',
+      headers: { ...createHeaders(true), Accept: 'text/event-stream' },
+      signal: controller.signal,
+    });
+    if (!response.ok || !response.body) {
+      throw new Error('Failed to open order stream');
+    }
+
+    return response.body.getReader();
+  };
+
+  const consume = async (reader) => {
+    const decoder = new TextDecoder();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) {
+        return;
+      }
+      buffer += decoder.decode(value, { stream: true });
+      const events = buffer.split('\n\n');
+      buffer = events.pop();
+      events.forEach((raw) => {
+        let name = 'message';
+        let data = '';
+        raw.split('\n').forEach((line) => {
+          if (line.startsWith('event:')) name = line.slice(6).trim();
+          else if (line.startsWith('data:')) data += line.slice(5);
+        });
+        if (data) {
+          onEvent(name, JSON.parse(data));
+        }
+      });
+    }
+  };
+
+  const run = async () => {
+    let delayMs = initialDelayMs;
+    let reconnecting = false;
+    while (!controller.signal.aborted) {
+      try {
+        const reader = await open();
+        delayMs = initialDelayMs;
+        if (reconnecting) {
+          onEvent('reconnected', null);
+        }
+        await consume(reader);
+      } catch (error) {
+        if (error.name === 'AbortError') {
+          return;
+        }
+        console.error('Order stream error:', error);
+      }
+      reconnecting = true;
+      await wait(delayMs);
+      delayMs = Math.min(delayMs * 2, maxDelayMs);
+    }
+  };
+
+  run();
+
+  return () => controller.abort();
+};
+
 export const getFulfilledOrders = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/orders/fulfilledOrders`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders/fulfilledOrders`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -309,7 +490,7 @@ export const getFulfilledOrders = async () => {
 
 export const getUnfulfilledOrders = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/orders/unfulfilledOrders`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders/unfulfilledOrders`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -327,7 +508,7 @@ export const getUnfulfilledOrders = async () => {
 
 export const getOrderById = async (id) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/orders/${id}`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders/${id}`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -345,9 +526,9 @@ export const getOrderById = async (id) => {
 
 export const createOrder = async (orderData) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/orders`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders`, {
       method: 'POST',
-      headers: createHeaders(true),
+      headers: { ...createHeaders(true), 'Idempotency-Key': createIdempotencyKey() },
       body: JSON.stringify(orderData),
     });
     
@@ -364,9 +545,9 @@ export const createOrder = async (orderData) => {
 
 export const fulfillOrder = async (orderId) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/orders/fulfillOrder`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders/fulfillOrder`, {
       method: 'POST',
-      headers: createHeaders(true),
+      headers: { ...createHeaders(true), 'Idempotency-Key': createIdempotencyKey() },
       body: JSON.stringify({ id: orderId }),
     });
     
@@ -381,10 +562,50 @@ export const fulfillOrder = async (orderId) => {
   }
 };
 
+export const fulfillOrderAsync = async (orderId) => {
+  try {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders/fulfillOrder/async`, {
+      method: 'POST',
+      headers: createHeaders(true),
+      body: JSON.stringify({ id: orderId }),
+    });
+
+    if (response.status === 429) {
+      throw new Error('Too many orders are being fulfilled, please try again');
+    }
+    if (!response.ok) {
+      throw new Error('Failed to fulfill order');
+    }
+
+    return await response.json();
+  } catch (error) {
+    console.error('Fulfill order error:', error);
+    throw error;
+  }
+};
+
+export const getFulfillmentJob = async (jobId) => {
+  try {
+    const response = await apiFetch(`${API_BASE_URL}/api/orders/fulfillOrder/jobs/${jobId}`, {
+      method: 'GET',
+      headers: createHeaders(true),
+    });
+
+    if (!response.ok) {
+      throw new Error('Failed to fetch fulfillment status');
+    }
+
+    return await response.json();
+  } catch (error) {
+    console.error('Get fulfillment job error:', error);
+    throw error;
+  }
+};
+
 // Admin User Management API calls
 export const getAllUsers = async () => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/users`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/users`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -400,9 +621,36 @@ export const getAllUsers = async () => {
   }
 };
 
+// One page of users, searched and filtered on the server. `cursor` is the
+// previous page's { nextAfter, nextAfterUsername, nextAfterEmail }.
+export const getUserPage = async ({ search, role, cursor, limit = 50, orderCounts = true } = {}) => {
+  try {
+    const params = new URLSearchParams({ limit, orderCounts });
+    if (search) params.append('search', search);
+    if (role) params.append('role', role);
+    if (cursor?.nextAfter != null) params.append('after', cursor.nextAfter);
+    if (cursor?.nextAfterUsername != null) params.append('afterUsername', cursor.nextAfterUsername);
+    if (cursor?.nextAfterEmail != null) params.append('afterEmail', cursor.nextAfterEmail);
+
+    const response = await apiFetch(`${API_BASE_URL}/api/users/page?${params}`, {
+      method: 'GET',
+      headers: createHeaders(true),
+    });
+
+    if (!response.ok) {
+      throw new Error('Failed to fetch users');
+    }
+
+    return await response.json();
+  } catch (error) {
+    console.error('Get user page error:', error);
+    throw error;
+  }
+};
+
 export const getUserById = async (id) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/users/${id}`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/users/${id}`, {
       method: 'GET',
       headers: createHeaders(true),
     });
@@ -420,7 +668,7 @@ export const getUserById = async (id) => {
 
 export const updateUserRole = async (id, role) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/users/${id}/role`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/users/${id}/role`, {
       method: 'PUT',
       headers: createHeaders(true),
       body: JSON.stringify({ role }),
@@ -439,7 +687,7 @@ export const updateUserRole = async (id, role) => {
 
 export const deleteUser = async (id) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/users/${id}`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/users/${id}`, {
       method: 'DELETE',
       headers: createHeaders(true),
     });
@@ -460,7 +708,7 @@ export const deleteUser = async (id) => {
 // Chat API calls
 export const sendChatMessage = async (message) => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/chat`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/chat`, {
       method: 'POST',
       headers: createHeaders(true),
       body: JSON.stringify({ message }),
@@ -477,10 +725,76 @@ export const sendChatMessage = async (message) => {
   }
 };
 
+// Streams the AI's answer as it is generated. onToken receives each new piece
+// of text; resolves with the whole answer. Aborting the signal closes the
+// connection, which stops generation on the server.
+export const streamChatMessage = async (message, onToken, signal) => {
+  const response = await apiFetch(`${API_BASE_URL}/api/chat/stream`, {
+    method: 'POST',
+    headers: { ...createHeaders(true), Accept: 'text/event-stream' },
+    body: JSON.stringify({ message }),
+    signal,
+  });
+  if (!response.ok || !response.body) {
+    throw new Error('Failed to send message to AI');
+  }
+
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+  let answer = '';
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) {
+      return { message: answer };
+    }
+    buffer += decoder.decode(value, { stream: true });
+    const events = buffer.split('\n\n');
+    buffer = events.pop();
+    for (const raw of events) {
+      let name = 'message';
+      let data = '';
+      raw.split('\n').forEach((line) => {
+        if (line.startsWith('event:')) name = line.slice(6).trim();
+        else if (line.startsWith('data:')) data += line.slice(5);
+      });
+      if (!data) continue;
+      const payload = JSON.parse(data);
+      if (name === 'token') {
+        answer += payload.message;
+        onToken(payload.message);
+      } else if (name === 'done') {
+        return payload;
+      } else if (name === 'error') {
+        throw new Error(payload.message);
+      }
+    }
+  }
+};
+
+export const getTopFoods = async (limit = 10) => {
+  try {
+    // Ranked on the server by a Bayesian average, best first
+    const response = await apiFetch(`${API_BASE_URL}/api/foods/top?limit=${limit}`, {
+      method: 'GET',
+      headers: createHeaders(true),
+    });
+
+    if (!response.ok) {
+      throw new Error('Failed to fetch top foods');
+    }
+
+    return await response.json();
+  } catch (error) {
+    console.error('Get top foods error:', error);
+    throw error;
+  }
+};
+
 export const rateFoodItem = async (orderId, foodId, rating) => {
   try {
     // Note: rating is passed as a query parameter (?rating=5.0)
-    const response = await fetch(`${API_BASE_URL}/api/foods/orders/${orderId}/${foodId}/rate?rating=${rating}`, {
+    const response = await apiFetch(`${API_BASE_URL}/api/foods/orders/${orderId}/${foodId}/rate?rating=${rating}`, {
       method: 'POST',
       headers: createHeaders(true),
     });
@@ -498,3 +812,24 @@ export const rateFoodItem = async (orderId, foodId, rating) => {
   }
 };
 
+
+export const rateOrder = async (orderId, ratings) => {
+  try {
+    // ratings is an object of { foodId: rating } for foods in this order
+    const response = await apiFetch(`${API_BASE_URL}/api/foods/orders/${orderId}/rate`, {
+      method: 'POST',
+      headers: createHeaders(true),
+      body: JSON.stringify(ratings),
+    });
+
+    if (!response.ok) {
+      const errorText = await response.text();
+      throw new Error(errorText || 'Failed to submit ratings');
+    }
+
+    return await response.json();
+  } catch (error) {
+    console.error('Rate order error:', error);
+    throw error;
+  }
+};